@@ -0,0 +1,88 @@
+package com.github.mehrdadfalahati.redisutills.codegen;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Scalar reads of the generated codecs. Like data binding they accept numbers and booleans written as strings, but a
+ * value that is neither, or a string that does not parse, fails instead of reading as {@code 0} or {@code false}.
+ */
+public final class GeneratedCodecReads {
+
+    private GeneratedCodecReads() {
+    }
+
+    public static String readString(JsonParser parser) throws IOException {
+        if (!parser.currentToken().isScalarValue()) {
+            throw mismatch(parser, "a string");
+        }
+        return parser.getValueAsString();
+    }
+
+    public static int readInt(JsonParser parser) throws IOException {
+        return readInt(parser, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public static int readInt(JsonParser parser, int min, int max) throws IOException {
+        long value = readLong(parser);
+        if (value < min || value > max) {
+            throw new JsonParseException(parser, "Number " + value + " is out of range [" + min + ", " + max + "]");
+        }
+        return (int) value;
+    }
+
+    public static long readLong(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getLongValue();
+            case VALUE_STRING -> {
+                try {
+                    yield Long.parseLong(parser.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw unparsable(parser, "an integer");
+                }
+            }
+            default -> throw mismatch(parser, "an integer");
+        };
+    }
+
+    public static double readDouble(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_STRING -> {
+                try {
+                    yield Double.parseDouble(parser.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw unparsable(parser, "a number");
+                }
+            }
+            default -> throw mismatch(parser, "a number");
+        };
+    }
+
+    public static boolean readBoolean(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_TRUE -> true;
+            case VALUE_FALSE -> false;
+            case VALUE_STRING -> {
+                String text = parser.getText().trim();
+                if (text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false")) {
+                    yield Boolean.parseBoolean(text);
+                }
+                throw unparsable(parser, "a boolean");
+            }
+            default -> throw mismatch(parser, "a boolean");
+        };
+    }
+
+    private static JsonParseException unparsable(JsonParser parser, String expected) throws IOException {
+        return new JsonParseException(parser, "Expected " + expected + " for '" + parser.currentName()
+                + "' but was \"" + parser.getText() + "\"");
+    }
+
+    private static JsonParseException mismatch(JsonParser parser, String expected) throws IOException {
+        return new JsonParseException(parser, "Expected " + expected + " for '" + parser.currentName()
+                + "' but was " + parser.currentToken());
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.mehrdadfalahati.redisutills.codegen;
+
+import java.util.Optional;
+
+public final class GeneratedCodecs {
+
+    static final String SUFFIX = "$RedisCodec";
+
+    private static final ClassValue<Optional<GeneratedRedisCodec<?>>> CODECS = new ClassValue<>() {
+        @Override
+        protected Optional<GeneratedRedisCodec<?>> computeValue(Class<?> type) {
+            if (!type.isAnnotationPresent(RedisValue.class)) {
+                return Optional.empty();
+            }
+            try {
+                Class<?> codecClass = Class.forName(type.getName() + SUFFIX, true, type.getClassLoader());
+                return Optional.of((GeneratedRedisCodec<?>) codecClass.getDeclaredConstructor().newInstance());
+            } catch (ClassNotFoundException e) {
+                // annotated, but compiled without the processor
+                return Optional.empty();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not create generated codec for " + type.getName(), e);
+            }
+        }
+    };
+
+    private GeneratedCodecs() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> GeneratedRedisCodec<T> find(Class<T> type) {
+        return (GeneratedRedisCodec<T>) CODECS.get(type).orElse(null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.mehrdadfalahati.redisutills.codegen;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.Serializers;
+
+import java.io.IOException;
+
+/**
+ * Lets data binding use the generated codecs too, so {@link RedisValue} types nested in other values, collections and
+ * maps, e.g. a {@code TypeReference<List<Product>>}, are read and written without reflection as well.
+ */
+public class GeneratedCodecsModule extends SimpleModule {
+
+    public GeneratedCodecsModule() {
+        super(GeneratedCodecsModule.class.getSimpleName(), Version.unknownVersion());
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        context.addSerializers(new Serializers.Base() {
+            @Override
+            public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+                GeneratedRedisCodec<Object> codec = find(type);
+                return codec == null ? null : new GeneratedCodecSerializer(codec);
+            }
+        });
+        context.addDeserializers(new Deserializers.Base() {
+            @Override
+            public JsonDeserializer<?> findBeanDeserializer(JavaType type, DeserializationConfig config,
+                                                            BeanDescription beanDesc) {
+                GeneratedRedisCodec<Object> codec = find(type);
+                return codec == null ? null : new GeneratedCodecDeserializer(codec);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GeneratedRedisCodec<Object> find(JavaType type) {
+        return (GeneratedRedisCodec<Object>) GeneratedCodecs.find(type.getRawClass());
+    }
+
+    private static class GeneratedCodecSerializer extends JsonSerializer<Object> {
+
+        private final GeneratedRedisCodec<Object> codec;
+
+        GeneratedCodecSerializer(GeneratedRedisCodec<Object> codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            codec.write(value, generator);
+        }
+    }
+
+    private static class GeneratedCodecDeserializer extends JsonDeserializer<Object> {
+
+        private final GeneratedRedisCodec<Object> codec;
+
+        GeneratedCodecDeserializer(GeneratedRedisCodec<Object> codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public Object deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return codec.read(parser);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.mehrdadfalahati.redisutills.codegen;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+public interface GeneratedRedisCodec<T> {
+
+    void write(T value, JsonGenerator generator) throws IOException;
+
+    /**
+     * Reads the value starting at the parser's current token and leaves the parser on its last token.
+     */
+    T read(JsonParser parser) throws IOException;
+}
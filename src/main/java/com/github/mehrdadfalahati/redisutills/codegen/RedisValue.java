@@ -0,0 +1,18 @@
+package com.github.mehrdadfalahati.redisutills.codegen;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a reflection-free {@link GeneratedRedisCodec} named {@code <Type>$RedisCodec} for the annotated DTO at
+ * compile time. Supported are records and classes exposing a getter per field and an all-args constructor taking
+ * the fields in declaration order, like Lombok's {@code @Data @AllArgsConstructor}.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RedisValue {
+}
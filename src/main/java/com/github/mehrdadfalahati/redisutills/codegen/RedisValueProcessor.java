@@ -0,0 +1,458 @@
+package com.github.mehrdadfalahati.redisutills.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@link GeneratedRedisCodec} for every {@link RedisValue} type. The generated code streams the value
+ * through a Jackson {@code JsonGenerator}/{@code JsonParser}, so it works with every codec format, and only falls back
+ * to data binding for property types it has no direct mapping for. {@code transient} and {@code @JsonIgnore} fields
+ * are left out; any other Jackson annotation the generated code cannot honour fails the compilation.
+ */
+@SupportedAnnotationTypes("com.github.mehrdadfalahati.redisutills.codegen.RedisValue")
+public class RedisValueProcessor extends AbstractProcessor {
+
+    private static final String JACKSON_PACKAGE = "com.fasterxml.jackson.";
+    private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+    private static final String JSON_IGNORE = "com.fasterxml.jackson.annotation.JsonIgnore";
+    private static final String JSON_IGNORE_PROPERTIES = "com.fasterxml.jackson.annotation.JsonIgnoreProperties";
+    private static final String READS = GeneratedCodecReads.class.getName();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(RedisValue.class)) {
+            TypeElement type = (TypeElement) element;
+            try {
+                if (isSupported(type)) {
+                    generate(type);
+                }
+            } catch (IOException e) {
+                error(type, "Could not write redis codec: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private boolean isSupported(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) {
+            error(type, "@RedisValue is only supported on classes and records");
+            return false;
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || type.getModifiers().contains(Modifier.PRIVATE)) {
+            error(type, "@RedisValue types must be concrete and not private");
+            return false;
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            error(type, "@RedisValue types must not be generic");
+            return false;
+        }
+        if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)
+                && type.getKind() != ElementKind.RECORD) {
+            error(type, "@RedisValue nested classes must be static");
+            return false;
+        }
+        return hasOnlySupportedJacksonAnnotations(type);
+    }
+
+    /**
+     * The generated code only knows the property name of {@code @JsonProperty}, {@code @JsonIgnore} and unknown
+     * properties being skipped, anything else would silently read or write differently than data binding.
+     */
+    private boolean hasOnlySupportedJacksonAnnotations(TypeElement type) {
+        boolean supported = true;
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            if (!isSupportedAnnotation(annotation, JSON_IGNORE_PROPERTIES, "ignoreUnknown")) {
+                supported = unsupportedAnnotation(type, annotation);
+            }
+        }
+        // records and lombok copy property annotations to accessors and constructor parameters, they are checked once
+        // on the property itself
+        Set<String> propertyAnnotations = new HashSet<>();
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (isProperty(enclosed)) {
+                enclosed.getAnnotationMirrors().forEach(annotation -> propertyAnnotations.add(annotation.toString()));
+            }
+        }
+        for (Element enclosed : type.getEnclosedElements()) {
+            List<Element> elements = new ArrayList<>(List.of(enclosed));
+            if (enclosed instanceof ExecutableElement executable) {
+                elements.addAll(executable.getParameters());
+            }
+            for (Element element : elements) {
+                for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                    boolean allowed = isProperty(element)
+                            ? isSupportedAnnotation(annotation, JSON_PROPERTY, "value")
+                            || isSupportedAnnotation(annotation, JSON_IGNORE, "value")
+                            : !isJackson(annotation) || propertyAnnotations.contains(annotation.toString());
+                    if (!allowed) {
+                        supported = unsupportedAnnotation(element, annotation);
+                    }
+                }
+            }
+        }
+        return supported;
+    }
+
+    private static boolean isSupportedAnnotation(AnnotationMirror annotation, String name, String element) {
+        return !isJackson(annotation) || annotation.getAnnotationType().toString().equals(name)
+                && annotation.getElementValues().keySet().stream()
+                .allMatch(key -> key.getSimpleName().contentEquals(element));
+    }
+
+    private static boolean isProperty(Element element) {
+        return element.getKind() == ElementKind.FIELD && !element.getModifiers().contains(Modifier.STATIC)
+                || element.getKind() == ElementKind.RECORD_COMPONENT;
+    }
+
+    private static boolean isJackson(AnnotationMirror annotation) {
+        return annotation.getAnnotationType().toString().startsWith(JACKSON_PACKAGE);
+    }
+
+    private boolean unsupportedAnnotation(Element element, AnnotationMirror annotation) {
+        error(element, annotation + " is not supported by @RedisValue codecs; remove it or @RedisValue");
+        return false;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String codecName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + GeneratedCodecs.SUFFIX;
+        String typeName = type.getQualifiedName().toString();
+        List<Property> properties = properties(type);
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                (packageName.isEmpty() ? "" : packageName + ".") + codecName, type);
+        try (Writer writer = file.openWriter()) {
+            StringBuilder source = new StringBuilder();
+            if (!packageName.isEmpty()) {
+                source.append("package ").append(packageName).append(";\n\n");
+            }
+            source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                    .append("public final class ").append(codecName)
+                    .append(" implements com.github.mehrdadfalahati.redisutills.codegen.GeneratedRedisCodec<")
+                    .append(typeName).append("> {\n\n");
+            appendConstants(source, properties);
+            appendWrite(source, typeName, properties);
+            appendRead(source, typeName, properties);
+            source.append("}\n");
+            writer.write(source.toString());
+        }
+    }
+
+    private List<Property> properties(TypeElement type) {
+        List<Property> properties = new ArrayList<>();
+        if (type.getKind() == ElementKind.RECORD) {
+            // Jackson annotations do not target record components, javac only keeps them on the generated field
+            Map<String, Element> fields = new HashMap<>();
+            ElementFilter.fieldsIn(type.getEnclosedElements())
+                    .forEach(field -> fields.put(field.getSimpleName().toString(), field));
+            for (var component : type.getRecordComponents()) {
+                String name = component.getSimpleName().toString();
+                Element annotated = fields.getOrDefault(name, component);
+                properties.add(property(properties.size(), jsonName(annotated, name), name + "()", component.asType(),
+                        isIgnored(annotated)));
+            }
+            return properties;
+        }
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            String name = field.getSimpleName().toString();
+            String prefix = field.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get";
+            String getter = prefix + Character.toUpperCase(name.charAt(0)) + name.substring(1) + "()";
+            boolean ignored = field.getModifiers().contains(Modifier.TRANSIENT) || isIgnored(field);
+            properties.add(property(properties.size(), jsonName(field, name), getter, field.asType(), ignored));
+        }
+        return properties;
+    }
+
+    private Property property(int index, String jsonName, String accessor, TypeMirror type, boolean ignored) {
+        return new Property(index, jsonName, accessor, type, kind(type), ignored);
+    }
+
+    private Kind kind(TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:
+                return Kind.INT;
+            case LONG:
+                return Kind.LONG;
+            case DOUBLE:
+                return Kind.DOUBLE;
+            case FLOAT:
+                return Kind.FLOAT;
+            case SHORT:
+                return Kind.SHORT;
+            case BYTE:
+                return Kind.BYTE;
+            case BOOLEAN:
+                return Kind.BOOLEAN;
+            case DECLARED:
+                break;
+            default:
+                return Kind.OTHER;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        if (element.getKind() == ElementKind.ENUM) {
+            return Kind.ENUM;
+        }
+        if (element.getAnnotation(RedisValue.class) != null && element.getTypeParameters().isEmpty()) {
+            return Kind.GENERATED;
+        }
+        return switch (element.getQualifiedName().toString()) {
+            case "java.lang.String" -> Kind.STRING;
+            case "java.lang.Integer" -> Kind.INT;
+            case "java.lang.Long" -> Kind.LONG;
+            case "java.lang.Double" -> Kind.DOUBLE;
+            case "java.lang.Float" -> Kind.FLOAT;
+            case "java.lang.Short" -> Kind.SHORT;
+            case "java.lang.Byte" -> Kind.BYTE;
+            case "java.lang.Boolean" -> Kind.BOOLEAN;
+            case "java.time.Instant" -> Kind.INSTANT;
+            case "java.util.UUID" -> Kind.UUID;
+            default -> Kind.OTHER;
+        };
+    }
+
+    private void appendConstants(StringBuilder source, List<Property> properties) {
+        properties = written(properties);
+        for (Property property : properties) {
+            if (property.kind == Kind.GENERATED) {
+                String codec = codecType(property.type);
+                source.append("    private static final ").append(codec).append(' ').append(property.constant())
+                        .append(" = new ").append(codec).append("();\n");
+            } else if (property.kind == Kind.OTHER) {
+                String reference = "com.fasterxml.jackson.core.type.TypeReference<" + boxed(property.type) + ">";
+                source.append("    private static final ").append(reference).append(' ').append(property.constant())
+                        .append(" = new ").append(reference).append("() {\n    };\n");
+            }
+        }
+        if (properties.stream().anyMatch(property -> property.kind == Kind.GENERATED || property.kind == Kind.OTHER)) {
+            source.append('\n');
+        }
+    }
+
+    private void appendWrite(StringBuilder source, String typeName, List<Property> properties) {
+        source.append("    @Override\n")
+                .append("    public void write(").append(typeName)
+                .append(" value, com.fasterxml.jackson.core.JsonGenerator generator) throws java.io.IOException {\n")
+                .append("        if (value == null) {\n")
+                .append("            generator.writeNull();\n")
+                .append("            return;\n")
+                .append("        }\n")
+                .append("        generator.writeStartObject();\n");
+        for (Property property : written(properties)) {
+            source.append("        ").append(property.type).append(' ').append(property.variable())
+                    .append(" = value.").append(property.accessor).append(";\n")
+                    .append("        generator.writeFieldName(\"").append(escape(property.jsonName)).append("\");\n");
+            String write = writeStatement(property);
+            if (property.type.getKind().isPrimitive()) {
+                source.append("        ").append(write).append('\n');
+            } else {
+                source.append("        if (").append(property.variable()).append(" == null) {\n")
+                        .append("            generator.writeNull();\n")
+                        .append("        } else {\n")
+                        .append("            ").append(write).append('\n')
+                        .append("        }\n");
+            }
+        }
+        source.append("        generator.writeEndObject();\n")
+                .append("    }\n\n");
+    }
+
+    private String writeStatement(Property property) {
+        String variable = property.variable();
+        return switch (property.kind) {
+            case STRING -> "generator.writeString(" + variable + ");";
+            case INT, LONG, DOUBLE, FLOAT, SHORT, BYTE -> "generator.writeNumber(" + variable + ");";
+            case BOOLEAN -> "generator.writeBoolean(" + variable + ");";
+            case INSTANT, UUID -> "generator.writeString(" + variable + ".toString());";
+            case ENUM -> "generator.writeString(" + variable + ".name());";
+            case GENERATED -> property.constant() + ".write(" + variable + ", generator);";
+            case OTHER -> "generator.writeObject(" + variable + ");";
+        };
+    }
+
+    private void appendRead(StringBuilder source, String typeName, List<Property> properties) {
+        source.append("    @Override\n")
+                .append("    public ").append(typeName)
+                .append(" read(com.fasterxml.jackson.core.JsonParser parser) throws java.io.IOException {\n")
+                .append("        if (parser.currentToken() == com.fasterxml.jackson.core.JsonToken.VALUE_NULL) {\n")
+                .append("            return null;\n")
+                .append("        }\n")
+                .append("        if (parser.currentToken() != com.fasterxml.jackson.core.JsonToken.START_OBJECT) {\n")
+                .append("            throw new com.fasterxml.jackson.core.JsonParseException(parser, \"Expected an object for ")
+                .append(typeName).append(" but was \" + parser.currentToken());\n")
+                .append("        }\n");
+        for (Property property : properties) {
+            source.append("        ").append(property.type).append(' ').append(property.variable())
+                    .append(" = ").append(defaultValue(property.type)).append(";\n");
+        }
+        source.append("        while (parser.nextToken() == com.fasterxml.jackson.core.JsonToken.FIELD_NAME) {\n")
+                .append("            java.lang.String field = parser.currentName();\n")
+                .append("            parser.nextToken();\n")
+                .append("            switch (field) {\n");
+        for (Property property : written(properties)) {
+            source.append("                case \"").append(escape(property.jsonName)).append("\" -> ");
+            String read = readExpression(property);
+            if (property.type.getKind().isPrimitive()) {
+                source.append("{\n")
+                        .append("                    if (parser.currentToken() != com.fasterxml.jackson.core.JsonToken.VALUE_NULL) {\n")
+                        .append("                        ").append(property.variable()).append(" = ").append(read).append(";\n")
+                        .append("                    }\n")
+                        .append("                }\n");
+            } else {
+                source.append(property.variable())
+                        .append(" = parser.currentToken() == com.fasterxml.jackson.core.JsonToken.VALUE_NULL ? null : ")
+                        .append(read).append(";\n");
+            }
+        }
+        source.append("                default -> parser.skipChildren();\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        return new ").append(typeName).append('(');
+        for (int i = 0; i < properties.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append(properties.get(i).variable());
+        }
+        source.append(");\n")
+                .append("    }\n");
+    }
+
+    private String readExpression(Property property) {
+        return switch (property.kind) {
+            case STRING -> READS + ".readString(parser)";
+            case INT -> READS + ".readInt(parser)";
+            case LONG -> READS + ".readLong(parser)";
+            case DOUBLE -> READS + ".readDouble(parser)";
+            case FLOAT -> "(float) " + READS + ".readDouble(parser)";
+            case SHORT -> "(short) " + READS + ".readInt(parser, java.lang.Short.MIN_VALUE, java.lang.Short.MAX_VALUE)";
+            case BYTE -> "(byte) " + READS + ".readInt(parser, java.lang.Byte.MIN_VALUE, java.lang.Byte.MAX_VALUE)";
+            case BOOLEAN -> READS + ".readBoolean(parser)";
+            case INSTANT -> "parser.currentToken() == com.fasterxml.jackson.core.JsonToken.VALUE_STRING"
+                    + " ? java.time.Instant.parse(parser.getText()) : parser.readValueAs(java.time.Instant.class)";
+            case UUID -> "java.util.UUID.fromString(parser.getText())";
+            case ENUM -> erasure(property.type) + ".valueOf(parser.getText())";
+            case GENERATED -> property.constant() + ".read(parser)";
+            case OTHER -> "parser.readValueAs(" + property.constant() + ")";
+        };
+    }
+
+    /**
+     * @return the properties that are written and read; ignored ones are only passed to the constructor, with their
+     * default value
+     */
+    private static List<Property> written(List<Property> properties) {
+        return properties.stream().filter(property -> !property.ignored).toList();
+    }
+
+    private String codecType(TypeMirror type) {
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(element);
+        String binaryName = processingEnv.getElementUtils().getBinaryName(element).toString();
+        if (packageElement.isUnnamed()) {
+            return binaryName + GeneratedCodecs.SUFFIX;
+        }
+        String packageName = packageElement.getQualifiedName().toString();
+        return packageName + "." + binaryName.substring(packageName.length() + 1) + GeneratedCodecs.SUFFIX;
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static String defaultValue(TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN -> "false";
+            case CHAR -> "'\\0'";
+            case BYTE, SHORT, INT, LONG, FLOAT, DOUBLE -> "(" + type + ") 0";
+            default -> "null";
+        };
+    }
+
+    private static String jsonName(Element element, String name) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (!annotation.getAnnotationType().toString().equals(JSON_PROPERTY)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+                String value = entry.getValue().getValue().toString();
+                if (entry.getKey().getSimpleName().contentEquals("value") && !value.isEmpty()) {
+                    return value;
+                }
+            }
+        }
+        return name;
+    }
+
+    private static boolean isIgnored(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().toString().equals(JSON_IGNORE)) {
+                return annotation.getElementValues().values().stream()
+                        .allMatch(value -> Boolean.TRUE.equals(value.getValue()));
+            }
+        }
+        return false;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private enum Kind {
+        STRING, INT, LONG, DOUBLE, FLOAT, SHORT, BYTE, BOOLEAN, INSTANT, UUID, ENUM, GENERATED, OTHER
+    }
+
+    private record Property(int index, String jsonName, String accessor, TypeMirror type, Kind kind, boolean ignored) {
+
+        String variable() {
+            return "p" + index;
+        }
+
+        String constant() {
+            return "P" + index;
+        }
+    }
+}
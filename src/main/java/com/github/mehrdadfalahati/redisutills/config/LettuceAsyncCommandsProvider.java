@@ -0,0 +1,43 @@
+package com.github.mehrdadfalahati.redisutills.config;
+
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class LettuceAsyncCommandsProvider implements DisposableBean {
+
+    private final RedisConnectionFactory connectionFactory;
+    private volatile RedisConnection connection;
+
+    @SuppressWarnings("unchecked")
+    public RedisClusterAsyncCommands<byte[], byte[]> getAsyncCommands() {
+        return (RedisClusterAsyncCommands<byte[], byte[]>) getConnection().getNativeConnection();
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+    }
+
+    private RedisConnection getConnection() {
+        RedisConnection current = connection;
+        if (current == null || current.isClosed()) {
+            synchronized (this) {
+                current = connection;
+                if (current == null || current.isClosed()) {
+                    current = connectionFactory.getConnection();
+                    connection = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -1,32 +1,111 @@
 package com.github.mehrdadfalahati.redisutills.config;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.luben.zstd.Zstd;
+import com.github.mehrdadfalahati.redisutills.serializer.CodecRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisFieldMapper;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisTypeRegistry;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueCodecs;
+import com.github.mehrdadfalahati.redisutills.serializer.TypeRegistryRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.TypedRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.compression.CompressingRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.compression.CompressionDictionaryTrainer;
+import com.github.mehrdadfalahati.redisutills.serializer.compression.Compressor;
+import com.github.mehrdadfalahati.redisutills.serializer.compression.Compressors;
+import com.github.mehrdadfalahati.redisutills.serializer.compression.RedisDictionaryStore;
+import com.github.mehrdadfalahati.redisutills.serializer.compression.ZstdDictionaryCompressor;
+import com.github.mehrdadfalahati.redisutills.serializer.key.KeyStrategy;
+import com.github.mehrdadfalahati.redisutills.serializer.key.KeyStrategyRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.key.NamespacedKeyStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
+@EnableConfigurationProperties(RedisUtilsProperties.class)
 public class RedisConfig<K, V> {
 
+    /**
+     * Keys are encoded by the application's {@link KeyStrategy} bean, or by a {@link NamespacedKeyStrategy} built from
+     * {@code redis-utils.key} when there is none.
+     */
+    @Bean
+    public RedisTemplate<K, V> redisTemplate(RedisConnectionFactory connectionFactory, TypedRedisSerializer redisValueSerializer,
+                                             ObjectProvider<KeyStrategy> keyStrategy, RedisUtilsProperties properties) {
+        return createRedisTemplate(connectionFactory, redisValueSerializer, createKeySerializer(keyStrategy, properties));
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<K, V> reactiveRedisTemplate(ReactiveRedisConnectionFactory connectionFactory, TypedRedisSerializer redisValueSerializer,
+                                                             ObjectProvider<KeyStrategy> keyStrategy, RedisUtilsProperties properties) {
+        return createReactiveRedisTemplate(connectionFactory, redisValueSerializer, createKeySerializer(keyStrategy, properties));
+    }
+
     @Bean
-    public RedisTemplate<K, V> redisTemplate(RedisConnectionFactory connectionFactory) {
-        return createRedisTemplate(connectionFactory, jsonRedisSerializer());
+    public CompressingRedisSerializer redisValueSerializer(RedisUtilsProperties properties, ObjectProvider<Compressor> compressors,
+                                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        TypedRedisSerializer serializer = new TypeRegistryRedisSerializer(createRedisValueSerializer(properties.getCodec()),
+                new RedisTypeRegistry(properties.getTypes()));
+        return createCompressingSerializer(serializer, properties.getCompression(),
+                compressors.orderedStream().toList(), meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
     }
 
     @Bean
-    public GenericJackson2JsonRedisSerializer jsonRedisSerializer() {
-        return createJsonRedisSerializer();
+    public RedisFieldMapper redisFieldMapper() {
+        return new RedisFieldMapper(createObjectMapper());
     }
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.github.luben.zstd.ZstdDictTrainer")
+    static class ZstdDictionaryConfig {
+
+        @Bean
+        public ZstdDictionaryCompressor zstdDictionaryCompressor(RedisConnectionFactory connectionFactory, RedisUtilsProperties properties) {
+            RedisUtilsProperties.Compression.Dictionary dictionary = properties.getCompression().getDictionary();
+            return new ZstdDictionaryCompressor(new RedisDictionaryStore(connectionFactory, dictionary.getKey()),
+                    Zstd.defaultCompressionLevel(), dictionary.getRefreshInterval());
+        }
+
+        @Bean
+        public CompressionDictionaryTrainer compressionDictionaryTrainer(RedisConnectionFactory connectionFactory,
+                                                                         CompressingRedisSerializer redisValueSerializer,
+                                                                         ZstdDictionaryCompressor zstdDictionaryCompressor,
+                                                                         ObjectProvider<KeyStrategy> keyStrategy,
+                                                                         RedisUtilsProperties properties) {
+            return new CompressionDictionaryTrainer(connectionFactory, createKeySerializer(keyStrategy, properties),
+                    redisValueSerializer, zstdDictionaryCompressor,
+                    (int) properties.getCompression().getDictionary().getSize().toBytes());
+        }
+    }
 
-    private RedisTemplate<K, V> createRedisTemplate(RedisConnectionFactory connectionFactory, GenericJackson2JsonRedisSerializer serializer) {
+
+    private static KeyStrategyRedisSerializer createKeySerializer(ObjectProvider<KeyStrategy> keyStrategy, RedisUtilsProperties properties) {
+        RedisUtilsProperties.Key key = properties.getKey();
+        return new KeyStrategyRedisSerializer(keyStrategy.getIfAvailable(() ->
+                new NamespacedKeyStrategy(key.getPrefix(), key.getVersion(), key.getHashThreshold())));
+    }
+
+    private RedisTemplate<K, V> createRedisTemplate(RedisConnectionFactory connectionFactory, TypedRedisSerializer serializer,
+                                                    RedisSerializer<String> keySerializer) {
         RedisTemplate<K, V> redisTemplate = new RedisTemplate<>();
-        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setKeySerializer(keySerializer);
         redisTemplate.setConnectionFactory(connectionFactory);
         redisTemplate.setValueSerializer(serializer);
         redisTemplate.setHashValueSerializer(serializer);
@@ -38,11 +117,35 @@ public class RedisConfig<K, V> {
         return redisTemplate;
     }
 
-    private GenericJackson2JsonRedisSerializer createJsonRedisSerializer() {
-        ObjectMapper objectMapper = new ObjectMapper()
+    @SuppressWarnings("unchecked")
+    private ReactiveRedisTemplate<K, V> createReactiveRedisTemplate(ReactiveRedisConnectionFactory connectionFactory, TypedRedisSerializer serializer,
+                                                                    RedisSerializer<String> keySerializer) {
+        RedisSerializationContext<K, V> serializationContext = RedisSerializationContext.<K, V>newSerializationContext((RedisSerializer<V>) (RedisSerializer<?>) serializer)
+                .key((RedisSerializer<K>) (RedisSerializer<?>) keySerializer)
+                .build();
+
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+
+    private TypedRedisSerializer createRedisValueSerializer(String codec) {
+        List<RedisValueCodec> codecs = RedisValueCodecs.available(createObjectMapper());
+        return new CodecRedisSerializer(RedisValueCodecs.byName(codecs, codec), codecs);
+    }
+
+    private ObjectMapper createObjectMapper() {
+        return new ObjectMapper()
                 .registerModule(new JavaTimeModule())
-                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
 
-        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    private CompressingRedisSerializer createCompressingSerializer(TypedRedisSerializer serializer, RedisUtilsProperties.Compression compression,
+                                                                   List<Compressor> additionalCompressors, MeterRegistry meterRegistry) {
+        List<Compressor> compressors = new ArrayList<>(Compressors.available());
+        compressors.addAll(additionalCompressors);
+        Compressor writeCompressor = compression.isEnabled() ? Compressors.byName(compressors, compression.getAlgorithm()) : null;
+        return new CompressingRedisSerializer(serializer, writeCompressor, compressors,
+                (int) compression.getThreshold().toBytes(), (int) compression.getMaxDecompressedSize().toBytes(),
+                meterRegistry);
     }
 }
@@ -0,0 +1,88 @@
+package com.github.mehrdadfalahati.redisutills.config;
+
+import com.github.mehrdadfalahati.redisutills.serializer.JsonRedisValueCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.compression.DeflateCompressor;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "redis-utils")
+public class RedisUtilsProperties {
+
+    private String codec = JsonRedisValueCodec.NAME;
+    private Map<Integer, Class<?>> types = new LinkedHashMap<>();
+    private final Compression compression = new Compression();
+    private final Invalidation invalidation = new Invalidation();
+    private final Load load = new Load();
+    private final Bucket bucket = new Bucket();
+    private final Delete delete = new Delete();
+    private final Key key = new Key();
+    private final Cluster cluster = new Cluster();
+    private final Shard shard = new Shard();
+
+    @Data
+    public static class Compression {
+        private boolean enabled;
+        private String algorithm = DeflateCompressor.NAME;
+        private DataSize threshold = DataSize.ofKilobytes(1);
+        private DataSize maxDecompressedSize = DataSize.ofMegabytes(64);
+        private final Dictionary dictionary = new Dictionary();
+
+        @Data
+        public static class Dictionary {
+            private String key = "redis-utils:compression-dictionary";
+            private DataSize size = DataSize.ofKilobytes(16);
+            private Duration refreshInterval = Duration.ofMinutes(1);
+        }
+    }
+
+    @Data
+    public static class Invalidation {
+        private boolean enabled;
+        private String channel = "";
+        private Duration flushInterval = Duration.ofMillis(5);
+    }
+
+    @Data
+    public static class Load {
+        private Duration lease = Duration.ZERO;
+        private Duration leasePollInterval = Duration.ofMillis(50);
+    }
+
+    @Data
+    public static class Bucket {
+        private String prefix = "redis-utils:bucket:";
+        private int count = 1024;
+        private Duration purgeInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Delete {
+        private boolean unlink = true;
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class Key {
+        private String prefix = "";
+        private int version;
+        private int hashThreshold;
+    }
+
+    @Data
+    public static class Cluster {
+        private boolean groupBySlot;
+        private int parallelism = 8;
+    }
+
+    @Data
+    public static class Shard {
+        private int virtualNodes = 160;
+    }
+}
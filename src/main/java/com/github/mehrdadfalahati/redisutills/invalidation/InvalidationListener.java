@@ -0,0 +1,7 @@
+package com.github.mehrdadfalahati.redisutills.invalidation;
+
+import java.util.Collection;
+
+public interface InvalidationListener {
+    void onInvalidation(Collection<?> keys);
+}
@@ -0,0 +1,54 @@
+package com.github.mehrdadfalahati.redisutills.invalidation;
+
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import org.springframework.util.StringUtils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Invalidation messages carry the raw keys, as written by the key serializer, each preceded by its length as 4 bytes.
+ * Keys therefore come back exactly as the key serializer reads them, whatever the value serializer does.
+ */
+final class InvalidationMessages {
+
+    private static final String DEFAULT_CHANNEL = "redis-utils:invalidation";
+
+    private InvalidationMessages() {
+    }
+
+    /**
+     * @return {@code redis-utils.invalidation.channel}, or a channel inside the key namespace when it is not set, so
+     * applications sharing a server with different prefixes do not evict each other's keys
+     */
+    static String channel(RedisUtilsProperties properties) {
+        String channel = properties.getInvalidation().getChannel();
+        return StringUtils.hasText(channel) ? channel : properties.getKey().getPrefix() + DEFAULT_CHANNEL;
+    }
+
+    static byte[] encode(List<byte[]> rawKeys) {
+        int length = rawKeys.stream().mapToInt(rawKey -> Integer.BYTES + rawKey.length).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        rawKeys.forEach(rawKey -> buffer.putInt(rawKey.length).put(rawKey));
+        return buffer.array();
+    }
+
+    static List<byte[]> decode(byte[] message) {
+        ByteBuffer buffer = ByteBuffer.wrap(message);
+        List<byte[]> rawKeys = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            if (buffer.remaining() < Integer.BYTES) {
+                throw new IllegalArgumentException("Truncated invalidation message");
+            }
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IllegalArgumentException("Truncated invalidation message");
+            }
+            byte[] rawKey = new byte[length];
+            buffer.get(rawKey);
+            rawKeys.add(rawKey);
+        }
+        return rawKeys;
+    }
+}
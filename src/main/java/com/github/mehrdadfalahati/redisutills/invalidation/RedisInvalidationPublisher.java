@@ -0,0 +1,92 @@
+package com.github.mehrdadfalahati.redisutills.invalidation;
+
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class RedisInvalidationPublisher implements InitializingBean, DisposableBean {
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+    private final RedisUtilsProperties properties;
+    private final Queue<Object> pendingKeys = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService scheduler;
+
+    public void publish(Object key) {
+        if (scheduler != null) {
+            pendingKeys.add(key);
+        }
+    }
+
+    public void publishAll(Collection<?> keys) {
+        if (scheduler != null) {
+            pendingKeys.addAll(keys);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        RedisUtilsProperties.Invalidation invalidation = properties.getInvalidation();
+        if (!invalidation.isEnabled()) {
+            return;
+        }
+        long flushIntervalMillis = invalidation.getFlushInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("redis-invalidation-publisher")
+                .daemon()
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            flush();
+        }
+    }
+
+    void flush() {
+        Set<Object> keys = new LinkedHashSet<>();
+        for (Object key = pendingKeys.poll(); key != null; key = pendingKeys.poll()) {
+            keys.add(key);
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            List<byte[]> rawKeys = new ArrayList<>(keys.size());
+            keys.forEach(key -> rawKeys.add(serializeKey(key)));
+            byte[] channel = InvalidationMessages.channel(properties).getBytes(StandardCharsets.UTF_8);
+            byte[] message = InvalidationMessages.encode(rawKeys);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+        } catch (RuntimeException e) {
+            log.warn("Could not publish invalidation of {} keys", keys.size(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeKey(Object key) {
+        return ((RedisSerializer<Object>) redisTemplate.getKeySerializer()).serialize(key);
+    }
+}
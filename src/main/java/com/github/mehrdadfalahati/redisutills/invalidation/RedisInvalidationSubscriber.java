@@ -0,0 +1,76 @@
+package com.github.mehrdadfalahati.redisutills.invalidation;
+
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class RedisInvalidationSubscriber implements InitializingBean, DisposableBean {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisTemplate<Object, Object> redisTemplate;
+    private final RedisUtilsProperties properties;
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private RedisMessageListenerContainer listenerContainer;
+
+    public void register(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unregister(InvalidationListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        RedisUtilsProperties.Invalidation invalidation = properties.getInvalidation();
+        if (!invalidation.isEnabled()) {
+            return;
+        }
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(InvalidationMessages.channel(properties)));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        List<Object> keys = new ArrayList<>();
+        try {
+            for (byte[] rawKey : InvalidationMessages.decode(message.getBody())) {
+                Object key = redisTemplate.getKeySerializer().deserialize(rawKey);
+                // keys written under another namespace cannot be cached here
+                if (key != null) {
+                    keys.add(key);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed invalidation message", e);
+            return;
+        }
+        if (!keys.isEmpty()) {
+            listeners.forEach(listener -> listener.onInvalidation(keys));
+        }
+    }
+}
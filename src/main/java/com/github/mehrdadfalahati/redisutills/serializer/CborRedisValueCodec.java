@@ -0,0 +1,14 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+public class CborRedisValueCodec extends JacksonRedisValueCodec {
+
+    public static final byte ID = 2;
+    public static final String NAME = "cbor";
+
+    public CborRedisValueCodec(ObjectMapper objectMapper) {
+        super(ID, NAME, objectMapper.copyWith(new CBORFactory()));
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+/**
+ * Writes values with one {@link RedisValueCodec} and reads values written by any registered codec, picked by the
+ * header byte in front of the payload. Values without a header are read as plain JSON, so data written before a
+ * codec switch stays readable during a rolling migration.
+ */
+public class CodecRedisSerializer implements TypedRedisSerializer {
+
+    private static final byte[] EMPTY_ARRAY = new byte[0];
+
+    private final RedisValueCodec writeCodec;
+    private final RedisValueCodec jsonCodec;
+    private final RedisValueCodec[] readCodecs = new RedisValueCodec[256];
+
+    public CodecRedisSerializer(RedisValueCodec writeCodec, Collection<? extends RedisValueCodec> readCodecs) {
+        this.writeCodec = writeCodec;
+        readCodecs.forEach(codec -> this.readCodecs[codec.id() & 0xFF] = codec);
+        this.readCodecs[writeCodec.id() & 0xFF] = writeCodec;
+        this.jsonCodec = this.readCodecs[JsonRedisValueCodec.ID];
+        if (jsonCodec == null) {
+            throw new IllegalArgumentException("A JSON codec is required to read values stored without a header");
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY_ARRAY;
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (writeCodec.id() != JsonRedisValueCodec.ID) {
+                out.write(writeCodec.id());
+            }
+            writeCodec.encode(value, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + writeCodec.name() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void serialize(Object value, OutputStream out) throws SerializationException {
+        if (value == null) {
+            return;
+        }
+        try {
+            if (writeCodec.id() != JsonRedisValueCodec.ID) {
+                out.write(writeCodec.id());
+            }
+            writeCodec.encode(value, out);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + writeCodec.name() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        return deserialize(bytes, Object.class);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, Type type) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        RedisValueCodec codec = headerCodec(bytes[0]);
+        try {
+            if (codec == null) {
+                return jsonCodec.decode(bytes, 0, bytes.length, type);
+            }
+            return codec.decode(bytes, 1, bytes.length - 1, type);
+        } catch (IOException e) {
+            String name = codec == null ? jsonCodec.name() : codec.name();
+            throw new SerializationException("Could not read " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuffer buffer, Type type) throws SerializationException {
+        if (buffer == null || !buffer.hasRemaining()) {
+            return null;
+        }
+        RedisValueCodec codec = headerCodec(buffer.get(buffer.position()));
+        try {
+            if (codec == null) {
+                return jsonCodec.decode(buffer, type);
+            }
+            return codec.decode(buffer.slice(buffer.position() + 1, buffer.remaining() - 1), type);
+        } catch (IOException e) {
+            String name = codec == null ? jsonCodec.name() : codec.name();
+            throw new SerializationException("Could not read " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private RedisValueCodec headerCodec(byte header) {
+        if (header == JsonRedisValueCodec.ID || !isHeader(header)) {
+            return null;
+        }
+        RedisValueCodec codec = readCodecs[header & 0xFF];
+        if (codec == null) {
+            throw new SerializationException("No redis value codec registered for header " + header);
+        }
+        return codec;
+    }
+
+    private static boolean isHeader(byte header) {
+        // JSON text never starts with a control character other than whitespace
+        return header >= 0 && header < 0x20 && header != '\t' && header != '\n' && header != '\r';
+    }
+}
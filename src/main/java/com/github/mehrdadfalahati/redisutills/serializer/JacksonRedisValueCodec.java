@@ -0,0 +1,89 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.github.mehrdadfalahati.redisutills.codegen.GeneratedCodecs;
+import com.github.mehrdadfalahati.redisutills.codegen.GeneratedCodecsModule;
+import com.github.mehrdadfalahati.redisutills.codegen.GeneratedRedisCodec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes values with a copy of the given {@link ObjectMapper} that has the {@link GeneratedCodecsModule}; top-level
+ * {@code @RedisValue} types skip data binding altogether.
+ */
+@SuppressWarnings("unchecked")
+public class JacksonRedisValueCodec implements RedisValueCodec {
+
+    private final byte id;
+    private final String name;
+    private final ObjectMapper objectMapper;
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JacksonRedisValueCodec(byte id, String name, ObjectMapper objectMapper) {
+        this.id = id;
+        this.name = name;
+        this.objectMapper = objectMapper.copy().registerModule(new GeneratedCodecsModule());
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void encode(Object value, OutputStream out) throws IOException {
+        GeneratedRedisCodec<Object> codec = GeneratedCodecs.find((Class<Object>) value.getClass());
+        if (codec == null) {
+            objectMapper.writeValue(out, value);
+            return;
+        }
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            codec.write(value, generator);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, int offset, int length, Type type) throws IOException {
+        GeneratedRedisCodec<T> codec = type instanceof Class<?> clazz ? GeneratedCodecs.find((Class<T>) clazz) : null;
+        if (codec == null) {
+            return getReader(type).readValue(bytes, offset, length);
+        }
+        try (JsonParser parser = objectMapper.createParser(bytes, offset, length)) {
+            parser.nextToken();
+            return codec.read(parser);
+        }
+    }
+
+    @Override
+    public <T> T decode(ByteBuffer buffer, Type type) throws IOException {
+        if (buffer.hasArray()) {
+            return RedisValueCodec.super.decode(buffer, type);
+        }
+        GeneratedRedisCodec<T> codec = type instanceof Class<?> clazz ? GeneratedCodecs.find((Class<T>) clazz) : null;
+        if (codec == null) {
+            return getReader(type).readValue(new ByteBufferBackedInputStream(buffer.duplicate()));
+        }
+        try (JsonParser parser = objectMapper.createParser(new ByteBufferBackedInputStream(buffer.duplicate()))) {
+            parser.nextToken();
+            return codec.read(parser);
+        }
+    }
+
+    private ObjectReader getReader(Type type) {
+        return readers.computeIfAbsent(type, it -> objectMapper.readerFor(objectMapper.constructType(it)));
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class JsonRedisValueCodec extends JacksonRedisValueCodec {
+
+    public static final byte ID = 0;
+    public static final String NAME = "json";
+
+    public JsonRedisValueCodec(ObjectMapper objectMapper) {
+        super(ID, NAME, objectMapper);
+    }
+}
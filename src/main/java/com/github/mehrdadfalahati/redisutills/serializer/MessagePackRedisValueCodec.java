@@ -0,0 +1,14 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+public class MessagePackRedisValueCodec extends JacksonRedisValueCodec {
+
+    public static final byte ID = 3;
+    public static final String NAME = "msgpack";
+
+    public MessagePackRedisValueCodec(ObjectMapper objectMapper) {
+        super(ID, NAME, objectMapper.copyWith(new MessagePackFactory()));
+    }
+}
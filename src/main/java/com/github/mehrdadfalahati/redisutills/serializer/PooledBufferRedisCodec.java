@@ -0,0 +1,94 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.ToByteBufEncoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+
+/**
+ * Lettuce codec for already serialized keys and {@link TypedRedisSerializer} values. Values are serialized on the
+ * calling thread into a pooled {@link ByteBuf} with {@link #encode(Object)} and copied from there into the command
+ * buffer, so the event loop never runs the serializer. Reads decode from the buffer handed over by the protocol
+ * decoder, so neither direction materializes the payload as a {@code byte[]}.
+ */
+public class PooledBufferRedisCodec implements RedisCodec<byte[], Object>, ToByteBufEncoder<byte[], Object> {
+
+    private static final int INITIAL_SIZE_ESTIMATE = 256;
+
+    private final TypedRedisSerializer serializer;
+    private final Type valueType;
+    private volatile int valueSizeEstimate = INITIAL_SIZE_ESTIMATE;
+
+    public PooledBufferRedisCodec(TypedRedisSerializer serializer, Type valueType) {
+        this.serializer = serializer;
+        this.valueType = valueType;
+    }
+
+    @Override
+    public byte[] decodeKey(ByteBuffer bytes) {
+        byte[] key = new byte[bytes.remaining()];
+        bytes.get(key);
+        return key;
+    }
+
+    @Override
+    public Object decodeValue(ByteBuffer bytes) {
+        return serializer.deserialize(bytes, valueType);
+    }
+
+    @Override
+    public ByteBuffer encodeKey(byte[] key) {
+        return ByteBuffer.wrap(key);
+    }
+
+    /**
+     * Serializes {@code value} into a pooled buffer to be passed as the command's value. The caller must release the
+     * buffer once the command completed, since Lettuce may encode a command again when it is retried.
+     */
+    public ByteBuf encode(Object value) {
+        ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer(valueSizeEstimate);
+        try {
+            serializer.serialize(value, new ByteBufOutputStream(buffer));
+        } catch (RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+        valueSizeEstimate = Math.max(INITIAL_SIZE_ESTIMATE, buffer.readableBytes());
+        return buffer;
+    }
+
+    @Override
+    public ByteBuffer encodeValue(Object value) {
+        if (value instanceof ByteBuf buffer) {
+            return buffer.nioBuffer();
+        }
+        return ByteBuffer.wrap(serializer.serialize(value));
+    }
+
+    @Override
+    public void encodeKey(byte[] key, ByteBuf target) {
+        target.writeBytes(key);
+    }
+
+    @Override
+    public void encodeValue(Object value, ByteBuf target) {
+        if (value instanceof ByteBuf buffer) {
+            // leaves the indexes of the source alone, so a retried command copies the same bytes again
+            target.writeBytes(buffer, buffer.readerIndex(), buffer.readableBytes());
+        } else {
+            serializer.serialize(value, new ByteBufOutputStream(target));
+        }
+    }
+
+    @Override
+    public int estimateSize(Object keyOrValue) {
+        if (keyOrValue instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        return keyOrValue instanceof ByteBuf buffer ? buffer.readableBytes() : valueSizeEstimate;
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maps a DTO to one {@link JsonNode} per property and back, so each property can be stored as its own hash field.
+ * Null properties are left out rather than stored.
+ */
+@RequiredArgsConstructor
+public class RedisFieldMapper {
+
+    private final ObjectMapper objectMapper;
+
+    public Map<String, JsonNode> toFields(Object value) {
+        JsonNode tree = objectMapper.valueToTree(value);
+        if (!tree.isObject()) {
+            throw new IllegalArgumentException("Only objects can be mapped to hash fields, got " + value.getClass().getName());
+        }
+        Map<String, JsonNode> fields = new LinkedHashMap<>();
+        tree.fields().forEachRemaining(field -> {
+            if (!field.getValue().isNull()) {
+                fields.put(field.getKey(), field.getValue());
+            }
+        });
+        return fields;
+    }
+
+    public <V> V fromFields(Map<String, JsonNode> fields, Type type) {
+        ObjectNode tree = objectMapper.createObjectNode();
+        fields.forEach(tree::set);
+        return objectMapper.convertValue(tree, objectMapper.constructType(type));
+    }
+}
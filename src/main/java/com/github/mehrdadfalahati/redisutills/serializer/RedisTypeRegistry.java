@@ -0,0 +1,48 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class RedisTypeRegistry {
+
+    private final Map<Integer, Class<?>> types = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Integer> ids = new ConcurrentHashMap<>();
+
+    public RedisTypeRegistry() {
+    }
+
+    public RedisTypeRegistry(Map<Integer, Class<?>> types) {
+        types.forEach(this::register);
+    }
+
+    public RedisTypeRegistry register(int id, Class<?> type) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Redis type ids must be positive, got " + id + " for " + type.getName());
+        }
+        Class<?> registered = types.putIfAbsent(id, type);
+        if (registered != null && registered != type) {
+            throw new IllegalArgumentException("Redis type id " + id + " is already registered for " + registered.getName());
+        }
+        Integer registeredId = ids.putIfAbsent(type, id);
+        if (registeredId != null && registeredId != id) {
+            types.remove(id, type);
+            throw new IllegalArgumentException(type.getName() + " is already registered with redis type id " + registeredId);
+        }
+        return this;
+    }
+
+    /**
+     * @return the id of {@code type}, {@code 0} when it is not registered
+     */
+    public int idOf(Class<?> type) {
+        return ids.getOrDefault(type, 0);
+    }
+
+    public Class<?> typeOf(int id) {
+        return types.get(id);
+    }
+
+    public boolean isEmpty() {
+        return types.isEmpty();
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+
+public interface RedisValueCodec {
+
+    /**
+     * Header byte written in front of every value encoded by this codec. {@code 0} means no header, which is how
+     * plain JSON values are stored.
+     */
+    byte id();
+
+    String name();
+
+    void encode(Object value, OutputStream out) throws IOException;
+
+    <T> T decode(byte[] bytes, int offset, int length, Type type) throws IOException;
+
+    default <T> T decode(ByteBuffer buffer, Type type) throws IOException {
+        if (buffer.hasArray()) {
+            return decode(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), type);
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return decode(bytes, 0, bytes.length, type);
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class RedisValueCodecs {
+
+    private static final ClassLoader CLASS_LOADER = RedisValueCodecs.class.getClassLoader();
+
+    private RedisValueCodecs() {
+    }
+
+    public static List<RedisValueCodec> available(ObjectMapper objectMapper) {
+        List<RedisValueCodec> codecs = new ArrayList<>();
+        codecs.add(new JsonRedisValueCodec(objectMapper));
+        if (ClassUtils.isPresent("com.fasterxml.jackson.dataformat.smile.SmileFactory", CLASS_LOADER)) {
+            codecs.add(new SmileRedisValueCodec(objectMapper));
+        }
+        if (ClassUtils.isPresent("com.fasterxml.jackson.dataformat.cbor.CBORFactory", CLASS_LOADER)) {
+            codecs.add(new CborRedisValueCodec(objectMapper));
+        }
+        if (ClassUtils.isPresent("org.msgpack.jackson.dataformat.MessagePackFactory", CLASS_LOADER)) {
+            codecs.add(new MessagePackRedisValueCodec(objectMapper));
+        }
+        return codecs;
+    }
+
+    public static RedisValueCodec byName(List<RedisValueCodec> codecs, String name) {
+        return codecs.stream()
+                .filter(codec -> codec.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Redis value codec '" + name
+                        + "' is not available, add its jackson dataformat to the classpath"));
+    }
+}
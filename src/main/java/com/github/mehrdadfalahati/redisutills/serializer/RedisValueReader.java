@@ -0,0 +1,22 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Type;
+
+@Component
+@RequiredArgsConstructor
+public class RedisValueReader {
+
+    private final TypedRedisSerializer redisValueSerializer;
+
+    public <V> V read(byte[] bytes, TypeReference<V> typeReference) {
+        return read(bytes, typeReference.getType());
+    }
+
+    public <V> V read(byte[] bytes, Type type) {
+        return redisValueSerializer.deserialize(bytes, type);
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+public class SmileRedisValueCodec extends JacksonRedisValueCodec {
+
+    public static final byte ID = 1;
+    public static final String NAME = "smile";
+
+    public SmileRedisValueCodec(ObjectMapper objectMapper) {
+        super(ID, NAME, objectMapper.copyWith(new SmileFactory()));
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+
+/**
+ * Prefixes values of types registered in the {@link RedisTypeRegistry} with {@link #MAGIC} and their numeric type id
+ * (unsigned LEB128), so reads that don't know the type, like {@code deserialize(bytes)}, still produce the registered
+ * class instead of a generic map. Reads with an explicit type skip the prefix and use the requested type, and values
+ * without a prefix go to the delegate untouched.
+ */
+@Log4j2
+public class TypeRegistryRedisSerializer implements TypedRedisSerializer {
+
+    public static final byte MAGIC = 0x1D;
+
+    private final TypedRedisSerializer delegate;
+    private final RedisTypeRegistry typeRegistry;
+
+    public TypeRegistryRedisSerializer(TypedRedisSerializer delegate, RedisTypeRegistry typeRegistry) {
+        this.delegate = delegate;
+        this.typeRegistry = typeRegistry;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        int id = value == null ? 0 : typeRegistry.idOf(value.getClass());
+        if (id == 0) {
+            return bytes;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + varIntLength(id) + bytes.length).put(MAGIC);
+        writeVarInt(id, buffer);
+        return buffer.put(bytes).array();
+    }
+
+    @Override
+    public void serialize(Object value, OutputStream out) throws SerializationException {
+        int id = value == null ? 0 : typeRegistry.idOf(value.getClass());
+        if (id != 0) {
+            try {
+                ByteBuffer header = ByteBuffer.allocate(1 + varIntLength(id)).put(MAGIC);
+                writeVarInt(id, header);
+                out.write(header.array());
+            } catch (IOException e) {
+                throw new SerializationException("Could not write type id: " + e.getMessage(), e);
+            }
+        }
+        delegate.serialize(value, out);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        return deserialize(bytes, Object.class);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, Type type) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != MAGIC) {
+            return delegate.deserialize(bytes, type);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        Type resolved = resolve(readVarInt(buffer), type);
+        return delegate.deserialize(buffer, resolved);
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuffer buffer, Type type) throws SerializationException {
+        if (buffer == null || !buffer.hasRemaining() || buffer.get(buffer.position()) != MAGIC) {
+            return delegate.deserialize(buffer, type);
+        }
+        ByteBuffer payload = buffer.duplicate();
+        payload.get();
+        Type resolved = resolve(readVarInt(payload), type);
+        return delegate.deserialize(payload, resolved);
+    }
+
+    private Type resolve(int id, Type requested) {
+        if (requested != Object.class) {
+            return requested;
+        }
+        Class<?> registered = typeRegistry.typeOf(id);
+        if (registered == null) {
+            log.debug("Redis type id {} is not registered, reading value untyped", id);
+            return requested;
+        }
+        return registered;
+    }
+
+    private static int varIntLength(int value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private static void writeVarInt(int value, ByteBuffer buffer) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                break;
+            }
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Corrupt redis type id header");
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+
+public interface TypedRedisSerializer extends RedisSerializer<Object> {
+
+    <T> T deserialize(byte[] bytes, Type type) throws SerializationException;
+
+    /**
+     * Writes the serialized value straight to {@code out}; implementations that can avoid the intermediate array
+     * override this.
+     */
+    default void serialize(Object value, OutputStream out) throws SerializationException {
+        byte[] bytes = serialize(value);
+        try {
+            if (bytes != null) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Could not write value: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of {@code buffer}; implementations that can decode without copying them into an
+     * array override this.
+     */
+    default <T> T deserialize(ByteBuffer buffer, Type type) throws SerializationException {
+        if (buffer == null) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return deserialize(bytes, type);
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+import com.github.mehrdadfalahati.redisutills.serializer.TypedRedisSerializer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses values produced by the delegate once they reach {@code threshold} bytes. Compressed payloads start
+ * with {@link #MAGIC}, the compressor id and the uncompressed length; everything else is handed to the delegate
+ * untouched, so values written before compression was turned on stay readable. Reads understand every registered
+ * compressor even when {@code writeCompressor} is {@code null}, which lets compression be switched off safely.
+ * Payloads claiming an uncompressed length above {@code maxDecompressedSize} are rejected before anything is allocated.
+ */
+public class CompressingRedisSerializer implements TypedRedisSerializer {
+
+    public static final byte MAGIC = 0x1C;
+    static final int HEADER_LENGTH = 6;
+    public static final int DEFAULT_MAX_DECOMPRESSED_SIZE = 64 * 1024 * 1024;
+
+    private static final String RATIO_METRIC = "redis.utils.compression.ratio";
+    private static final String TIME_METRIC = "redis.utils.compression.time";
+
+    private final TypedRedisSerializer delegate;
+    private final Compressor writeCompressor;
+    private final int threshold;
+    private final int maxDecompressedSize;
+    // indexed by compressor id, like the compressors themselves
+    private final Compressor[] compressors = new Compressor[256];
+    private final Timer[] compressTimers = new Timer[256];
+    private final Timer[] decompressTimers = new Timer[256];
+    private final DistributionSummary[] ratios = new DistributionSummary[256];
+
+    public CompressingRedisSerializer(TypedRedisSerializer delegate, Compressor writeCompressor,
+                                      Collection<? extends Compressor> compressors, int threshold,
+                                      MeterRegistry meterRegistry) {
+        this(delegate, writeCompressor, compressors, threshold, DEFAULT_MAX_DECOMPRESSED_SIZE, meterRegistry);
+    }
+
+    public CompressingRedisSerializer(TypedRedisSerializer delegate, Compressor writeCompressor,
+                                      Collection<? extends Compressor> compressors, int threshold,
+                                      int maxDecompressedSize, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.writeCompressor = writeCompressor;
+        this.threshold = threshold;
+        this.maxDecompressedSize = maxDecompressedSize;
+        compressors.forEach(compressor -> this.compressors[compressor.id() & 0xFF] = compressor);
+        if (writeCompressor != null) {
+            this.compressors[writeCompressor.id() & 0xFF] = writeCompressor;
+        }
+        for (Compressor compressor : this.compressors) {
+            if (compressor != null) {
+                int id = compressor.id() & 0xFF;
+                compressTimers[id] = timer(compressor, "compress", meterRegistry);
+                decompressTimers[id] = timer(compressor, "decompress", meterRegistry);
+                ratios[id] = ratio(compressor, meterRegistry);
+            }
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        if (writeCompressor == null || bytes == null || bytes.length < threshold) {
+            return bytes;
+        }
+        long start = System.nanoTime();
+        byte[] compressed = writeCompressor.compress(bytes);
+        int id = writeCompressor.id() & 0xFF;
+        compressTimers[id].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (compressed.length + HEADER_LENGTH >= bytes.length) {
+            return bytes;
+        }
+        ratios[id].record((double) bytes.length / compressed.length);
+        return ByteBuffer.allocate(HEADER_LENGTH + compressed.length)
+                .put(MAGIC)
+                .put(writeCompressor.id())
+                .putInt(bytes.length)
+                .put(compressed)
+                .array();
+    }
+
+    @Override
+    public void serialize(Object value, OutputStream out) throws SerializationException {
+        if (writeCompressor == null) {
+            delegate.serialize(value, out);
+        } else {
+            TypedRedisSerializer.super.serialize(value, out);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        return delegate.deserialize(decompress(bytes));
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, Type type) throws SerializationException {
+        return delegate.deserialize(decompress(bytes), type);
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuffer buffer, Type type) throws SerializationException {
+        if (buffer != null && buffer.remaining() >= HEADER_LENGTH && buffer.get(buffer.position()) == MAGIC) {
+            return TypedRedisSerializer.super.deserialize(buffer, type);
+        }
+        return delegate.deserialize(buffer, type);
+    }
+
+    /**
+     * Returns the delegate's bytes for a stored value, decompressing it if needed.
+     */
+    public byte[] decompress(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_LENGTH || bytes[0] != MAGIC) {
+            return bytes;
+        }
+        Compressor compressor = compressors[bytes[1] & 0xFF];
+        if (compressor == null) {
+            throw new SerializationException("No compressor registered for id " + bytes[1]);
+        }
+        int originalLength = ByteBuffer.wrap(bytes, 2, 4).getInt();
+        if (originalLength < 0 || originalLength > maxDecompressedSize) {
+            throw new SerializationException("Corrupt compression header, uncompressed length " + originalLength);
+        }
+        long start = System.nanoTime();
+        byte[] result = compressor.decompress(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, originalLength);
+        decompressTimers[bytes[1] & 0xFF].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private static DistributionSummary ratio(Compressor compressor, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder(RATIO_METRIC)
+                .description("Uncompressed size divided by compressed size of redis values")
+                .tag("algorithm", compressor.name())
+                .register(meterRegistry);
+    }
+
+    private static Timer timer(Compressor compressor, String operation, MeterRegistry meterRegistry) {
+        return Timer.builder(TIME_METRIC)
+                .description("Time spent compressing and decompressing redis values")
+                .tag("algorithm", compressor.name())
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+import com.github.mehrdadfalahati.redisutills.serializer.key.KeyStrategyRedisSerializer;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Samples string values already stored in redis and trains a new {@link ZstdDictionaryCompressor} dictionary
+ * from them. Sample patterns are translated through the key serializer, like the services' scans.
+ */
+public class CompressionDictionaryTrainer {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisSerializer<?> keySerializer;
+    private final CompressingRedisSerializer serializer;
+    private final ZstdDictionaryCompressor compressor;
+    private final int dictionarySize;
+
+    public CompressionDictionaryTrainer(RedisConnectionFactory connectionFactory, RedisSerializer<?> keySerializer,
+                                        CompressingRedisSerializer serializer, ZstdDictionaryCompressor compressor,
+                                        int dictionarySize) {
+        this.connectionFactory = connectionFactory;
+        this.keySerializer = keySerializer;
+        this.serializer = serializer;
+        this.compressor = compressor;
+        this.dictionarySize = dictionarySize;
+    }
+
+    public int train(String pattern, int sampleSize) {
+        List<byte[]> samples = new ArrayList<>(sampleSize);
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(keySerializer instanceof KeyStrategyRedisSerializer strategy ? strategy.toPattern(pattern) : pattern)
+                .type(DataType.STRING)
+                .count(Math.min(sampleSize, 1000))
+                .build();
+        try (RedisConnection connection = connectionFactory.getConnection();
+             Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+            while (cursor.hasNext() && samples.size() < sampleSize) {
+                byte[] value = connection.stringCommands().get(cursor.next());
+                if (value != null) {
+                    samples.add(serializer.decompress(value));
+                }
+            }
+        }
+        return train(samples);
+    }
+
+    public int train(List<byte[]> samples) {
+        if (samples.isEmpty()) {
+            throw new IllegalArgumentException("No samples to train a compression dictionary from");
+        }
+        return compressor.train(samples, dictionarySize);
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+public interface Compressor {
+
+    /**
+     * Id written into the compression header so a reader can pick the matching algorithm.
+     */
+    byte id();
+
+    String name();
+
+    byte[] compress(byte[] bytes);
+
+    byte[] decompress(byte[] bytes, int offset, int length, int originalLength);
+}
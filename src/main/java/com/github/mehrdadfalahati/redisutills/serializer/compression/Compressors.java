@@ -0,0 +1,34 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Compressors {
+
+    private static final ClassLoader CLASS_LOADER = Compressors.class.getClassLoader();
+
+    private Compressors() {
+    }
+
+    public static List<Compressor> available() {
+        List<Compressor> compressors = new ArrayList<>();
+        compressors.add(new DeflateCompressor());
+        if (ClassUtils.isPresent("net.jpountz.lz4.LZ4Factory", CLASS_LOADER)) {
+            compressors.add(new Lz4Compressor());
+        }
+        if (ClassUtils.isPresent("com.github.luben.zstd.Zstd", CLASS_LOADER)) {
+            compressors.add(new ZstdCompressor());
+        }
+        return compressors;
+    }
+
+    public static Compressor byName(List<Compressor> compressors, String name) {
+        return compressors.stream()
+                .filter(compressor -> compressor.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Compression algorithm '" + name
+                        + "' is not available, add its library to the classpath"));
+    }
+}
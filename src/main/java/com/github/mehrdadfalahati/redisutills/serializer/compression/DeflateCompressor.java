@@ -0,0 +1,76 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class DeflateCompressor implements Compressor {
+
+    public static final byte ID = 1;
+    public static final String NAME = "deflate";
+
+    private final int level;
+
+    public DeflateCompressor() {
+        this(Deflater.BEST_SPEED);
+    }
+
+    public DeflateCompressor(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] bytes) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes, int offset, int length, int originalLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, length);
+            byte[] result = new byte[originalLength];
+            int read = 0;
+            while (read < originalLength && !inflater.finished()) {
+                int inflated = inflater.inflate(result, read, originalLength - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != originalLength || !inflater.finished()) {
+                throw new SerializationException("Truncated deflate payload");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Could not inflate: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+public interface DictionaryStore {
+
+    /**
+     * @return the version new values should be compressed with, {@code 0} when no dictionary was trained yet
+     */
+    int currentVersion();
+
+    byte[] load(int version);
+
+    /**
+     * Reserves the version the next dictionary gets saved under, without making it visible.
+     */
+    int nextVersion();
+
+    /**
+     * Stores the dictionary under a version from {@link #nextVersion()} and makes it the current one.
+     */
+    void save(int version, byte[] dictionary);
+}
@@ -0,0 +1,51 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.SerializationException;
+
+public class Lz4Compressor implements Compressor {
+
+    public static final byte ID = 2;
+    public static final String NAME = "lz4";
+
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    public Lz4Compressor() {
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] bytes) {
+        return compressor.compress(bytes);
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes, int offset, int length, int originalLength) {
+        try {
+            byte[] result = new byte[originalLength];
+            int read = decompressor.decompress(bytes, offset, result, 0, originalLength);
+            if (read != length) {
+                throw new SerializationException("Corrupt lz4 payload");
+            }
+            return result;
+        } catch (LZ4Exception e) {
+            throw new SerializationException("Could not decompress lz4: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Keeps dictionaries in redis as {@code <key>:<version>} next to a {@code <key>:current} pointer. Old versions are
+ * never removed, values compressed with them stay readable until they expire.
+ */
+public class RedisDictionaryStore implements DictionaryStore {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final String key;
+
+    public RedisDictionaryStore(RedisConnectionFactory connectionFactory, String key) {
+        this.connectionFactory = connectionFactory;
+        this.key = key;
+    }
+
+    @Override
+    public int currentVersion() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            byte[] version = connection.stringCommands().get(bytes(key + ":current"));
+            return version == null ? 0 : Integer.parseInt(new String(version, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    public byte[] load(int version) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return connection.stringCommands().get(bytes(key + ":" + version));
+        }
+    }
+
+    @Override
+    public int nextVersion() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return connection.stringCommands().incr(bytes(key + ":sequence")).intValue();
+        }
+    }
+
+    @Override
+    public void save(int version, byte[] dictionary) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.stringCommands().set(bytes(key + ":" + version), dictionary);
+            connection.stringCommands().set(bytes(key + ":current"), bytes(String.valueOf(version)));
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
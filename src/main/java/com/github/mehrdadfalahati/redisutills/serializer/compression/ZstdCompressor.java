@@ -0,0 +1,50 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
+import org.springframework.data.redis.serializer.SerializationException;
+
+public class ZstdCompressor implements Compressor {
+
+    public static final byte ID = 3;
+    public static final String NAME = "zstd";
+
+    private final int level;
+
+    public ZstdCompressor() {
+        this(Zstd.defaultCompressionLevel());
+    }
+
+    public ZstdCompressor(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] bytes) {
+        return Zstd.compress(bytes, level);
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes, int offset, int length, int originalLength) {
+        try {
+            byte[] result = new byte[originalLength];
+            long read = Zstd.decompressByteArray(result, 0, originalLength, bytes, offset, length);
+            if (read != originalLength) {
+                throw new SerializationException("Truncated zstd payload");
+            }
+            return result;
+        } catch (ZstdException e) {
+            throw new SerializationException("Could not decompress zstd: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Zstd with a dictionary trained on sample values, which is what makes small values of the same shape compress at
+ * all. Every payload starts with the dictionary version it was compressed with ({@code 0} for none), so values
+ * survive retraining.
+ * <p>
+ * Dictionaries are only loaded from the {@link DictionaryStore} by {@link #refresh()}, which a background thread runs
+ * right away and then every {@code refreshInterval}; compressing and decompressing never wait for redis, as they may
+ * run on a client I/O thread. A value compressed with a version that is not loaded yet fails to read and schedules a
+ * refresh.
+ */
+@Log4j2
+public class ZstdDictionaryCompressor implements Compressor, AutoCloseable {
+
+    public static final byte ID = 4;
+    public static final String NAME = "zstd-dict";
+
+    private static final int VERSION_LENGTH = 2;
+    private static final int MAX_VERSION = 0xFFFF;
+
+    private final DictionaryStore dictionaryStore;
+    private final int level;
+    private final Map<Integer, ZstdDictDecompress> decompressDictionaries = new ConcurrentHashMap<>();
+    private final Lock refreshLock = new ReentrantLock();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("redis-compression-dictionary").daemon().factory());
+    private volatile Current current = new Current(0, null);
+    private int loadedVersion;
+    // native contexts are expensive to create, so they are pooled and only reloaded when the dictionary changes; a
+    // pool rather than a thread local, as bulk operations serialize on short-lived virtual threads
+    private final ContextPool<CompressContext> compressContexts = new ContextPool<>(CompressContext::new);
+    private final ContextPool<DecompressContext> decompressContexts = new ContextPool<>(DecompressContext::new);
+
+    /**
+     * @param refreshInterval how often to look for a new dictionary, {@link Duration#ZERO} to only load once
+     */
+    public ZstdDictionaryCompressor(DictionaryStore dictionaryStore, int level, Duration refreshInterval) {
+        this.dictionaryStore = dictionaryStore;
+        this.level = level;
+        if (refreshInterval.isZero()) {
+            refresher.execute(this::refresh);
+        } else {
+            refresher.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] bytes) {
+        Current current = this.current;
+        CompressContext context = compressContexts.acquire();
+        byte[] compressed;
+        try {
+            compressed = context.with(current.dictionary).compress(bytes);
+        } finally {
+            compressContexts.release(context);
+        }
+        return ByteBuffer.allocate(VERSION_LENGTH + compressed.length)
+                .putShort((short) current.version)
+                .put(compressed)
+                .array();
+    }
+
+    @Override
+    public byte[] decompress(byte[] bytes, int offset, int length, int originalLength) {
+        if (length < VERSION_LENGTH) {
+            throw new SerializationException("Truncated zstd dictionary payload");
+        }
+        int version = ByteBuffer.wrap(bytes, offset, VERSION_LENGTH).getShort() & 0xFFFF;
+        ZstdDictDecompress dictionary = version == 0 ? null : decompressDictionary(version);
+        byte[] result = new byte[originalLength];
+        DecompressContext context = decompressContexts.acquire();
+        try {
+            int read = context.with(dictionary)
+                    .decompressByteArray(result, 0, originalLength, bytes, offset + VERSION_LENGTH, length - VERSION_LENGTH);
+            if (read != originalLength) {
+                throw new SerializationException("Truncated zstd dictionary payload");
+            }
+            return result;
+        } catch (ZstdException e) {
+            throw new SerializationException("Could not decompress zstd with dictionary " + version + ": " + e.getMessage(), e);
+        } finally {
+            decompressContexts.release(context);
+        }
+    }
+
+    /**
+     * Trains a dictionary from uncompressed sample values, stores it and starts compressing with it right away.
+     *
+     * @return the version of the new dictionary
+     */
+    public int train(Collection<byte[]> samples, int dictionarySize) {
+        int sampleBytes = samples.stream().mapToInt(sample -> sample.length).sum();
+        ZstdDictTrainer trainer = new ZstdDictTrainer(sampleBytes, dictionarySize);
+        samples.forEach(trainer::addSample);
+        byte[] dictionary = trainer.trainSamples();
+        // checked before the version becomes current, payloads only have room for 16 bits
+        int version = dictionaryStore.nextVersion();
+        if (version > MAX_VERSION) {
+            throw new IllegalStateException("Compression dictionary versions are exhausted, reset " + version);
+        }
+        refreshLock.lock();
+        try {
+            dictionaryStore.save(version, dictionary);
+            decompressDictionaries.put(version, new ZstdDictDecompress(dictionary));
+            current = new Current(version, new ZstdDictCompress(dictionary, level));
+        } finally {
+            refreshLock.unlock();
+        }
+        log.info("Trained compression dictionary version {} from {} samples", version, samples.size());
+        return version;
+    }
+
+    /**
+     * Loads the current dictionary and every version saved since the last refresh. Blocks on the dictionary store.
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            int version = dictionaryStore.currentVersion();
+            byte[] currentDictionary = null;
+            for (int it = loadedVersion + 1; it <= version; it++) {
+                byte[] dictionary = dictionaryStore.load(it);
+                if (dictionary != null) {
+                    decompressDictionaries.putIfAbsent(it, new ZstdDictDecompress(dictionary));
+                }
+                currentDictionary = dictionary;
+            }
+            loadedVersion = Math.max(loadedVersion, version);
+            if (version != current.version) {
+                if (currentDictionary == null && version != 0) {
+                    currentDictionary = dictionaryStore.load(version);
+                }
+                current = currentDictionary == null
+                        ? new Current(0, null)
+                        : new Current(version, new ZstdDictCompress(currentDictionary, level));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh compression dictionary, keeping version {}", current.version, e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+        compressContexts.close();
+        decompressContexts.close();
+    }
+
+    private ZstdDictDecompress decompressDictionary(int version) {
+        ZstdDictDecompress dictionary = decompressDictionaries.get(version);
+        if (dictionary == null) {
+            if (!refresher.isShutdown()) {
+                refresher.execute(this::refresh);
+            }
+            throw new SerializationException("Compression dictionary version " + version + " is not loaded");
+        }
+        return dictionary;
+    }
+
+    private record Current(int version, ZstdDictCompress dictionary) {
+    }
+
+    private static final class ContextPool<C extends AutoCloseable> {
+
+        private final BlockingQueue<C> idle = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+        private final Supplier<C> factory;
+
+        ContextPool(Supplier<C> factory) {
+            this.factory = factory;
+        }
+
+        C acquire() {
+            C context = idle.poll();
+            return context != null ? context : factory.get();
+        }
+
+        void release(C context) {
+            if (!idle.offer(context)) {
+                closeQuietly(context);
+            }
+        }
+
+        void close() {
+            for (C context = idle.poll(); context != null; context = idle.poll()) {
+                closeQuietly(context);
+            }
+        }
+
+        private static void closeQuietly(AutoCloseable context) {
+            try {
+                context.close();
+            } catch (Exception e) {
+                log.debug("Could not close zstd context", e);
+            }
+        }
+    }
+
+    private final class CompressContext implements AutoCloseable {
+
+        private final ZstdCompressCtx context = new ZstdCompressCtx();
+        private boolean configured;
+        private ZstdDictCompress dictionary;
+
+        ZstdCompressCtx with(ZstdDictCompress dictionary) {
+            if (!configured || dictionary != this.dictionary) {
+                context.reset();
+                // the surrounding headers already carry the length and dictionary version, so the frame can go without
+                context.setLevel(level).setMagicless(true).setContentSize(false).setDictID(false).setChecksum(false);
+                if (dictionary != null) {
+                    context.loadDict(dictionary);
+                }
+                this.dictionary = dictionary;
+                configured = true;
+            }
+            return context;
+        }
+
+        @Override
+        public void close() {
+            context.close();
+        }
+    }
+
+    private static final class DecompressContext implements AutoCloseable {
+
+        private final ZstdDecompressCtx context = new ZstdDecompressCtx();
+        private boolean configured;
+        private ZstdDictDecompress dictionary;
+
+        ZstdDecompressCtx with(ZstdDictDecompress dictionary) {
+            if (!configured || dictionary != this.dictionary) {
+                context.reset();
+                context.setMagicless(true);
+                if (dictionary != null) {
+                    context.loadDict(dictionary);
+                }
+                this.dictionary = dictionary;
+                configured = true;
+            }
+            return context;
+        }
+
+        @Override
+        public void close() {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.mehrdadfalahati.redisutills.serializer.key;
+
+/**
+ * Maps application keys to the raw keys stored in redis.
+ */
+public interface KeyStrategy {
+
+    byte[] toRawKey(String key);
+
+    /**
+     * @return a key that {@link #toRawKey} maps back to {@code rawKey}, {@code null} when {@code rawKey} was not
+     * written by this strategy
+     */
+    String fromRawKey(byte[] rawKey);
+
+    /**
+     * Translates a {@code SCAN MATCH} pattern over application keys into one over raw keys.
+     */
+    String toPattern(String pattern);
+
+    /**
+     * @return the prefix shared by the raw keys of every application key starting with {@code prefix}, apart from keys
+     * that are stored hashed
+     */
+    default byte[] toRawPrefix(String prefix) {
+        return toRawKey(prefix);
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.mehrdadfalahati.redisutills.serializer.key;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Key serializer of the redis templates; scans translate their patterns through {@link #toPattern(String)}.
+ */
+public class KeyStrategyRedisSerializer implements RedisSerializer<String> {
+
+    private final KeyStrategy keyStrategy;
+
+    public KeyStrategyRedisSerializer(KeyStrategy keyStrategy) {
+        this.keyStrategy = keyStrategy;
+    }
+
+    @Override
+    public byte[] serialize(String key) {
+        return key == null ? null : keyStrategy.toRawKey(key);
+    }
+
+    @Override
+    public String deserialize(byte[] bytes) {
+        return bytes == null ? null : keyStrategy.fromRawKey(bytes);
+    }
+
+    public String toPattern(String pattern) {
+        return keyStrategy.toPattern(pattern);
+    }
+
+    public byte[] toRawPrefix(String prefix) {
+        return keyStrategy.toRawPrefix(prefix);
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return String.class;
+    }
+}
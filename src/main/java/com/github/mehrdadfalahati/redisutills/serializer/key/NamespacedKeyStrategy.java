@@ -0,0 +1,119 @@
+package com.github.mehrdadfalahati.redisutills.serializer.key;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Stores keys as {@code <prefix>v<version>:<key>}, leaving out the version segment while it is {@code 0}. Bumping the
+ * version moves every key to a fresh namespace at once; keys of the old one are never read again and go away with
+ * their expiry. A prefix must not contain braces, or redis cluster would hash every key by it.
+ * <p>
+ * Keys longer than {@code hashThreshold} UTF-8 bytes are replaced by their cluster hash tag, if any, a zero byte and
+ * the first {@value #DIGEST_LENGTH} bytes of their SHA-256. Such keys come back from {@link #fromRawKey} as an opaque
+ * token that maps to the same raw key again, and patterns only match them through wildcards covering the whole key.
+ */
+public class NamespacedKeyStrategy implements KeyStrategy {
+
+    static final int DIGEST_LENGTH = 16;
+    static final byte MARKER = 0;
+
+    private static final char TOKEN_MARKER = '\0';
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final String namespace;
+    private final byte[] rawNamespace;
+    private final int hashThreshold;
+
+    /**
+     * @param hashThreshold length in bytes above which keys are hashed, {@code 0} to never hash
+     */
+    public NamespacedKeyStrategy(String prefix, int version, int hashThreshold) {
+        this.namespace = version == 0 ? prefix : prefix + "v" + version + ":";
+        this.rawNamespace = namespace.getBytes(StandardCharsets.UTF_8);
+        this.hashThreshold = hashThreshold;
+    }
+
+    @Override
+    public byte[] toRawKey(String key) {
+        if (!key.isEmpty() && key.charAt(0) == TOKEN_MARKER) {
+            return withNamespace(fromToken(key));
+        }
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        if (hashThreshold > 0 && bytes.length > hashThreshold) {
+            return withNamespace(hashed(key, bytes));
+        }
+        return withNamespace(bytes);
+    }
+
+    @Override
+    public String fromRawKey(byte[] rawKey) {
+        if (!Arrays.equals(rawKey, 0, Math.min(rawNamespace.length, rawKey.length), rawNamespace, 0, rawNamespace.length)) {
+            return null;
+        }
+        byte[] key = Arrays.copyOfRange(rawKey, rawNamespace.length, rawKey.length);
+        if (isHashed(key)) {
+            return TOKEN_MARKER + TOKEN_ENCODER.encodeToString(key);
+        }
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toPattern(String pattern) {
+        StringBuilder escaped = new StringBuilder(namespace.length() + pattern.length());
+        for (char c : namespace.toCharArray()) {
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.append(pattern).toString();
+    }
+
+    @Override
+    public byte[] toRawPrefix(String prefix) {
+        return withNamespace(prefix.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] withNamespace(byte[] key) {
+        byte[] rawKey = Arrays.copyOf(rawNamespace, rawNamespace.length + key.length);
+        System.arraycopy(key, 0, rawKey, rawNamespace.length, key.length);
+        return rawKey;
+    }
+
+    private static byte[] hashed(String key, byte[] bytes) {
+        byte[] hashTag = hashTagOf(key).getBytes(StandardCharsets.UTF_8);
+        byte[] hashed = Arrays.copyOf(hashTag, hashTag.length + 1 + DIGEST_LENGTH);
+        hashed[hashTag.length] = MARKER;
+        System.arraycopy(digest(bytes), 0, hashed, hashTag.length + 1, DIGEST_LENGTH);
+        return hashed;
+    }
+
+    private static String hashTagOf(String key) {
+        int open = key.indexOf('{');
+        int close = open < 0 ? -1 : key.indexOf('}', open + 1);
+        return close > open + 1 ? key.substring(open, close + 1) : "";
+    }
+
+    private static boolean isHashed(byte[] key) {
+        return key.length > DIGEST_LENGTH && key[key.length - DIGEST_LENGTH - 1] == MARKER;
+    }
+
+    private static byte[] fromToken(String token) {
+        byte[] key = Base64.getUrlDecoder().decode(token.substring(1));
+        if (!isHashed(key)) {
+            throw new IllegalArgumentException("Keys must not start with \\0 unless they are hashed key tokens");
+        }
+        return key;
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        try {
+            return Arrays.copyOf(MessageDigest.getInstance("SHA-256").digest(bytes), DIGEST_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncRedisService<K, V> {
+    CompletableFuture<Void> setIfAbsent(RedisDto<K> redisDto, V value);
+    CompletableFuture<Void> set(RedisDto<K> redisDto, V value);
+    CompletableFuture<V> get(K key, TypeReference<V> typeReference);
+    CompletableFuture<Void> delete(K key);
+    CompletableFuture<Boolean> hasKey(K key);
+}
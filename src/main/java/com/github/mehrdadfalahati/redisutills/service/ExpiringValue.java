@@ -0,0 +1,7 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+/**
+ * A value together with the remaining time to live of its key, {@code -1} when the key does not expire.
+ */
+public record ExpiringValue<V>(V value, long remainingMillis) {
+}
@@ -0,0 +1,17 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface ReactiveRedisService<K, V> {
+    Mono<Void> setIfAbsent(RedisDto<K> redisDto, V value);
+    Mono<Void> set(RedisDto<K> redisDto, V value);
+    Mono<V> get(K key, TypeReference<V> typeReference);
+    Flux<Map.Entry<K, V>> getAll(Flux<K> keys, TypeReference<V> typeReference);
+    Flux<Map.Entry<K, V>> getAll(Flux<K> keys, TypeReference<V> typeReference, int batchSize);
+    Mono<Void> delete(K key);
+    Mono<Boolean> hasKey(K key);
+}
@@ -3,4 +3,22 @@ package com.github.mehrdadfalahati.redisutills.service;
 import java.util.concurrent.TimeUnit;
 
 public record RedisDto<K>(K key, long timeout, TimeUnit timeUnit) {
+
+    /**
+     * Builds a key with {@link #hashTagged(String, String) hashTag}, so that all keys sharing the tag live in the same
+     * cluster hash slot and bulk operations over them need a single command.
+     */
+    public static RedisDto<String> withHashTag(String hashTag, String key, long timeout, TimeUnit timeUnit) {
+        return new RedisDto<>(hashTagged(hashTag, key), timeout, timeUnit);
+    }
+
+    /**
+     * @return {@code {hashTag}key}; redis cluster only hashes the part between the first braces
+     */
+    public static String hashTagged(String hashTag, String key) {
+        if (hashTag.isEmpty() || hashTag.indexOf('}') >= 0) {
+            throw new IllegalArgumentException("A hash tag must be non-empty and must not contain '}': " + hashTag);
+        }
+        return "{" + hashTag + "}" + key;
+    }
 }
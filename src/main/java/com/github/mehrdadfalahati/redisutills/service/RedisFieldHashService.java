@@ -0,0 +1,23 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link RedisService} that stores each property of a value as its own hash field, so single properties can be
+ * read or patched without moving the whole value.
+ */
+public interface RedisFieldHashService<K, V> extends RedisService<K, V> {
+
+    /**
+     * @return the requested fields that exist, in request order
+     */
+    Map<String, Object> getFields(K key, Set<String> fields);
+
+    /**
+     * Writes the given fields of an existing value; a {@code null} value removes the field.
+     *
+     * @return {@code false} when there is no value stored under {@code key}
+     */
+    boolean updateFields(K key, Map<String, Object> fields);
+}
@@ -0,0 +1,28 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A {@link RedisService} whose hashes can also hold individually expiring fields.
+ */
+public interface RedisHashService<K, V> extends RedisService<K, V> {
+    void putField(K key, Object field, V value, Duration ttl);
+    V getField(K key, Object field, TypeReference<V> typeReference);
+
+    /**
+     * @return the requested fields that exist, in request order
+     */
+    <F> Map<F, V> getFields(K key, Collection<F> fields, TypeReference<V> typeReference);
+    long deleteFields(K key, Collection<?> fields);
+
+    /**
+     * Walks the fields of the hash at {@code key} with {@code HSCAN}, {@code batchSize} at a time as the stream is
+     * consumed. A field may be returned more than once, and the stream must be closed.
+     */
+    Stream<Map.Entry<Object, V>> scanHash(K key, int batchSize, TypeReference<V> typeReference);
+}
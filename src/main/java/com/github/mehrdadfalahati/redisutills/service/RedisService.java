@@ -2,10 +2,62 @@ package com.github.mehrdadfalahati.redisutills.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
 public interface RedisService<K, V> {
     void setIfAbsent(RedisDto<K> redisDto, V value);
     void set(RedisDto<K> redisDto, V value);
+    void setAll(Map<RedisDto<K>, V> values);
     V get(K key, TypeReference<V> typeReference);
+    Map<K, V> getAll(Collection<K> keys, TypeReference<V> typeReference);
+
+    /**
+     * Reads the existing keys together with their remaining time to live. Implementations should fetch both in one
+     * round trip; this default asks for every expiry separately.
+     */
+    default Map<K, ExpiringValue<V>> getAllWithExpire(Collection<K> keys, TypeReference<V> typeReference) {
+        Map<K, ExpiringValue<V>> result = new LinkedHashMap<>();
+        getAll(keys, typeReference).forEach((key, value) -> {
+            Long remainingMillis = getExpire(key, TimeUnit.MILLISECONDS);
+            if (remainingMillis != null && remainingMillis != -2) {
+                result.put(key, new ExpiringValue<>(value, remainingMillis));
+            }
+        });
+        return result;
+    }
+    V getOrLoad(RedisDto<K> redisDto, TypeReference<V> typeReference, Supplier<V> loader);
     void delete(K key);
+
+    /**
+     * @return the number of removed keys
+     */
+    long deleteAll(Collection<K> keys);
+
+    /**
+     * Removes the keys matching {@code pattern} while walking them with {@code SCAN}.
+     *
+     * @return the number of removed keys
+     */
+    long deleteByPattern(String pattern);
     Boolean hasKey(K key);
+
+    /**
+     * @return a bit per key, in input order, set when the key exists
+     */
+    BitSet hasKeys(List<K> keys);
+    long countExisting(Collection<K> keys);
+    Long getExpire(K key, TimeUnit timeUnit);
+
+    /**
+     * Walks the keys matching {@code pattern} with {@code SCAN}, loading the values of {@code batchSize} keys at a time
+     * as the stream is consumed. A key may be returned more than once, and the stream must be closed.
+     */
+    Stream<Map.Entry<K, V>> scan(String pattern, int batchSize, TypeReference<V> typeReference);
 }
@@ -0,0 +1,92 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.mehrdadfalahati.redisutills.config.LettuceAsyncCommandsProvider;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.service.AsyncRedisService;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Component("asyncRedisHashService")
+@RequiredArgsConstructor
+public class AsyncRedisHashServiceImpl<K, V> implements AsyncRedisService<K, V> {
+
+    private final RedisTemplate<K, V> redisTemplate;
+    private final RedisValueReader redisValueReader;
+    private final LettuceAsyncCommandsProvider asyncCommandsProvider;
+
+    @Override
+    public CompletableFuture<Void> setIfAbsent(RedisDto<K> redisDto, V value) {
+        return putWithExpiry(RedisHashScripts.PUT_IF_ABSENT_WITH_EXPIRY, redisDto, value);
+    }
+
+    @Override
+    public CompletableFuture<Void> set(RedisDto<K> redisDto, V value) {
+        return putWithExpiry(RedisHashScripts.PUT_WITH_EXPIRY, redisDto, value);
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key, TypeReference<V> typeReference) {
+        return getAsyncCommands().hget(rawKey(key), rawHashKey(key))
+                .toCompletableFuture()
+                .thenApply(rawValue -> redisValueReader.read(rawValue, typeReference));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(K key) {
+        return getAsyncCommands().del(rawKey(key))
+                .toCompletableFuture()
+                .thenApply(removed -> null);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasKey(K key) {
+        return getAsyncCommands().exists(rawKey(key))
+                .toCompletableFuture()
+                .thenApply(count -> count > 0);
+    }
+
+    private CompletableFuture<Void> putWithExpiry(RedisScript<Long> script, RedisDto<K> redisDto, V value) {
+        byte[][] keys = {rawKey(redisDto.key())};
+        byte[][] args = {
+                rawHashKey(redisDto.key()),
+                RedisBytes.serialize(redisTemplate.getHashValueSerializer(), value),
+                String.valueOf(redisDto.timeUnit().toMillis(redisDto.timeout())).getBytes(StandardCharsets.UTF_8)
+        };
+        RedisClusterAsyncCommands<byte[], byte[]> commands = getAsyncCommands();
+        return commands.<Long>evalsha(script.getSha1(), ScriptOutputType.INTEGER, keys, args)
+                .toCompletableFuture()
+                .exceptionallyCompose(e -> isNoScript(e)
+                        ? commands.<Long>eval(script.getScriptAsString(), ScriptOutputType.INTEGER, keys, args)
+                        .toCompletableFuture()
+                        : CompletableFuture.failedFuture(e))
+                .thenApply(written -> null);
+    }
+
+    private static boolean isNoScript(Throwable e) {
+        Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+        return cause instanceof RedisNoScriptException;
+    }
+
+    private byte[] rawKey(K key) {
+        return RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+    }
+
+    private byte[] rawHashKey(K key) {
+        return RedisBytes.serialize(redisTemplate.getHashKeySerializer(), key);
+    }
+
+    private RedisClusterAsyncCommands<byte[], byte[]> getAsyncCommands() {
+        return asyncCommandsProvider.getAsyncCommands();
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.mehrdadfalahati.redisutills.config.LettuceAsyncCommandsProvider;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.service.AsyncRedisService;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+@Component("asyncRedisService")
+@RequiredArgsConstructor
+public class AsyncRedisServiceImpl<K, V> implements AsyncRedisService<K, V> {
+
+    private final RedisTemplate<K, V> redisTemplate;
+    private final RedisValueReader redisValueReader;
+    private final LettuceAsyncCommandsProvider asyncCommandsProvider;
+    private final RedisInvalidationPublisher invalidationPublisher;
+
+    @Override
+    public CompletableFuture<Void> setIfAbsent(RedisDto<K> redisDto, V value) {
+        SetArgs setArgs = SetArgs.Builder.nx().px(redisDto.timeUnit().toMillis(redisDto.timeout()));
+        return getAsyncCommands().set(rawKey(redisDto.key()), rawValue(value), setArgs)
+                .toCompletableFuture()
+                .thenApply(reply -> invalidate(redisDto.key()));
+    }
+
+    @Override
+    public CompletableFuture<Void> set(RedisDto<K> redisDto, V value) {
+        SetArgs setArgs = SetArgs.Builder.px(redisDto.timeUnit().toMillis(redisDto.timeout()));
+        return getAsyncCommands().set(rawKey(redisDto.key()), rawValue(value), setArgs)
+                .toCompletableFuture()
+                .thenApply(reply -> invalidate(redisDto.key()));
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key, TypeReference<V> typeReference) {
+        return getAsyncCommands().get(rawKey(key))
+                .toCompletableFuture()
+                .thenApply(rawValue -> redisValueReader.read(rawValue, typeReference));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(K key) {
+        return getAsyncCommands().del(rawKey(key))
+                .toCompletableFuture()
+                .thenApply(removed -> invalidate(key));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasKey(K key) {
+        return getAsyncCommands().exists(rawKey(key))
+                .toCompletableFuture()
+                .thenApply(count -> count > 0);
+    }
+
+    private Void invalidate(K key) {
+        invalidationPublisher.publish(key);
+        return null;
+    }
+
+    private byte[] rawKey(K key) {
+        return RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+    }
+
+    private byte[] rawValue(V value) {
+        return RedisBytes.serialize(redisTemplate.getValueSerializer(), value);
+    }
+
+    private RedisClusterAsyncCommands<byte[], byte[]> getAsyncCommands() {
+        return asyncCommandsProvider.getAsyncCommands();
+    }
+}
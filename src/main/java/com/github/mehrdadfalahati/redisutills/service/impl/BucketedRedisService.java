@@ -0,0 +1,434 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Stores each key as a field of one of {@code redis-utils.bucket.count} bucket hashes, so that small values share
+ * the per-key overhead of their bucket and stay in the compact listpack encoding while a bucket holds fewer than
+ * {@code hash-max-listpack-entries} (128 by default) values of at most {@code hash-max-listpack-value} bytes.
+ * <p>
+ * Every stored value starts with its deadline as an 8-byte prefix, whatever the server version, so entries stay
+ * readable across upgrades and failovers. Reads skip expired entries and remove them, and the bucket expires together
+ * with its longest-lived entry. Redis 7.4 and later additionally expire each entry with {@code HPEXPIRE}; on older
+ * servers {@link #purgeExpired()} runs every {@code redis-utils.bucket.purge-interval}, since a bucket that keeps
+ * receiving writes never expires and would otherwise keep its unread expired entries.
+ * <p>
+ * Bucket names go through the key serializer like any key, so they share the {@code redis-utils.key} namespace.
+ */
+@Log4j2
+@Component("bucketedRedisService")
+@RequiredArgsConstructor
+public class BucketedRedisService<K, V> implements RedisService<K, V>, InitializingBean, DisposableBean {
+
+    private static final int DEADLINE_LENGTH = Long.BYTES;
+
+    private final RedisTemplate<K, V> redisTemplate;
+    private final RedisValueReader redisValueReader;
+    private final RedisInvalidationPublisher invalidationPublisher;
+    private final SingleFlightLoader singleFlightLoader;
+    private final RedisUtilsProperties properties;
+    private volatile RedisServerVersion serverVersion;
+    private ScheduledExecutorService purger;
+
+    @Override
+    public void afterPropertiesSet() {
+        Duration purgeInterval = properties.getBucket().getPurgeInterval();
+        if (purgeInterval.isZero()) {
+            return;
+        }
+        purger = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("redis-bucket-purger")
+                .daemon()
+                .factory());
+        purger.scheduleWithFixedDelay(this::purgeExpiredWithoutFieldExpiry, purgeInterval.toMillis(),
+                purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    @Override
+    public void setIfAbsent(RedisDto<K> redisDto, V value) {
+        write(redisDto, value, fieldExpiry()
+                ? RedisBucketScripts.SET_IF_ABSENT_WITH_FIELD_EXPIRY
+                : RedisBucketScripts.SET_IF_ABSENT_WITH_DEADLINE);
+    }
+
+    @Override
+    public void set(RedisDto<K> redisDto, V value) {
+        write(redisDto, value, fieldExpiry()
+                ? RedisBucketScripts.SET_WITH_FIELD_EXPIRY
+                : RedisBucketScripts.SET_WITH_DEADLINE);
+    }
+
+    @Override
+    public void setAll(Map<RedisDto<K>, V> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<byte[][]> keysAndArgs = new ArrayList<>(values.size());
+        values.forEach((redisDto, value) -> {
+            byte[][] args = writeArgs(redisDto, value, now);
+            keysAndArgs.add(concat(bucketOf(args[0]), args));
+        });
+        RedisScriptCalls.evalPipelined(redisTemplate, fieldExpiry()
+                ? RedisBucketScripts.SET_WITH_FIELD_EXPIRY
+                : RedisBucketScripts.SET_WITH_DEADLINE, ReturnType.INTEGER, 1, keysAndArgs);
+        invalidationPublisher.publishAll(values.keySet().stream().map(RedisDto::key).toList());
+    }
+
+    @Override
+    public V get(K key, TypeReference<V> typeReference) {
+        byte[] rawKey = rawKey(key);
+        byte[] bucket = bucketOf(rawKey);
+        byte[] rawValue = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.hashCommands().hGet(bucket, rawKey));
+        long now = System.currentTimeMillis();
+        if (rawValue != null && deadlineOf(rawValue) <= now) {
+            deleteExpired(Map.of(bucketIndexOf(rawKey), List.of(rawKey)), now);
+            return null;
+        }
+        return read(rawValue, typeReference);
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys, TypeReference<V> typeReference) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        List<K> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = RedisBytes.serializeAll(redisTemplate.getKeySerializer(), keyList);
+        List<Object> rawValues = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] rawKey : rawKeys) {
+                connection.hashCommands().hGet(bucketOf(rawKey), rawKey);
+            }
+            return null;
+        }, RedisSerializer.byteArray());
+        long now = System.currentTimeMillis();
+        Map<K, V> result = new LinkedHashMap<>();
+        Map<Integer, List<byte[]>> expiredByBucket = new LinkedHashMap<>();
+        for (int i = 0; i < keyList.size(); i++) {
+            byte[] rawValue = (byte[]) rawValues.get(i);
+            if (rawValue == null) {
+                continue;
+            }
+            if (deadlineOf(rawValue) <= now) {
+                expiredByBucket.computeIfAbsent(bucketIndexOf(rawKeys[i]), index -> new ArrayList<>()).add(rawKeys[i]);
+            } else {
+                result.put(keyList.get(i), read(rawValue, typeReference));
+            }
+        }
+        deleteExpired(expiredByBucket, now);
+        return result;
+    }
+
+    @Override
+    public V getOrLoad(RedisDto<K> redisDto, TypeReference<V> typeReference, Supplier<V> loader) {
+        return singleFlightLoader.getOrLoad(this, redisDto, typeReference, loader);
+    }
+
+    @Override
+    public void delete(K key) {
+        byte[] rawKey = rawKey(key);
+        redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.hashCommands().hDel(bucketOf(rawKey), rawKey));
+        invalidationPublisher.publish(key);
+    }
+
+    @Override
+    public long deleteAll(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, List<byte[]>> fieldsByBucket = new LinkedHashMap<>();
+        keys.forEach(key -> {
+            byte[] rawKey = rawKey(key);
+            fieldsByBucket.computeIfAbsent(bucketIndexOf(rawKey), index -> new ArrayList<>()).add(rawKey);
+        });
+        List<Object> removed = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            fieldsByBucket.forEach((index, fields) ->
+                    connection.hashCommands().hDel(bucket(index), fields.toArray(byte[][]::new)));
+            return null;
+        });
+        invalidationPublisher.publishAll(keys);
+        return removed.stream().mapToLong(count -> (Long) count).sum();
+    }
+
+    /**
+     * Removes the entries matching {@code pattern} while walking every bucket with {@code HSCAN}.
+     */
+    @Override
+    public long deleteByPattern(String pattern) {
+        int batchSize = properties.getDelete().getBatchSize();
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisBytes.keyPattern(redisTemplate.getKeySerializer(), pattern))
+                .count(batchSize)
+                .build();
+        long removed = 0;
+        for (int i = 0; i < properties.getBucket().getCount(); i++) {
+            byte[] bucket = bucket(i);
+            try (Cursor<Map.Entry<byte[], byte[]>> entries = redisTemplate.executeWithStickyConnection(connection ->
+                    connection.hashCommands().hScan(bucket, options))) {
+                List<byte[]> fields = new ArrayList<>(batchSize);
+                while (entries.hasNext()) {
+                    fields.add(entries.next().getKey());
+                    if (fields.size() == batchSize || !entries.hasNext()) {
+                        removed += deleteFields(bucket, fields);
+                        fields.clear();
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public Boolean hasKey(K key) {
+        byte[] rawKey = rawKey(key);
+        byte[] bucket = bucketOf(rawKey);
+        byte[] rawValue = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.hashCommands().hGet(bucket, rawKey));
+        return rawValue != null && deadlineOf(rawValue) > System.currentTimeMillis();
+    }
+
+    /**
+     * @return a bit per key, in input order, set when the key has a live entry; all lookups share one pipeline
+     */
+    @Override
+    public BitSet hasKeys(List<K> keys) {
+        BitSet existing = new BitSet(keys.size());
+        if (keys.isEmpty()) {
+            return existing;
+        }
+        byte[][] rawKeys = RedisBytes.serializeAll(redisTemplate.getKeySerializer(), keys);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] rawKey : rawKeys) {
+                connection.hashCommands().hGet(bucketOf(rawKey), rawKey);
+            }
+            return null;
+        }, RedisSerializer.byteArray());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < results.size(); i++) {
+            Object result = results.get(i);
+            if (result != null && deadlineOf((byte[]) result) > now) {
+                existing.set(i);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Counts through {@link #hasKeys(List)}, since the entries live in different buckets.
+     */
+    @Override
+    public long countExisting(Collection<K> keys) {
+        return hasKeys(new ArrayList<>(keys)).cardinality();
+    }
+
+    /**
+     * @return the remaining time to live, {@code -2} when the key does not exist
+     */
+    @Override
+    public Long getExpire(K key, TimeUnit timeUnit) {
+        byte[] rawKey = rawKey(key);
+        byte[] bucket = bucketOf(rawKey);
+        byte[] rawValue = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.hashCommands().hGet(bucket, rawKey));
+        long millis = rawValue == null ? -2 : deadlineOf(rawValue) - System.currentTimeMillis();
+        return millis <= 0 ? -2 : timeUnit.convert(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Walks the entries of every bucket with {@code HSCAN}, matching {@code pattern} against the serialized keys.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<Map.Entry<K, V>> scan(String pattern, int batchSize, TypeReference<V> typeReference) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisBytes.keyPattern(redisTemplate.getKeySerializer(), pattern))
+                .count(batchSize)
+                .build();
+        return IntStream.range(0, properties.getBucket().getCount())
+                .mapToObj(this::bucket)
+                .flatMap(bucket -> {
+                    Cursor<Map.Entry<byte[], byte[]>> entries = redisTemplate.executeWithStickyConnection(connection ->
+                            connection.hashCommands().hScan(bucket, options));
+                    return RedisScanStreams.batched(entries, batchSize, batch -> {
+                        long now = System.currentTimeMillis();
+                        List<Map.Entry<K, V>> result = new ArrayList<>(batch.size());
+                        for (Map.Entry<byte[], byte[]> entry : batch) {
+                            byte[] rawValue = entry.getValue();
+                            if (deadlineOf(rawValue) > now) {
+                                result.add(Map.entry((K) redisTemplate.getKeySerializer().deserialize(entry.getKey()),
+                                        read(rawValue, typeReference)));
+                            }
+                        }
+                        return result;
+                    });
+                });
+    }
+
+    /**
+     * Removes expired entries from every bucket. Mostly needed on servers without {@code HPEXPIRE}, where an expired
+     * entry otherwise stays until it is read or its bucket expires.
+     *
+     * @return the number of removed entries
+     */
+    public long purgeExpired() {
+        byte[] now = String.valueOf(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8);
+        List<byte[][]> keysAndArgs = IntStream.range(0, properties.getBucket().getCount())
+                .mapToObj(i -> new byte[][]{bucket(i), now})
+                .toList();
+        return RedisScriptCalls.evalPipelined(redisTemplate, RedisBucketScripts.PURGE_EXPIRED, ReturnType.INTEGER, 1,
+                        keysAndArgs).stream()
+                .mapToLong(count -> (Long) count)
+                .sum();
+    }
+
+    private void purgeExpiredWithoutFieldExpiry() {
+        try {
+            if (!fieldExpiry()) {
+                purgeExpired();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to purge expired bucket entries", e);
+        }
+    }
+
+    private void write(RedisDto<K> redisDto, V value, RedisScript<Long> script) {
+        byte[][] args = writeArgs(redisDto, value, System.currentTimeMillis());
+        byte[][] keyAndArgs = concat(bucketOf(args[0]), args);
+        redisTemplate.execute((RedisCallback<Object>) connection ->
+                RedisScriptCalls.eval(connection, script, ReturnType.INTEGER, 1, keyAndArgs));
+        invalidationPublisher.publish(redisDto.key());
+    }
+
+    private byte[][] writeArgs(RedisDto<K> redisDto, V value, long now) {
+        byte[] rawKey = rawKey(redisDto.key());
+        byte[] rawValue = RedisBytes.serialize(redisTemplate.getValueSerializer(), value);
+        long timeoutMillis = redisDto.timeUnit().toMillis(redisDto.timeout());
+        byte[] timeout = String.valueOf(timeoutMillis).getBytes(StandardCharsets.UTF_8);
+        byte[] entry = ByteBuffer.allocate(DEADLINE_LENGTH + rawValue.length)
+                .putLong(now + timeoutMillis)
+                .put(rawValue)
+                .array();
+        return new byte[][]{rawKey, entry, timeout, String.valueOf(now).getBytes(StandardCharsets.UTF_8)};
+    }
+
+    private V read(byte[] rawValue, TypeReference<V> typeReference) {
+        if (rawValue == null) {
+            return null;
+        }
+        return redisValueReader.read(Arrays.copyOfRange(rawValue, DEADLINE_LENGTH, rawValue.length), typeReference);
+    }
+
+    /**
+     * Removes the given fields, which were read expired, with one script call per bucket in a single pipeline.
+     */
+    private void deleteExpired(Map<Integer, List<byte[]>> fieldsByBucket, long now) {
+        if (fieldsByBucket.isEmpty()) {
+            return;
+        }
+        byte[] rawNow = String.valueOf(now).getBytes(StandardCharsets.UTF_8);
+        List<byte[][]> keysAndArgs = new ArrayList<>(fieldsByBucket.size());
+        fieldsByBucket.forEach((index, fields) -> {
+            byte[][] call = new byte[fields.size() + 2][];
+            call[0] = bucket(index);
+            call[1] = rawNow;
+            for (int i = 0; i < fields.size(); i++) {
+                call[i + 2] = fields.get(i);
+            }
+            keysAndArgs.add(call);
+        });
+        RedisScriptCalls.evalPipelined(redisTemplate, RedisBucketScripts.DELETE_EXPIRED, ReturnType.INTEGER, 1,
+                keysAndArgs);
+    }
+
+    private long deleteFields(byte[] bucket, List<byte[]> fields) {
+        byte[][] rawKeys = fields.toArray(byte[][]::new);
+        Long removed = redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.hashCommands().hDel(bucket, rawKeys));
+        invalidationPublisher.publishAll(fields.stream()
+                .map(field -> redisTemplate.getKeySerializer().deserialize(field))
+                .toList());
+        return removed == null ? 0 : removed;
+    }
+
+    private boolean fieldExpiry() {
+        RedisServerVersion version = serverVersion;
+        if (version == null) {
+            version = RedisServerVersion.detect(redisTemplate);
+            serverVersion = version;
+        }
+        return version.isAtLeast(7, 4);
+    }
+
+    private byte[] rawKey(K key) {
+        return RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+    }
+
+    private byte[] bucketOf(byte[] rawKey) {
+        return bucket(bucketIndexOf(rawKey));
+    }
+
+    private int bucketIndexOf(byte[] rawKey) {
+        CRC32 crc = new CRC32();
+        crc.update(rawKey);
+        return (int) (crc.getValue() % properties.getBucket().getCount());
+    }
+
+    private byte[] bucket(int index) {
+        return RedisBytes.keyPrefix(redisTemplate.getKeySerializer(), properties.getBucket().getPrefix() + index);
+    }
+
+    private static long deadlineOf(byte[] rawValue) {
+        return ByteBuffer.wrap(rawValue, 0, DEADLINE_LENGTH).getLong();
+    }
+
+    private static byte[][] concat(byte[] first, byte[][] rest) {
+        byte[][] result = new byte[rest.length + 1][];
+        result[0] = first;
+        System.arraycopy(rest, 0, result, 1, rest.length);
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Places every node at {@code virtualNodes} points of a 64-bit ring, derived from its name; a key belongs to the first
+ * point at or after its own hash. A new node only takes over the keys just before its points, about {@code 1/n} of
+ * them, and all other keys keep their node.
+ */
+final class ConsistentHashRing<T> {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final TreeMap<Long, T> ring = new TreeMap<>();
+
+    ConsistentHashRing(Map<String, T> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        nodes.forEach((name, node) -> {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash((name + "#" + i).getBytes(StandardCharsets.UTF_8)), node);
+            }
+        });
+    }
+
+    T nodeFor(byte[] key) {
+        Map.Entry<Long, T> point = ring.ceilingEntry(hash(key));
+        return (point != null ? point : ring.firstEntry()).getValue();
+    }
+
+    /**
+     * FNV-1a, finished with the MurmurHash3 mixer so that similar keys spread over the whole ring.
+     */
+    static long hash(byte[] bytes) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,228 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisFieldMapper;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisFieldHashService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Stores every non-null property of a value as its own hash field, named after the property and encoded with the
+ * hash value serializer. Writing a value replaces all of its fields.
+ */
+@Component("fieldHashRedisService")
+@RequiredArgsConstructor
+public class FieldHashRedisServiceImpl<K, V> implements RedisFieldHashService<K, V> {
+
+    private static final RedisSerializer<Long> SCRIPT_RESULT_SERIALIZER = new GenericToStringSerializer<>(Long.class);
+
+    private final RedisTemplate<K, V> redisTemplate;
+    private final RedisValueReader redisValueReader;
+    private final RedisFieldMapper redisFieldMapper;
+    private final RedisInvalidationPublisher invalidationPublisher;
+    private final SingleFlightLoader singleFlightLoader;
+    private final RedisKeyDeleter keyDeleter;
+    private final RedisSlotGrouping slotGrouping;
+
+    @Override
+    public void setIfAbsent(RedisDto<K> redisDto, V value) {
+        execute(RedisHashScripts.PUT_FIELDS_IF_ABSENT_WITH_EXPIRY, redisDto.key(), fieldArgs(redisDto, value));
+        invalidationPublisher.publish(redisDto.key());
+    }
+
+    @Override
+    public void set(RedisDto<K> redisDto, V value) {
+        execute(RedisHashScripts.REPLACE_FIELDS_WITH_EXPIRY, redisDto.key(), fieldArgs(redisDto, value));
+        invalidationPublisher.publish(redisDto.key());
+    }
+
+    @Override
+    public void setAll(Map<RedisDto<K>, V> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        List<byte[][]> keysAndArgs = new ArrayList<>(values.size());
+        values.forEach((redisDto, value) -> {
+            List<byte[]> args = fieldArgs(redisDto, value);
+            args.add(0, RedisBytes.serialize(redisTemplate.getKeySerializer(), redisDto.key()));
+            keysAndArgs.add(args.toArray(byte[][]::new));
+        });
+        RedisScriptCalls.evalPipelined(redisTemplate, RedisHashScripts.REPLACE_FIELDS_WITH_EXPIRY, ReturnType.INTEGER, 1,
+                keysAndArgs);
+        invalidationPublisher.publishAll(values.keySet().stream().map(RedisDto::key).toList());
+    }
+
+    @Override
+    public V get(K key, TypeReference<V> typeReference) {
+        byte[] rawKey = RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+        Map<byte[], byte[]> rawFields = redisTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection ->
+                connection.hashCommands().hGetAll(rawKey));
+        return fromFields(rawFields, typeReference);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<K, V> getAll(Collection<K> keys, TypeReference<V> typeReference) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        List<K> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = RedisBytes.serializeAll(redisTemplate.getKeySerializer(), keyList);
+        // Pipelined directly on the connection: executePipelined would decode the field names with the hash key serializer.
+        List<Object> rawValues = redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            for (byte[] rawKey : rawKeys) {
+                connection.hashCommands().hGetAll(rawKey);
+            }
+            return connection.closePipeline();
+        });
+        Map<K, V> result = new LinkedHashMap<>();
+        for (int i = 0; i < keyList.size(); i++) {
+            V value = fromFields((Map<byte[], byte[]>) rawValues.get(i), typeReference);
+            if (value != null) {
+                result.put(keyList.get(i), value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getFields(K key, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return Map.of();
+        }
+        List<String> fieldList = new ArrayList<>(fields);
+        byte[] rawKey = RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+        byte[][] rawFields = RedisBytes.serializeAll(StringRedisSerializer.UTF_8, fieldList);
+        List<byte[]> rawValues = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.hashCommands().hMGet(rawKey, rawFields));
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < fieldList.size(); i++) {
+            byte[] rawValue = rawValues.get(i);
+            if (rawValue != null) {
+                result.put(fieldList.get(i), redisValueReader.read(rawValue, Object.class));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean updateFields(K key, Map<String, Object> fields) {
+        List<byte[]> args = new ArrayList<>();
+        args.add(null);
+        List<byte[]> removedFields = new ArrayList<>();
+        fields.forEach((field, value) -> {
+            if (value == null) {
+                removedFields.add(StringRedisSerializer.UTF_8.serialize(field));
+            } else {
+                args.add(StringRedisSerializer.UTF_8.serialize(field));
+                args.add(RedisBytes.serialize(redisTemplate.getHashValueSerializer(), value));
+            }
+        });
+        args.set(0, String.valueOf((args.size() - 1) / 2).getBytes(StandardCharsets.UTF_8));
+        args.addAll(removedFields);
+        Long updated = execute(RedisHashScripts.UPDATE_FIELDS, key, args);
+        invalidationPublisher.publish(key);
+        return updated != null && updated == 1;
+    }
+
+    @Override
+    public V getOrLoad(RedisDto<K> redisDto, TypeReference<V> typeReference, Supplier<V> loader) {
+        return singleFlightLoader.getOrLoad(this, redisDto, typeReference, loader);
+    }
+
+    @Override
+    public void delete(K key) {
+        keyDeleter.delete(key);
+    }
+
+    @Override
+    public long deleteAll(Collection<K> keys) {
+        return keyDeleter.deleteAll(keys);
+    }
+
+    @Override
+    public long deleteByPattern(String pattern) {
+        return keyDeleter.deleteByPattern(pattern);
+    }
+
+    @Override
+    public Boolean hasKey(K key) {
+        return redisTemplate.hasKey(key);
+    }
+
+    @Override
+    public BitSet hasKeys(List<K> keys) {
+        return RedisKeyExistence.hasKeys(redisTemplate, keys);
+    }
+
+    @Override
+    public long countExisting(Collection<K> keys) {
+        return RedisKeyExistence.countExisting(redisTemplate, slotGrouping, keys);
+    }
+
+    @Override
+    public Long getExpire(K key, TimeUnit timeUnit) {
+        return redisTemplate.getExpire(key, timeUnit);
+    }
+
+    @Override
+    public Stream<Map.Entry<K, V>> scan(String pattern, int batchSize, TypeReference<V> typeReference) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisBytes.keyPattern(redisTemplate.getKeySerializer(), pattern))
+                .count(batchSize)
+                .build();
+        Cursor<K> keys = redisTemplate.scan(options);
+        return RedisScanStreams.batched(keys, batchSize, batch -> getAll(batch, typeReference).entrySet());
+    }
+
+    private Long execute(RedisScript<Long> script, K key, List<byte[]> args) {
+        return redisTemplate.execute(script, RedisSerializer.byteArray(), SCRIPT_RESULT_SERIALIZER, List.of(key),
+                args.toArray());
+    }
+
+    private List<byte[]> fieldArgs(RedisDto<K> redisDto, V value) {
+        List<byte[]> args = new ArrayList<>();
+        args.add(String.valueOf(redisDto.timeUnit().toMillis(redisDto.timeout())).getBytes(StandardCharsets.UTF_8));
+        redisFieldMapper.toFields(value).forEach((field, fieldValue) -> {
+            args.add(StringRedisSerializer.UTF_8.serialize(field));
+            args.add(RedisBytes.serialize(redisTemplate.getHashValueSerializer(), fieldValue));
+        });
+        return args;
+    }
+
+    private V fromFields(Map<byte[], byte[]> rawFields, TypeReference<V> typeReference) {
+        if (rawFields == null || rawFields.isEmpty()) {
+            return null;
+        }
+        Map<String, JsonNode> fields = new LinkedHashMap<>();
+        rawFields.forEach((field, value) ->
+                fields.put(StringRedisSerializer.UTF_8.deserialize(field), redisValueReader.read(value, JsonNode.class)));
+        return redisFieldMapper.fromFields(fields, typeReference.getType());
+    }
+}
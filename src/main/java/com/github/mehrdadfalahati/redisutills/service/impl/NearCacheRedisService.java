@@ -0,0 +1,260 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.mehrdadfalahati.redisutills.invalidation.InvalidationListener;
+import com.github.mehrdadfalahati.redisutills.service.ExpiringValue;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Keeps already deserialized values of a {@link RedisService} in a bounded in-process cache.
+ * A local entry never outlives the redis key it was read from, and writes or deletes made through this
+ * decorator evict the local entry. Register it with a {@code RedisInvalidationSubscriber} to also evict entries written
+ * by other instances. An entry only answers reads with the type it was read as.
+ */
+public class NearCacheRedisService<K, V> implements RedisService<K, V>, InvalidationListener {
+
+    private final RedisService<K, V> delegate;
+    private final Duration maxTimeToLive;
+    // holds a LocalEntry, or a PendingRead while the value is being read from redis
+    private final Cache<K, Object> localCache;
+
+    public NearCacheRedisService(RedisService<K, V> delegate, long maximumSize, Duration maxTimeToLive) {
+        this.delegate = delegate;
+        this.maxTimeToLive = maxTimeToLive;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new LocalEntryExpiry<K>(maxTimeToLive))
+                .build();
+    }
+
+    @Override
+    public void setIfAbsent(RedisDto<K> redisDto, V value) {
+        delegate.setIfAbsent(redisDto, value);
+        invalidate(redisDto.key());
+    }
+
+    @Override
+    public void set(RedisDto<K> redisDto, V value) {
+        delegate.set(redisDto, value);
+        invalidate(redisDto.key());
+    }
+
+    @Override
+    public void setAll(Map<RedisDto<K>, V> values) {
+        delegate.setAll(values);
+        values.keySet().forEach(redisDto -> invalidate(redisDto.key()));
+    }
+
+    @Override
+    public V get(K key, TypeReference<V> typeReference) {
+        LocalEntry entry = localEntry(key, typeReference);
+        if (entry != null) {
+            return entry.value(typeReference);
+        }
+        PendingRead pendingRead = startRead(key);
+        ExpiringValue<V> loaded = delegate.getAllWithExpire(List.of(key), typeReference).get(key);
+        completeRead(key, pendingRead, loaded, typeReference);
+        return loaded != null ? loaded.value() : null;
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys, TypeReference<V> typeReference) {
+        Map<K, V> result = new LinkedHashMap<>();
+        List<K> missingKeys = new ArrayList<>();
+        for (K key : keys) {
+            LocalEntry entry = localEntry(key, typeReference);
+            if (entry != null) {
+                result.put(key, entry.value(typeReference));
+            } else {
+                // keeps the input order, the missing values are filled in below
+                result.put(key, null);
+                missingKeys.add(key);
+            }
+        }
+        if (!missingKeys.isEmpty()) {
+            List<PendingRead> pendingReads = missingKeys.stream().map(this::startRead).toList();
+            Map<K, ExpiringValue<V>> loaded = delegate.getAllWithExpire(missingKeys, typeReference);
+            for (int i = 0; i < missingKeys.size(); i++) {
+                K key = missingKeys.get(i);
+                ExpiringValue<V> value = loaded.get(key);
+                completeRead(key, pendingReads.get(i), value, typeReference);
+                result.put(key, value != null ? value.value() : null);
+            }
+        }
+        result.values().removeIf(value -> value == null);
+        return result;
+    }
+
+    @Override
+    public V getOrLoad(RedisDto<K> redisDto, TypeReference<V> typeReference, Supplier<V> loader) {
+        LocalEntry entry = localEntry(redisDto.key(), typeReference);
+        if (entry != null) {
+            return entry.value(typeReference);
+        }
+        PendingRead pendingRead = startRead(redisDto.key());
+        ExpiringValue<V> loaded = delegate.getAllWithExpire(List.of(redisDto.key()), typeReference).get(redisDto.key());
+        if (loaded == null) {
+            // the value was just written with the timeout of redisDto, so that bounds the local entry as well
+            V value = delegate.getOrLoad(redisDto, typeReference, loader);
+            loaded = value != null ? new ExpiringValue<>(value, redisDto.timeUnit().toMillis(redisDto.timeout())) : null;
+        }
+        completeRead(redisDto.key(), pendingRead, loaded, typeReference);
+        return loaded != null ? loaded.value() : null;
+    }
+
+    @Override
+    public void delete(K key) {
+        delegate.delete(key);
+        invalidate(key);
+    }
+
+    @Override
+    public long deleteAll(Collection<K> keys) {
+        long removed = delegate.deleteAll(keys);
+        invalidateAll(keys);
+        return removed;
+    }
+
+    @Override
+    public long deleteByPattern(String pattern) {
+        long removed = delegate.deleteByPattern(pattern);
+        localCache.invalidateAll();
+        return removed;
+    }
+
+    @Override
+    public Boolean hasKey(K key) {
+        return localCache.getIfPresent(key) instanceof LocalEntry || Boolean.TRUE.equals(delegate.hasKey(key));
+    }
+
+    @Override
+    public BitSet hasKeys(List<K> keys) {
+        BitSet existing = new BitSet(keys.size());
+        List<K> remoteKeys = new ArrayList<>();
+        List<Integer> remoteIndexes = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (localCache.getIfPresent(keys.get(i)) instanceof LocalEntry) {
+                existing.set(i);
+            } else {
+                remoteKeys.add(keys.get(i));
+                remoteIndexes.add(i);
+            }
+        }
+        if (!remoteKeys.isEmpty()) {
+            delegate.hasKeys(remoteKeys).stream().forEach(i -> existing.set(remoteIndexes.get(i)));
+        }
+        return existing;
+    }
+
+    @Override
+    public long countExisting(Collection<K> keys) {
+        return delegate.countExisting(keys);
+    }
+
+    @Override
+    public Long getExpire(K key, TimeUnit timeUnit) {
+        return delegate.getExpire(key, timeUnit);
+    }
+
+    @Override
+    public Stream<Map.Entry<K, V>> scan(String pattern, int batchSize, TypeReference<V> typeReference) {
+        return delegate.scan(pattern, batchSize, typeReference);
+    }
+
+    public void invalidate(K key) {
+        localCache.invalidate(key);
+    }
+
+    public void invalidateAll(Collection<? extends K> keys) {
+        localCache.invalidateAll(keys);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onInvalidation(Collection<?> keys) {
+        invalidateAll((Collection<? extends K>) keys);
+    }
+
+    private LocalEntry localEntry(K key, TypeReference<V> typeReference) {
+        return localCache.getIfPresent(key) instanceof LocalEntry entry && entry.type().equals(typeReference.getType())
+                ? entry
+                : null;
+    }
+
+    private PendingRead startRead(K key) {
+        PendingRead pendingRead = new PendingRead();
+        localCache.put(key, pendingRead);
+        return pendingRead;
+    }
+
+    private void completeRead(K key, PendingRead pendingRead, ExpiringValue<V> loaded, TypeReference<V> typeReference) {
+        // a write or invalidation that happened while the read was in flight has already removed the marker
+        Duration timeToLive = loaded == null ? Duration.ZERO : timeToLive(loaded.remainingMillis());
+        if (timeToLive.isZero() || timeToLive.isNegative()) {
+            localCache.asMap().remove(key, pendingRead);
+        } else {
+            localCache.asMap().replace(key, pendingRead,
+                    new LocalEntry(loaded.value(), typeReference.getType(), timeToLive));
+        }
+    }
+
+    private Duration timeToLive(long remainingMillis) {
+        if (remainingMillis == -1) {
+            return maxTimeToLive;
+        }
+        return remainingMillis < 0 ? Duration.ZERO : min(maxTimeToLive, Duration.ofMillis(remainingMillis));
+    }
+
+    private static Duration min(Duration first, Duration second) {
+        return first.compareTo(second) <= 0 ? first : second;
+    }
+
+    private record LocalEntry(Object value, Type type, Duration timeToLive) {
+
+        @SuppressWarnings("unchecked")
+        <V> V value(TypeReference<V> typeReference) {
+            return (V) value;
+        }
+    }
+
+    private static final class PendingRead {
+    }
+
+    private record LocalEntryExpiry<K>(Duration pendingTimeToLive) implements Expiry<K, Object> {
+
+        @Override
+        public long expireAfterCreate(K key, Object entry, long currentTime) {
+            return timeToLive(entry).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Object entry, long currentTime, long currentDuration) {
+            return timeToLive(entry).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(K key, Object entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private Duration timeToLive(Object entry) {
+            return entry instanceof LocalEntry localEntry ? localEntry.timeToLive() : pendingTimeToLive;
+        }
+    }
+}
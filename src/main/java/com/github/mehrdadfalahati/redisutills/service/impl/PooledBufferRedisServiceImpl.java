@@ -0,0 +1,174 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.mehrdadfalahati.redisutills.config.LettuceAsyncCommandsProvider;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.PooledBufferRedisCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.serializer.TypedRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.output.ValueListOutput;
+import io.lettuce.core.output.ValueOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import io.netty.buffer.ByteBuf;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceExceptionConverter;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RedisServiceImpl} whose single-key writes and reads bypass {@link RedisTemplate} and go through a
+ * {@link PooledBufferRedisCodec}, so values are serialized on the calling thread into pooled buffers and deserialized
+ * from Lettuce's network buffers instead of round-tripping through {@code byte[]} copies.
+ */
+@Component("pooledBufferRedisService")
+public class PooledBufferRedisServiceImpl<K, V> extends RedisServiceImpl<K, V> {
+
+    private static final LettuceExceptionConverter EXCEPTION_CONVERTER = new LettuceExceptionConverter();
+
+    private final RedisTemplate<K, V> redisTemplate;
+    private final RedisInvalidationPublisher invalidationPublisher;
+    private final LettuceAsyncCommandsProvider asyncCommandsProvider;
+    private final TypedRedisSerializer redisValueSerializer;
+    private final RedisSlotGrouping slotGrouping;
+    private final Map<Type, PooledBufferRedisCodec> codecs = new ConcurrentHashMap<>();
+    private final PooledBufferRedisCodec writeCodec;
+    private final long timeoutMillis;
+
+    public PooledBufferRedisServiceImpl(RedisTemplate<K, V> redisTemplate, RedisValueReader redisValueReader,
+                                        RedisInvalidationPublisher invalidationPublisher,
+                                        SingleFlightLoader singleFlightLoader, RedisKeyDeleter keyDeleter,
+                                        RedisSlotGrouping slotGrouping, LettuceAsyncCommandsProvider asyncCommandsProvider,
+                                        TypedRedisSerializer redisValueSerializer) {
+        super(redisTemplate, redisValueReader, invalidationPublisher, singleFlightLoader, keyDeleter, slotGrouping);
+        this.redisTemplate = redisTemplate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.asyncCommandsProvider = asyncCommandsProvider;
+        this.redisValueSerializer = redisValueSerializer;
+        this.slotGrouping = slotGrouping;
+        this.writeCodec = codec(Object.class);
+        this.timeoutMillis = commandTimeout(redisTemplate).toMillis();
+    }
+
+    @Override
+    public void setIfAbsent(RedisDto<K> redisDto, V value) {
+        set(redisDto, value, SetArgs.Builder.nx().px(redisDto.timeUnit().toMillis(redisDto.timeout())));
+        invalidationPublisher.publish(redisDto.key());
+    }
+
+    @Override
+    public void set(RedisDto<K> redisDto, V value) {
+        set(redisDto, value, SetArgs.Builder.px(redisDto.timeUnit().toMillis(redisDto.timeout())));
+        invalidationPublisher.publish(redisDto.key());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key, TypeReference<V> typeReference) {
+        PooledBufferRedisCodec codec = codec(typeReference.getType());
+        CommandArgs<byte[], Object> args = new CommandArgs<>(codec).addKey(rawKey(key));
+        return (V) await(getAsyncCommands().dispatch(CommandType.GET, new ValueOutput<>(codec), args));
+    }
+
+    /**
+     * Dispatches one {@code MGET} per {@link RedisSlotGrouping group} at once and waits for all of them.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<K, V> getAll(Collection<K> keys, TypeReference<V> typeReference) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        List<K> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = keyList.stream().map(this::rawKey).toArray(byte[][]::new);
+        PooledBufferRedisCodec codec = codec(typeReference.getType());
+        List<int[]> groups = slotGrouping.groups(rawKeys, Integer.MAX_VALUE);
+        List<RedisFuture<List<Object>>> futures = groups.stream()
+                .map(positions -> {
+                    CommandArgs<byte[], Object> args = new CommandArgs<>(codec);
+                    for (int position : positions) {
+                        args.addKey(rawKeys[position]);
+                    }
+                    return getAsyncCommands().dispatch(CommandType.MGET, new ValueListOutput<>(codec), args);
+                })
+                .toList();
+        Object[] values = new Object[rawKeys.length];
+        for (int i = 0; i < groups.size(); i++) {
+            List<Object> groupValues = await(futures.get(i));
+            int[] positions = groups.get(i);
+            for (int j = 0; j < positions.length; j++) {
+                values[positions[j]] = groupValues.get(j);
+            }
+        }
+        Map<K, V> result = new LinkedHashMap<>();
+        for (int i = 0; i < keyList.size(); i++) {
+            if (values[i] != null) {
+                result.put(keyList.get(i), (V) values[i]);
+            }
+        }
+        return result;
+    }
+
+    private void set(RedisDto<K> redisDto, V value, SetArgs setArgs) {
+        ByteBuf rawValue = writeCodec.encode(value);
+        RedisFuture<String> future;
+        try {
+            CommandArgs<byte[], Object> args = new CommandArgs<>(writeCodec).addKey(rawKey(redisDto.key())).addValue(rawValue);
+            setArgs.build(args);
+            future = getAsyncCommands().dispatch(CommandType.SET, new StatusOutput<>(writeCodec), args);
+        } catch (RuntimeException e) {
+            rawValue.release();
+            throw e;
+        }
+        // released once the command is done, it is only copied into the command buffer when written to the channel
+        future.whenComplete((result, e) -> rawValue.release());
+        await(future);
+    }
+
+    private PooledBufferRedisCodec codec(Type type) {
+        return codecs.computeIfAbsent(type, it -> new PooledBufferRedisCodec(redisValueSerializer, it));
+    }
+
+    private byte[] rawKey(K key) {
+        return RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+    }
+
+    private <T> T await(RedisFuture<T> future) {
+        try {
+            return LettuceFutures.awaitOrCancel(future, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            DataAccessException translated = EXCEPTION_CONVERTER.convert(e);
+            throw translated != null ? translated : e;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private RedisClusterAsyncCommands<byte[], Object> getAsyncCommands() {
+        // the connection's own codec only matters for commands that don't bring their own CommandArgs codec
+        return (RedisClusterAsyncCommands) asyncCommandsProvider.getAsyncCommands();
+    }
+
+    private static Duration commandTimeout(RedisTemplate<?, ?> redisTemplate) {
+        if (redisTemplate.getConnectionFactory() instanceof LettuceConnectionFactory connectionFactory) {
+            return connectionFactory.getClientConfiguration().getCommandTimeout();
+        }
+        return Duration.ofSeconds(60);
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.service.ReactiveRedisService;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Component("reactiveRedisService")
+@RequiredArgsConstructor
+public class ReactiveRedisServiceImpl<K, V> implements ReactiveRedisService<K, V> {
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final ReactiveRedisTemplate<K, V> reactiveRedisTemplate;
+    private final RedisValueReader redisValueReader;
+    private final RedisInvalidationPublisher invalidationPublisher;
+
+    @Override
+    public Mono<Void> setIfAbsent(RedisDto<K> redisDto, V value) {
+        return getOpsForValue().setIfAbsent(redisDto.key(), value, toDuration(redisDto)).then(invalidate(redisDto.key()));
+    }
+
+    @Override
+    public Mono<Void> set(RedisDto<K> redisDto, V value) {
+        return getOpsForValue().set(redisDto.key(), value, toDuration(redisDto)).then(invalidate(redisDto.key()));
+    }
+
+    @Override
+    public Mono<V> get(K key, TypeReference<V> typeReference) {
+        ByteBuffer rawKey = rawKey(key);
+        return reactiveRedisTemplate.execute(connection -> connection.stringCommands().get(rawKey))
+                .next()
+                .mapNotNull(rawValue -> read(rawValue, typeReference));
+    }
+
+    @Override
+    public Flux<Map.Entry<K, V>> getAll(Flux<K> keys, TypeReference<V> typeReference) {
+        return getAll(keys, typeReference, DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public Flux<Map.Entry<K, V>> getAll(Flux<K> keys, TypeReference<V> typeReference, int batchSize) {
+        return keys.buffer(batchSize)
+                .concatMap(batch -> multiGet(batch, typeReference));
+    }
+
+    @Override
+    public Mono<Void> delete(K key) {
+        return reactiveRedisTemplate.delete(key).then(invalidate(key));
+    }
+
+    @Override
+    public Mono<Boolean> hasKey(K key) {
+        return reactiveRedisTemplate.hasKey(key);
+    }
+
+    private Flux<Map.Entry<K, V>> multiGet(List<K> keys, TypeReference<V> typeReference) {
+        List<ByteBuffer> rawKeys = keys.stream().map(this::rawKey).toList();
+        return reactiveRedisTemplate.execute(connection -> connection.stringCommands().mGet(rawKeys))
+                .next()
+                .flatMapIterable(rawValues -> {
+                    List<Map.Entry<K, V>> entries = new ArrayList<>(keys.size());
+                    for (int i = 0; i < keys.size(); i++) {
+                        V value = read(rawValues.get(i), typeReference);
+                        if (value != null) {
+                            entries.add(Map.entry(keys.get(i), value));
+                        }
+                    }
+                    return entries;
+                });
+    }
+
+    private Mono<Void> invalidate(K key) {
+        return Mono.fromRunnable(() -> invalidationPublisher.publish(key));
+    }
+
+    private V read(ByteBuffer rawValue, TypeReference<V> typeReference) {
+        if (rawValue == null || !rawValue.hasRemaining()) {
+            return null;
+        }
+        return redisValueReader.read(ByteUtils.getBytes(rawValue), typeReference);
+    }
+
+    private ByteBuffer rawKey(K key) {
+        return reactiveRedisTemplate.getSerializationContext().getKeySerializationPair().write(key);
+    }
+
+    private ReactiveValueOperations<K, V> getOpsForValue() {
+        return reactiveRedisTemplate.opsForValue();
+    }
+
+    private static Duration toDuration(RedisDto<?> redisDto) {
+        return Duration.of(redisDto.timeout(), redisDto.timeUnit().toChronoUnit());
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Scripts for entries of a bucket hash. Every stored value starts with its deadline as 8 big-endian bytes of epoch
+ * milliseconds. The write scripts take the field as ARGV[1], the value as ARGV[2], the time to live in milliseconds as
+ * ARGV[3] and the current time in milliseconds as ARGV[4].
+ */
+final class RedisBucketScripts {
+
+    private static final String DEADLINE = """
+            local function deadline(value)
+                local millis = 0
+                for i = 1, 8 do
+                    millis = millis * 256 + string.byte(value, i)
+                end
+                return millis
+            end
+            """;
+
+    // Keeps the bucket itself until its longest-lived entry has expired.
+    private static final String EXTEND_BUCKET_EXPIRY = """
+            if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[3]) then
+                redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            end
+            """;
+
+    private static final String SKIP_LIVE_ENTRY = """
+            local current = redis.call('HGET', KEYS[1], ARGV[1])
+            if current and deadline(current) > tonumber(ARGV[4]) then
+                return 0
+            end
+            """;
+
+    static final RedisScript<Long> SET_WITH_FIELD_EXPIRY = RedisScript.of("""
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('HPEXPIRE', KEYS[1], ARGV[3], 'FIELDS', 1, ARGV[1])
+            """ + EXTEND_BUCKET_EXPIRY + """
+            return 1
+            """, Long.class);
+
+    static final RedisScript<Long> SET_IF_ABSENT_WITH_FIELD_EXPIRY = RedisScript.of(DEADLINE + SKIP_LIVE_ENTRY + """
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('HPEXPIRE', KEYS[1], ARGV[3], 'FIELDS', 1, ARGV[1])
+            """ + EXTEND_BUCKET_EXPIRY + """
+            return 1
+            """, Long.class);
+
+    static final RedisScript<Long> SET_WITH_DEADLINE = RedisScript.of("""
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            """ + EXTEND_BUCKET_EXPIRY + """
+            return 1
+            """, Long.class);
+
+    static final RedisScript<Long> SET_IF_ABSENT_WITH_DEADLINE = RedisScript.of(DEADLINE + SKIP_LIVE_ENTRY + """
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            """ + EXTEND_BUCKET_EXPIRY + """
+            return 1
+            """, Long.class);
+
+    // ARGV[1] is the current time, the remaining arguments are fields that were read expired; a field rewritten since
+    // then has a later deadline and stays.
+    static final RedisScript<Long> DELETE_EXPIRED = RedisScript.of(DEADLINE + """
+            local removed = 0
+            for i = 2, #ARGV do
+                local current = redis.call('HGET', KEYS[1], ARGV[i])
+                if current and deadline(current) <= tonumber(ARGV[1]) then
+                    removed = removed + redis.call('HDEL', KEYS[1], ARGV[i])
+                end
+            end
+            return removed
+            """, Long.class);
+
+    // ARGV[1] is the current time here; removes every entry of the bucket whose deadline has passed.
+    static final RedisScript<Long> PURGE_EXPIRED = RedisScript.of(DEADLINE + """
+            local entries = redis.call('HGETALL', KEYS[1])
+            local removed = 0
+            for i = 1, #entries, 2 do
+                if deadline(entries[i + 1]) <= tonumber(ARGV[1]) then
+                    redis.call('HDEL', KEYS[1], entries[i])
+                    removed = removed + 1
+                end
+            end
+            return removed
+            """, Long.class);
+
+    private RedisBucketScripts() {
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.github.mehrdadfalahati.redisutills.serializer.key.KeyStrategyRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Collection;
+
+final class RedisBytes {
+
+    private RedisBytes() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static byte[] serialize(RedisSerializer<?> serializer, Object value) {
+        return ((RedisSerializer<Object>) serializer).serialize(value);
+    }
+
+    static byte[][] serializeAll(RedisSerializer<?> serializer, Collection<?> values) {
+        return values.stream()
+                .map(value -> serialize(serializer, value))
+                .toArray(byte[][]::new);
+    }
+
+    static String keyPattern(RedisSerializer<?> keySerializer, String pattern) {
+        return keySerializer instanceof KeyStrategyRedisSerializer strategy ? strategy.toPattern(pattern) : pattern;
+    }
+
+    static byte[] keyPrefix(RedisSerializer<?> keySerializer, String prefix) {
+        return keySerializer instanceof KeyStrategyRedisSerializer strategy
+                ? strategy.toRawPrefix(prefix)
+                : serialize(keySerializer, prefix);
+    }
+}
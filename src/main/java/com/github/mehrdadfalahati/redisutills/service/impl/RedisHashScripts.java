@@ -0,0 +1,104 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import org.springframework.data.redis.core.script.RedisScript;
+
+final class RedisHashScripts {
+
+    /**
+     * Prefix of the sibling field that holds the deadline of a field on servers without hash field expiry. No codec
+     * output starts with it, so it cannot collide with a serialized field name.
+     */
+    static final String EXPIRES_AT_PREFIX = "__expires_at:";
+
+    private static final String EXPIRES_AT = "local EXPIRES_AT = '" + EXPIRES_AT_PREFIX + "'\n";
+
+    static final RedisScript<Long> PUT_WITH_EXPIRY = RedisScript.of("""
+            local written = redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return written
+            """, Long.class);
+
+    static final RedisScript<Long> PUT_IF_ABSENT_WITH_EXPIRY = RedisScript.of("""
+            local written = redis.call('HSETNX', KEYS[1], ARGV[1], ARGV[2])
+            if written == 1 then
+                redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            end
+            return written
+            """, Long.class);
+
+    static final RedisScript<Long> REPLACE_FIELDS_WITH_EXPIRY = RedisScript.of("""
+            redis.call('DEL', KEYS[1])
+            if #ARGV > 1 then
+                redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+                redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    static final RedisScript<Long> PUT_FIELDS_IF_ABSENT_WITH_EXPIRY = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 1 or #ARGV < 2 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // ARGV[1] is the number of field/value pairs that follow; any arguments after them are fields to remove.
+    static final RedisScript<Long> UPDATE_FIELDS = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return 0
+            end
+            local lastPair = 1 + tonumber(ARGV[1]) * 2
+            if lastPair > 1 then
+                redis.call('HSET', KEYS[1], unpack(ARGV, 2, lastPair))
+            end
+            if #ARGV > lastPair then
+                redis.call('HDEL', KEYS[1], unpack(ARGV, lastPair + 1))
+            end
+            return 1
+            """, Long.class);
+
+    static final RedisScript<Long> PUT_FIELD_WITH_FIELD_EXPIRY = RedisScript.of("""
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('HPEXPIRE', KEYS[1], ARGV[3], 'FIELDS', 1, ARGV[1])
+            return 1
+            """, Long.class);
+
+    // ARGV[4] is the deadline in epoch milliseconds. A hash created here expires with its longest-lived field, while
+    // a hash that never expired keeps doing so.
+    static final RedisScript<Long> PUT_FIELD_WITH_DEADLINE = RedisScript.of(EXPIRES_AT + """
+            local created = redis.call('EXISTS', KEYS[1]) == 0
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2], EXPIRES_AT .. ARGV[1], ARGV[4])
+            local ttl = redis.call('PTTL', KEYS[1])
+            if created or (ttl > 0 and ttl < tonumber(ARGV[3])) then
+                redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            end
+            return 1
+            """, Long.class);
+
+    // ARGV[1] is the current time in epoch milliseconds, the remaining arguments are fields to check.
+    static final RedisScript<Long> DELETE_EXPIRED_FIELDS = RedisScript.of(EXPIRES_AT + """
+            local removed = 0
+            for i = 2, #ARGV do
+                local deadline = redis.call('HGET', KEYS[1], EXPIRES_AT .. ARGV[i])
+                if deadline and tonumber(deadline) <= tonumber(ARGV[1]) then
+                    redis.call('HDEL', KEYS[1], ARGV[i], EXPIRES_AT .. ARGV[i])
+                    removed = removed + 1
+                end
+            end
+            return removed
+            """, Long.class);
+
+    static final RedisScript<Long> DELETE_FIELDS_WITH_DEADLINE = RedisScript.of(EXPIRES_AT + """
+            local removed = 0
+            for i = 1, #ARGV do
+                removed = removed + redis.call('HDEL', KEYS[1], ARGV[i])
+                redis.call('HDEL', KEYS[1], EXPIRES_AT .. ARGV[i])
+            end
+            return removed
+            """, Long.class);
+
+    private RedisHashScripts() {
+    }
+}
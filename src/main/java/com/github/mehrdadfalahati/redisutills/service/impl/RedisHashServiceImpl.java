@@ -1,41 +1,143 @@
 package com.github.mehrdadfalahati.redisutills.service.impl;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
 import com.github.mehrdadfalahati.redisutills.service.RedisDto;
-import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import com.github.mehrdadfalahati.redisutills.service.RedisHashService;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.output.IntegerOutput;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Stores each value in a hash under a field named after its key. {@code putField} and friends use the hash as a
+ * container of individually expiring fields: through {@code HSETEX} on Redis 8, {@code HPEXPIRE} on Redis 7.4, and on
+ * older servers a sibling field holding the deadline, which reads check and clean up lazily.
+ */
 @Component("redisHashService")
 @RequiredArgsConstructor
-public class RedisHashServiceImpl<K, V> implements RedisService<K, V> {
+public class RedisHashServiceImpl<K, V> implements RedisHashService<K, V> {
+
+    private static final RedisSerializer<Long> SCRIPT_RESULT_SERIALIZER = new GenericToStringSerializer<>(Long.class);
+    private static final byte[] EXPIRES_AT_PREFIX = RedisHashScripts.EXPIRES_AT_PREFIX.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PX = "PX".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FIELDS = "FIELDS".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ONE = "1".getBytes(StandardCharsets.UTF_8);
 
     private final RedisTemplate<K, V> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final RedisValueReader redisValueReader;
+    private final RedisInvalidationPublisher invalidationPublisher;
+    private final SingleFlightLoader singleFlightLoader;
+    private final RedisKeyDeleter keyDeleter;
+    private final RedisSlotGrouping slotGrouping;
+    private volatile RedisServerVersion serverVersion;
 
     @Override
     public void setIfAbsent(RedisDto<K> redisDto, V value) {
-        redisTemplate.expire(redisDto.key(), redisDto.timeout(), redisDto.timeUnit());
-        getOpsForHash().putIfAbsent(redisDto.key(), redisDto.key(), value);
+        putWithExpiry(RedisHashScripts.PUT_IF_ABSENT_WITH_EXPIRY, redisDto, value);
     }
 
     @Override
     public void set(RedisDto<K> redisDto, V value) {
-        redisTemplate.expire(redisDto.key(), redisDto.timeout(), redisDto.timeUnit());
-        getOpsForHash().put(redisDto.key(), redisDto.key(), value);
+        putWithExpiry(RedisHashScripts.PUT_WITH_EXPIRY, redisDto, value);
+    }
+
+    @Override
+    public void setAll(Map<RedisDto<K>, V> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <KK, VV> Object execute(RedisOperations<KK, VV> operations) throws DataAccessException {
+                HashOperations<K, Object, Object> opsForHash = getOpsForHash(operations);
+                values.forEach((redisDto, value) -> {
+                    opsForHash.put(redisDto.key(), redisDto.key(), value);
+                    operations.expire(castKey(redisDto.key()), redisDto.timeout(), redisDto.timeUnit());
+                });
+                return null;
+            }
+        });
+        invalidationPublisher.publishAll(values.keySet().stream().map(RedisDto::key).toList());
     }
 
     @Override
     public V get(K key, TypeReference<V> typeReference) {
-        return objectMapper.convertValue(getOpsForHash().get(key, key), typeReference);
+        byte[] rawKey = RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+        byte[] rawHashKey = RedisBytes.serialize(redisTemplate.getHashKeySerializer(), key);
+        byte[] rawValue = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.hashCommands().hGet(rawKey, rawHashKey));
+        return redisValueReader.read(rawValue, typeReference);
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys, TypeReference<V> typeReference) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        List<K> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = RedisBytes.serializeAll(redisTemplate.getKeySerializer(), keyList);
+        byte[][] rawHashKeys = RedisBytes.serializeAll(redisTemplate.getHashKeySerializer(), keyList);
+        List<Object> rawValues = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < rawKeys.length; i++) {
+                connection.hashCommands().hGet(rawKeys[i], rawHashKeys[i]);
+            }
+            return null;
+        }, RedisSerializer.byteArray());
+        Map<K, V> result = new LinkedHashMap<>();
+        for (int i = 0; i < keyList.size(); i++) {
+            byte[] rawValue = (byte[]) rawValues.get(i);
+            if (rawValue != null) {
+                result.put(keyList.get(i), redisValueReader.read(rawValue, typeReference));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public V getOrLoad(RedisDto<K> redisDto, TypeReference<V> typeReference, Supplier<V> loader) {
+        return singleFlightLoader.getOrLoad(this, redisDto, typeReference, loader);
     }
 
     @Override
     public void delete(K key) {
-        redisTemplate.delete(key);
+        keyDeleter.delete(key);
+    }
+
+    @Override
+    public long deleteAll(Collection<K> keys) {
+        return keyDeleter.deleteAll(keys);
+    }
+
+    @Override
+    public long deleteByPattern(String pattern) {
+        return keyDeleter.deleteByPattern(pattern);
     }
 
     @Override
@@ -43,7 +145,204 @@ public class RedisHashServiceImpl<K, V> implements RedisService<K, V> {
         return redisTemplate.hasKey(key);
     }
 
+    @Override
+    public BitSet hasKeys(List<K> keys) {
+        return RedisKeyExistence.hasKeys(redisTemplate, keys);
+    }
+
+    @Override
+    public long countExisting(Collection<K> keys) {
+        return RedisKeyExistence.countExisting(redisTemplate, slotGrouping, keys);
+    }
+
+    @Override
+    public Long getExpire(K key, TimeUnit timeUnit) {
+        return redisTemplate.getExpire(key, timeUnit);
+    }
+
+    @Override
+    public Stream<Map.Entry<K, V>> scan(String pattern, int batchSize, TypeReference<V> typeReference) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisBytes.keyPattern(redisTemplate.getKeySerializer(), pattern))
+                .count(batchSize)
+                .build();
+        Cursor<K> keys = redisTemplate.scan(options);
+        return RedisScanStreams.batched(keys, batchSize, batch -> getAll(batch, typeReference).entrySet());
+    }
+
+    @Override
+    public void putField(K key, Object field, V value, Duration ttl) {
+        byte[] rawField = RedisBytes.serialize(redisTemplate.getHashKeySerializer(), field);
+        byte[] rawValue = RedisBytes.serialize(redisTemplate.getHashValueSerializer(), value);
+        long ttlMillis = ttl.toMillis();
+        RedisServerVersion version = serverVersion();
+        if (version.isAtLeast(8, 0)) {
+            byte[] rawKey = RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+            byte[][] args = {rawKey, PX, millis(ttlMillis), FIELDS, ONE, rawField, rawValue};
+            // Lettuce reads replies of commands it does not know as bulk strings, so it needs the integer output here
+            redisTemplate.execute((RedisCallback<Object>) connection -> connection instanceof LettuceConnection lettuce
+                    ? lettuce.execute("HSETEX", new IntegerOutput<>(ByteArrayCodec.INSTANCE), args)
+                    : connection.execute("HSETEX", args), true);
+        } else if (version.isAtLeast(7, 4)) {
+            executeScript(RedisHashScripts.PUT_FIELD_WITH_FIELD_EXPIRY, key, rawField, rawValue, millis(ttlMillis));
+        } else {
+            executeScript(RedisHashScripts.PUT_FIELD_WITH_DEADLINE, key, rawField, rawValue, millis(ttlMillis),
+                    millis(System.currentTimeMillis() + ttlMillis));
+        }
+        invalidationPublisher.publish(key);
+    }
+
+    @Override
+    public V getField(K key, Object field, TypeReference<V> typeReference) {
+        return getFields(key, List.of(field), typeReference).get(field);
+    }
+
+    @Override
+    public <F> Map<F, V> getFields(K key, Collection<F> fields, TypeReference<V> typeReference) {
+        if (fields.isEmpty()) {
+            return Map.of();
+        }
+        List<F> fieldList = new ArrayList<>(fields);
+        byte[] rawKey = RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+        byte[][] rawFields = RedisBytes.serializeAll(redisTemplate.getHashKeySerializer(), fieldList);
+        boolean deadlines = !serverVersion().isAtLeast(7, 4);
+        byte[][] requestedFields = deadlines ? withExpiresAtFields(rawFields) : rawFields;
+        List<byte[]> rawValues = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.hashCommands().hMGet(rawKey, requestedFields));
+        long now = System.currentTimeMillis();
+        Map<F, V> result = new LinkedHashMap<>();
+        List<byte[]> expiredFields = new ArrayList<>();
+        for (int i = 0; i < fieldList.size(); i++) {
+            byte[] rawValue = rawValues.get(i);
+            if (rawValue == null) {
+                continue;
+            }
+            if (deadlines && isExpired(rawValues.get(fieldList.size() + i), now)) {
+                expiredFields.add(rawFields[i]);
+            } else {
+                result.put(fieldList.get(i), redisValueReader.read(rawValue, typeReference));
+            }
+        }
+        if (!expiredFields.isEmpty()) {
+            expiredFields.add(0, millis(now));
+            executeScript(RedisHashScripts.DELETE_EXPIRED_FIELDS, key, expiredFields.toArray(byte[][]::new));
+        }
+        return result;
+    }
+
+    @Override
+    public long deleteFields(K key, Collection<?> fields) {
+        if (fields.isEmpty()) {
+            return 0;
+        }
+        byte[][] rawFields = RedisBytes.serializeAll(redisTemplate.getHashKeySerializer(), fields);
+        Long removed;
+        if (serverVersion().isAtLeast(7, 4)) {
+            byte[] rawKey = RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+            removed = redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.hashCommands().hDel(rawKey, rawFields));
+        } else {
+            removed = executeScript(RedisHashScripts.DELETE_FIELDS_WITH_DEADLINE, key, rawFields);
+        }
+        invalidationPublisher.publish(key);
+        return removed == null ? 0 : removed;
+    }
+
+    @Override
+    public Stream<Map.Entry<Object, V>> scanHash(K key, int batchSize, TypeReference<V> typeReference) {
+        byte[] rawKey = RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+        ScanOptions options = ScanOptions.scanOptions().count(batchSize).build();
+        Cursor<Map.Entry<byte[], byte[]>> entries = redisTemplate.executeWithStickyConnection(connection ->
+                connection.hashCommands().hScan(rawKey, options));
+        boolean deadlines = !serverVersion().isAtLeast(7, 4);
+        return RedisScanStreams.batched(entries, batchSize, batch -> readFields(rawKey, batch, deadlines, typeReference));
+    }
+
+    private List<Map.Entry<Object, V>> readFields(byte[] rawKey, List<Map.Entry<byte[], byte[]>> batch, boolean deadlines,
+                                                  TypeReference<V> typeReference) {
+        List<Map.Entry<byte[], byte[]>> fields = batch.stream()
+                .filter(entry -> !deadlines || !startsWith(entry.getKey(), EXPIRES_AT_PREFIX))
+                .toList();
+        List<byte[]> fieldDeadlines = null;
+        if (deadlines && !fields.isEmpty()) {
+            byte[][] expiresAtFields = fields.stream()
+                    .map(entry -> expiresAtField(entry.getKey()))
+                    .toArray(byte[][]::new);
+            fieldDeadlines = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.hashCommands().hMGet(rawKey, expiresAtFields));
+        }
+        long now = System.currentTimeMillis();
+        List<Map.Entry<Object, V>> result = new ArrayList<>(fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            if (fieldDeadlines == null || !isExpired(fieldDeadlines.get(i), now)) {
+                Map.Entry<byte[], byte[]> field = fields.get(i);
+                result.add(Map.entry(redisTemplate.getHashKeySerializer().deserialize(field.getKey()),
+                        redisValueReader.read(field.getValue(), typeReference)));
+            }
+        }
+        return result;
+    }
+
+    private Long executeScript(RedisScript<Long> script, K key, byte[]... args) {
+        return redisTemplate.execute(script, RedisSerializer.byteArray(), SCRIPT_RESULT_SERIALIZER, List.of(key),
+                (Object[]) args);
+    }
+
+    private RedisServerVersion serverVersion() {
+        RedisServerVersion version = serverVersion;
+        if (version == null) {
+            version = RedisServerVersion.detect(redisTemplate);
+            serverVersion = version;
+        }
+        return version;
+    }
+
+    private static byte[][] withExpiresAtFields(byte[][] rawFields) {
+        byte[][] result = Arrays.copyOf(rawFields, rawFields.length * 2);
+        for (int i = 0; i < rawFields.length; i++) {
+            result[rawFields.length + i] = expiresAtField(rawFields[i]);
+        }
+        return result;
+    }
+
+    private static byte[] expiresAtField(byte[] rawField) {
+        byte[] expiresAtField = Arrays.copyOf(EXPIRES_AT_PREFIX, EXPIRES_AT_PREFIX.length + rawField.length);
+        System.arraycopy(rawField, 0, expiresAtField, EXPIRES_AT_PREFIX.length, rawField.length);
+        return expiresAtField;
+    }
+
+    private static boolean isExpired(byte[] deadline, long now) {
+        return deadline != null && Long.parseLong(new String(deadline, StandardCharsets.UTF_8)) <= now;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        return bytes.length >= prefix.length && Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static byte[] millis(long millis) {
+        return String.valueOf(millis).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void putWithExpiry(RedisScript<Long> script, RedisDto<K> redisDto, V value) {
+        long timeoutMillis = redisDto.timeUnit().toMillis(redisDto.timeout());
+        redisTemplate.execute(script, RedisSerializer.byteArray(), SCRIPT_RESULT_SERIALIZER, List.of(redisDto.key()),
+                RedisBytes.serialize(redisTemplate.getHashKeySerializer(), redisDto.key()),
+                RedisBytes.serialize(redisTemplate.getHashValueSerializer(), value),
+                String.valueOf(timeoutMillis).getBytes(StandardCharsets.UTF_8));
+        invalidationPublisher.publish(redisDto.key());
+    }
+
     private HashOperations<K, Object, Object> getOpsForHash() {
         return redisTemplate.opsForHash();
     }
+
+    @SuppressWarnings("unchecked")
+    private HashOperations<K, Object, Object> getOpsForHash(RedisOperations<?, ?> operations) {
+        return (HashOperations<K, Object, Object>) (HashOperations<?, ?, ?>) operations.opsForHash();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <KK> KK castKey(Object key) {
+        return (KK) key;
+    }
 }
@@ -0,0 +1,91 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Deletes whole keys and publishes their invalidation. With {@code redis-utils.delete.unlink} the keys are removed
+ * with {@code UNLINK}, which frees large values on a background thread instead of blocking the server like {@code DEL}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisKeyDeleter {
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+    private final RedisInvalidationPublisher invalidationPublisher;
+    private final RedisUtilsProperties properties;
+    private final RedisSlotGrouping slotGrouping;
+
+    public boolean delete(Object key) {
+        byte[] rawKey = RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+        Long removed = redisTemplate.execute((RedisCallback<Long>) connection -> unlink()
+                ? connection.keyCommands().unlink(rawKey)
+                : connection.keyCommands().del(rawKey));
+        invalidationPublisher.publish(key);
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * Removes {@code keys} with one pipelined command per {@code redis-utils.delete.batch-size} keys of the same
+     * {@link RedisSlotGrouping group}.
+     *
+     * @return the number of keys that existed
+     */
+    public long deleteAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        byte[][] rawKeys = RedisBytes.serializeAll(redisTemplate.getKeySerializer(), keys);
+        boolean unlink = unlink();
+        List<RedisSlotGrouping.KeyGroup> removed = slotGrouping.executePipelined(redisTemplate, rawKeys,
+                properties.getDelete().getBatchSize(), (connection, positions) -> {
+                    byte[][] batch = RedisSlotGrouping.keysAt(rawKeys, positions);
+                    if (unlink) {
+                        connection.keyCommands().unlink(batch);
+                    } else {
+                        connection.keyCommands().del(batch);
+                    }
+                });
+        invalidationPublisher.publishAll(keys);
+        return removed.stream().mapToLong(group -> (Long) group.result()).sum();
+    }
+
+    /**
+     * Removes the keys matching {@code pattern} while walking them with {@code SCAN}, one batch at a time.
+     *
+     * @return the number of removed keys
+     */
+    public long deleteByPattern(String pattern) {
+        int batchSize = properties.getDelete().getBatchSize();
+        long removed = 0;
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisBytes.keyPattern(redisTemplate.getKeySerializer(), pattern))
+                .count(batchSize)
+                .build();
+        try (Cursor<Object> keys = redisTemplate.scan(options)) {
+            List<Object> batch = new ArrayList<>(batchSize);
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == batchSize || !keys.hasNext()) {
+                    removed += deleteAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+        return removed;
+    }
+
+    private boolean unlink() {
+        return properties.getDelete().isUnlink();
+    }
+}
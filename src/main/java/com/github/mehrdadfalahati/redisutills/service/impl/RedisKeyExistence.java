@@ -0,0 +1,53 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+final class RedisKeyExistence {
+
+    private RedisKeyExistence() {
+    }
+
+    /**
+     * @return a bit per key, in input order, set when the key exists; all {@code EXISTS} calls share one pipeline
+     */
+    static BitSet hasKeys(RedisTemplate<?, ?> redisTemplate, List<?> keys) {
+        BitSet existing = new BitSet(keys.size());
+        if (keys.isEmpty()) {
+            return existing;
+        }
+        byte[][] rawKeys = RedisBytes.serializeAll(redisTemplate.getKeySerializer(), keys);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] rawKey : rawKeys) {
+                connection.keyCommands().exists(rawKey);
+            }
+            return null;
+        });
+        for (int i = 0; i < results.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                existing.set(i);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * @return the number of existing keys, counted by one multi-key {@code EXISTS} per {@link RedisSlotGrouping group};
+     * a repeated key counts each time
+     */
+    static long countExisting(RedisTemplate<?, ?> redisTemplate, RedisSlotGrouping slotGrouping, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        byte[][] rawKeys = RedisBytes.serializeAll(redisTemplate.getKeySerializer(), keys);
+        return slotGrouping.executePipelined(redisTemplate, rawKeys, Integer.MAX_VALUE, (connection, positions) ->
+                        connection.keyCommands().exists(RedisSlotGrouping.keysAt(rawKeys, positions)))
+                .stream()
+                .mapToLong(group -> (Long) group.result())
+                .sum();
+    }
+}
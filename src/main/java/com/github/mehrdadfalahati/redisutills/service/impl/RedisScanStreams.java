@@ -0,0 +1,44 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import org.springframework.data.redis.core.Cursor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+final class RedisScanStreams {
+
+    private RedisScanStreams() {
+    }
+
+    /**
+     * Streams what {@code loader} returns for each batch of {@code batchSize} cursor elements. A batch is only read
+     * from the cursor and loaded once the stream reaches it. Closing the stream closes the cursor.
+     */
+    static <T, R> Stream<R> batched(Cursor<T> cursor, int batchSize, Function<List<T>, ? extends Collection<R>> loader) {
+        Iterator<List<T>> batches = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                List<T> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && cursor.hasNext()) {
+                    batch.add(cursor.next());
+                }
+                return batch;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(batch -> loader.apply(batch).stream())
+                .onClose(cursor::close);
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import io.lettuce.core.RedisNoScriptException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Runs scripts on raw connections with {@code EVALSHA}, falling back to {@code EVAL} when the server does not know
+ * the script yet. {@code EVAL} also caches the script, so later calls get by with the digest again.
+ */
+final class RedisScriptCalls {
+
+    private RedisScriptCalls() {
+    }
+
+    static Object eval(RedisConnection connection, RedisScript<?> script, ReturnType returnType, int numKeys,
+                       byte[]... keysAndArgs) {
+        try {
+            return connection.scriptingCommands().evalSha(script.getSha1(), returnType, numKeys, keysAndArgs);
+        } catch (RuntimeException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            return connection.scriptingCommands().eval(scriptBytes(script), returnType, numKeys, keysAndArgs);
+        }
+    }
+
+    /**
+     * Runs {@code script} once per entry of {@code keysAndArgs} in one pipeline. When the server does not know the
+     * script the whole pipeline is sent again with {@code EVAL}, so the script must be safe to repeat.
+     */
+    static List<Object> evalPipelined(RedisTemplate<?, ?> redisTemplate, RedisScript<?> script, ReturnType returnType,
+                                      int numKeys, List<byte[][]> keysAndArgs) {
+        try {
+            return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                keysAndArgs.forEach(call ->
+                        connection.scriptingCommands().evalSha(script.getSha1(), returnType, numKeys, call));
+                return null;
+            }, RedisSerializer.byteArray());
+        } catch (RuntimeException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            byte[] scriptBytes = scriptBytes(script);
+            return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                keysAndArgs.forEach(call -> connection.scriptingCommands().eval(scriptBytes, returnType, numKeys, call));
+                return null;
+            }, RedisSerializer.byteArray());
+        }
+    }
+
+    static boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RedisNoScriptException
+                    || cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+            if (cause instanceof RedisPipelineException pipeline
+                    && pipeline.getPipelineResult().stream()
+                    .anyMatch(result -> result instanceof Throwable failure && isNoScript(failure))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] scriptBytes(RedisScript<?> script) {
+        return script.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Properties;
+
+/**
+ * The {@code redis_version} reported by {@code INFO server}, used to pick commands that only newer servers know.
+ */
+record RedisServerVersion(int major, int minor) {
+
+    static RedisServerVersion detect(RedisTemplate<?, ?> redisTemplate) {
+        Properties info = redisTemplate.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("server"));
+        return parse(info.getProperty("redis_version"));
+    }
+
+    static RedisServerVersion parse(String version) {
+        String[] parts = version.split("\\.");
+        return new RedisServerVersion(Integer.parseInt(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 0);
+    }
+
+    boolean isAtLeast(int major, int minor) {
+        return this.major > major || this.major == major && this.minor >= minor;
+    }
+}
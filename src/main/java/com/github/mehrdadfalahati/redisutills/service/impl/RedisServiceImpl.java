@@ -1,39 +1,162 @@
 package com.github.mehrdadfalahati.redisutills.service.impl;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.service.ExpiringValue;
 import com.github.mehrdadfalahati.redisutills.service.RedisDto;
 import com.github.mehrdadfalahati.redisutills.service.RedisService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
 @Component("redisService")
 @RequiredArgsConstructor
 public class RedisServiceImpl<K, V> implements RedisService<K, V> {
 
     private final RedisTemplate<K, V> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final RedisValueReader redisValueReader;
+    private final RedisInvalidationPublisher invalidationPublisher;
+    private final SingleFlightLoader singleFlightLoader;
+    private final RedisKeyDeleter keyDeleter;
+    private final RedisSlotGrouping slotGrouping;
 
     @Override
     public void setIfAbsent(RedisDto<K> redisDto, V value) {
         getOpsForValue().setIfAbsent(redisDto.key(), value, redisDto.timeout(), redisDto.timeUnit());
+        invalidationPublisher.publish(redisDto.key());
     }
 
     @Override
     public void set(RedisDto<K> redisDto, V value) {
         getOpsForValue().set(redisDto.key(), value, redisDto.timeout(), redisDto.timeUnit());
+        invalidationPublisher.publish(redisDto.key());
+    }
+
+    /**
+     * Writes every value with its own {@code SET}, pipelined along the {@link RedisSlotGrouping slot groups}.
+     */
+    @Override
+    public void setAll(Map<RedisDto<K>, V> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<RedisDto<K>, V>> entries = new ArrayList<>(values.entrySet());
+        List<K> keys = entries.stream().map(entry -> entry.getKey().key()).toList();
+        byte[][] rawKeys = RedisBytes.serializeAll(redisTemplate.getKeySerializer(), keys);
+        slotGrouping.executePipelined(redisTemplate, rawKeys, 1, (connection, positions) -> {
+            RedisDto<K> redisDto = entries.get(positions[0]).getKey();
+            byte[] rawValue = RedisBytes.serialize(redisTemplate.getValueSerializer(), entries.get(positions[0]).getValue());
+            connection.stringCommands().set(rawKeys[positions[0]], rawValue,
+                    Expiration.from(redisDto.timeout(), redisDto.timeUnit()), RedisStringCommands.SetOption.upsert());
+        });
+        invalidationPublisher.publishAll(keys);
     }
 
     @Override
     public V get(K key, TypeReference<V> typeReference) {
-        return objectMapper.convertValue(getOpsForValue().get(key), typeReference);
+        byte[] rawKey = RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+        byte[] rawValue = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(rawKey));
+        return redisValueReader.read(rawValue, typeReference);
+    }
+
+    /**
+     * Reads with one {@code MGET} per {@link RedisSlotGrouping group} and returns the values in input order.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<K, V> getAll(Collection<K> keys, TypeReference<V> typeReference) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        List<K> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = RedisBytes.serializeAll(redisTemplate.getKeySerializer(), keyList);
+        byte[][] rawValues = new byte[rawKeys.length][];
+        slotGrouping.executePipelined(redisTemplate, rawKeys, Integer.MAX_VALUE, (connection, positions) ->
+                        connection.stringCommands().mGet(RedisSlotGrouping.keysAt(rawKeys, positions)))
+                .forEach(group -> {
+                    List<byte[]> groupValues = (List<byte[]>) group.result();
+                    for (int i = 0; i < group.positions().length; i++) {
+                        rawValues[group.positions()[i]] = groupValues.get(i);
+                    }
+                });
+        Map<K, V> result = new LinkedHashMap<>();
+        for (int i = 0; i < keyList.size(); i++) {
+            byte[] rawValue = rawValues[i];
+            if (rawValue != null) {
+                result.put(keyList.get(i), redisValueReader.read(rawValue, typeReference));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads every value with a {@code GET} and its expiry with a {@code PTTL}, all in one pipeline.
+     */
+    @Override
+    public Map<K, ExpiringValue<V>> getAllWithExpire(Collection<K> keys, TypeReference<V> typeReference) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        List<K> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = RedisBytes.serializeAll(redisTemplate.getKeySerializer(), keyList);
+        // pipelined on the connection itself, so results come back raw instead of through the template serializers
+        List<Object> results = redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            for (byte[] rawKey : rawKeys) {
+                connection.stringCommands().get(rawKey);
+                connection.keyCommands().pTtl(rawKey);
+            }
+            return connection.closePipeline();
+        });
+        Map<K, ExpiringValue<V>> result = new LinkedHashMap<>();
+        for (int i = 0; i < keyList.size(); i++) {
+            byte[] rawValue = (byte[]) results.get(2 * i);
+            Long remainingMillis = (Long) results.get(2 * i + 1);
+            // the key may expire between both commands
+            if (rawValue != null && remainingMillis != null && remainingMillis != -2) {
+                result.put(keyList.get(i),
+                        new ExpiringValue<>(redisValueReader.read(rawValue, typeReference), remainingMillis));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public V getOrLoad(RedisDto<K> redisDto, TypeReference<V> typeReference, Supplier<V> loader) {
+        return singleFlightLoader.getOrLoad(this, redisDto, typeReference, loader);
     }
 
     @Override
     public void delete(K key) {
-        redisTemplate.delete(key);
+        keyDeleter.delete(key);
+    }
+
+    @Override
+    public long deleteAll(Collection<K> keys) {
+        return keyDeleter.deleteAll(keys);
+    }
+
+    @Override
+    public long deleteByPattern(String pattern) {
+        return keyDeleter.deleteByPattern(pattern);
     }
 
     @Override
@@ -41,7 +164,32 @@ public class RedisServiceImpl<K, V> implements RedisService<K, V> {
         return redisTemplate.hasKey(key);
     }
 
+    @Override
+    public BitSet hasKeys(List<K> keys) {
+        return RedisKeyExistence.hasKeys(redisTemplate, keys);
+    }
+
+    @Override
+    public long countExisting(Collection<K> keys) {
+        return RedisKeyExistence.countExisting(redisTemplate, slotGrouping, keys);
+    }
+
+    @Override
+    public Long getExpire(K key, TimeUnit timeUnit) {
+        return redisTemplate.getExpire(key, timeUnit);
+    }
+
+    @Override
+    public Stream<Map.Entry<K, V>> scan(String pattern, int batchSize, TypeReference<V> typeReference) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisBytes.keyPattern(redisTemplate.getKeySerializer(), pattern))
+                .count(batchSize)
+                .build();
+        Cursor<K> keys = redisTemplate.scan(options);
+        return RedisScanStreams.batched(keys, batchSize, batch -> getAll(batch, typeReference).entrySet());
+    }
+
     private ValueOperations<K, V> getOpsForValue() {
         return redisTemplate.opsForValue();
     }
-}
\ No newline at end of file
+}
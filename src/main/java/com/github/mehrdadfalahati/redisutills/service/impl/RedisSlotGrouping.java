@@ -0,0 +1,205 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.stream.StreamSupport;
+
+/**
+ * Splits the keys of bulk operations into groups that a cluster accepts in one multi-key command. With
+ * {@code redis-utils.cluster.group-by-slot}, or a cluster aware connection factory, keys are grouped by their CRC16
+ * hash slot and the groups are spread over up to {@code redis-utils.cluster.parallelism} pipelines running in
+ * parallel on virtual threads. On a cluster connection each pipeline takes the groups of whole nodes, looked up in the
+ * connection's cached topology; otherwise, as behind a proxy, it takes a contiguous run of slots, which mostly share a
+ * node. Without grouping the keys are only cut into batches and sent in one pipeline.
+ */
+@Component
+public class RedisSlotGrouping {
+
+    private final boolean groupBySlot;
+    private final int parallelism;
+
+    @Autowired
+    public RedisSlotGrouping(RedisConnectionFactory connectionFactory, RedisUtilsProperties properties) {
+        this(properties.getCluster().isGroupBySlot() || isClusterAware(connectionFactory),
+                properties.getCluster().getParallelism());
+    }
+
+    public RedisSlotGrouping(boolean groupBySlot, int parallelism) {
+        this.groupBySlot = groupBySlot;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Calls {@code command} with the positions in {@code rawKeys} of every group's keys; it must issue exactly one
+     * command for them.
+     *
+     * @return the result of each group's command, paired with the positions of its keys in {@code rawKeys}
+     */
+    public List<KeyGroup> executePipelined(RedisTemplate<?, ?> redisTemplate, byte[][] rawKeys, int batchSize,
+                                           BiConsumer<RedisConnection, int[]> command) {
+        List<int[]> groups = groups(rawKeys, batchSize);
+        if (groups.isEmpty()) {
+            return List.of();
+        }
+        List<List<int[]>> lanes = lanes(groups, rawKeys, masters(redisTemplate));
+        if (lanes.size() == 1) {
+            return executePipelined(redisTemplate, lanes.get(0), command);
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<KeyGroup>>> futures = lanes.stream()
+                    .map(lane -> executor.submit(() -> executePipelined(redisTemplate, lane, command)))
+                    .toList();
+            List<KeyGroup> results = new ArrayList<>(groups.size());
+            for (Future<List<KeyGroup>> future : futures) {
+                results.addAll(await(future));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * @return the positions in {@code rawKeys} of each group, at most {@code batchSize} keys per group
+     */
+    List<int[]> groups(byte[][] rawKeys, int batchSize) {
+        List<int[]> groups = new ArrayList<>();
+        if (!groupBySlot) {
+            addBatches(groups, rangeOf(rawKeys.length), batchSize);
+            return groups;
+        }
+        TreeMap<Integer, List<Integer>> positionsBySlot = new TreeMap<>();
+        for (int i = 0; i < rawKeys.length; i++) {
+            int slot = ClusterSlotHashUtil.calculateSlot(rawKeys[i]);
+            positionsBySlot.computeIfAbsent(slot, it -> new ArrayList<>()).add(i);
+        }
+        positionsBySlot.values().forEach(positions ->
+                addBatches(groups, positions.stream().mapToInt(Integer::intValue).toArray(), batchSize));
+        return groups;
+    }
+
+    static byte[][] keysAt(byte[][] rawKeys, int[] positions) {
+        return Arrays.stream(positions).mapToObj(i -> rawKeys[i]).toArray(byte[][]::new);
+    }
+
+    /**
+     * @return the groups of each pipeline: those of one or more whole nodes when the cluster's {@code masters} are
+     * known, otherwise contiguous runs of slots
+     */
+    List<List<int[]>> lanes(List<int[]> groups, byte[][] rawKeys, List<RedisClusterNode> masters) {
+        if (groupBySlot && !masters.isEmpty()) {
+            return lanesByNode(groups, rawKeys, masters);
+        }
+        int laneCount = groupBySlot ? Math.max(1, Math.min(parallelism, groups.size())) : 1;
+        List<List<int[]>> lanes = new ArrayList<>(laneCount);
+        for (int lane = 0; lane < laneCount; lane++) {
+            lanes.add(groups.subList(groups.size() * lane / laneCount, groups.size() * (lane + 1) / laneCount));
+        }
+        return lanes;
+    }
+
+    private List<List<int[]>> lanesByNode(List<int[]> groups, byte[][] rawKeys, List<RedisClusterNode> masters) {
+        List<List<int[]>> groupsByNode = new ArrayList<>(masters.size());
+        masters.forEach(master -> groupsByNode.add(new ArrayList<>()));
+        for (int[] group : groups) {
+            int slot = ClusterSlotHashUtil.calculateSlot(rawKeys[group[0]]);
+            int node = 0;
+            while (node < masters.size() - 1 && !masters.get(node).servesSlot(slot)) {
+                node++;
+            }
+            groupsByNode.get(node).add(group);
+        }
+        groupsByNode.removeIf(List::isEmpty);
+        int laneCount = Math.max(1, Math.min(parallelism, groupsByNode.size()));
+        List<List<int[]>> lanes = new ArrayList<>(laneCount);
+        for (int lane = 0; lane < laneCount; lane++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (int node = 0; node < groupsByNode.size(); node++) {
+            lanes.get(node % laneCount).addAll(groupsByNode.get(node));
+        }
+        return lanes;
+    }
+
+    /**
+     * @return the cluster's masters from the connection's cached topology, or none when not connected to a cluster
+     */
+    private List<RedisClusterNode> masters(RedisTemplate<?, ?> redisTemplate) {
+        if (!groupBySlot) {
+            return List.of();
+        }
+        return redisTemplate.execute((RedisCallback<List<RedisClusterNode>>) connection ->
+                connection instanceof RedisClusterConnection cluster
+                        ? StreamSupport.stream(cluster.clusterGetNodes().spliterator(), false)
+                        .filter(RedisClusterNode::isMaster)
+                        .toList()
+                        : List.of());
+    }
+
+    private static List<KeyGroup> executePipelined(RedisTemplate<?, ?> redisTemplate, List<int[]> groups,
+                                                   BiConsumer<RedisConnection, int[]> command) {
+        // pipelined on the connection itself, so results come back raw instead of through the template serializers
+        List<Object> results = redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+            connection.openPipeline();
+            for (int[] positions : groups) {
+                command.accept(connection, positions);
+            }
+            return connection.closePipeline();
+        });
+        List<KeyGroup> keyGroups = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            keyGroups.add(new KeyGroup(groups.get(i), results.get(i)));
+        }
+        return keyGroups;
+    }
+
+    private static void addBatches(List<int[]> groups, int[] positions, int batchSize) {
+        for (int from = 0; from < positions.length; from += batchSize) {
+            groups.add(Arrays.copyOfRange(positions, from, Math.min(from + batchSize, positions.length)));
+        }
+    }
+
+    private static int[] rangeOf(int length) {
+        int[] positions = new int[length];
+        Arrays.setAll(positions, i -> i);
+        return positions;
+    }
+
+    static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a pipeline", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static boolean isClusterAware(RedisConnectionFactory connectionFactory) {
+        return connectionFactory instanceof LettuceConnectionFactory lettuce && lettuce.isClusterAware();
+    }
+
+    public record KeyGroup(int[] positions, Object result) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+public record RefreshAheadEntry<V>(V value, long delta, long expiresAt) {
+}
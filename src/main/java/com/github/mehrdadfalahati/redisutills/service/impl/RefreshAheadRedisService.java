@@ -0,0 +1,218 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.core.ResolvableType;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Refresh-ahead on top of {@link RedisService} using probabilistic early expiration (XFetch). Every value is stored
+ * together with the time it took to compute ({@code delta}) and its expiry. {@link #getOrLoad} returns the current
+ * value right away and, with a probability that grows as the expiry gets closer, recomputes it in the background:
+ * a refresh is triggered when {@code now - delta * beta * ln(random) >= expiresAt}.
+ * <p>
+ * Values written by the loader carry their measured compute time. The plain {@code set}, {@code setIfAbsent} and
+ * {@code setAll} store a delta of zero, so those entries are only reloaded once they expire; pass the compute time to
+ * {@link #set(RedisDto, Object, Duration)} or {@link #setIfAbsent(RedisDto, Object, Duration)} to refresh them ahead
+ * as well.
+ */
+@Log4j2
+public class RefreshAheadRedisService<K, V> implements RedisService<K, V>, AutoCloseable {
+
+    private final RedisService<K, RefreshAheadEntry<V>> delegate;
+    private final double beta;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Set<K> refreshingKeys = ConcurrentHashMap.newKeySet();
+    private final Map<Type, TypeReference<RefreshAheadEntry<V>>> entryTypes = new ConcurrentHashMap<>();
+
+    public RefreshAheadRedisService(RedisService<K, RefreshAheadEntry<V>> delegate) {
+        this(delegate, 1.0, 2, 100);
+    }
+
+    public RefreshAheadRedisService(RedisService<K, RefreshAheadEntry<V>> delegate, double beta, int refreshThreads,
+                                    int refreshQueueCapacity) {
+        this.delegate = delegate;
+        this.beta = beta;
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(refreshQueueCapacity),
+                Thread.ofPlatform().name("redis-refresh-ahead-", 0).daemon().factory());
+    }
+
+    @Override
+    public void setIfAbsent(RedisDto<K> redisDto, V value) {
+        setIfAbsent(redisDto, value, Duration.ZERO);
+    }
+
+    /**
+     * @param computeTime how long computing {@code value} took, which decides how early it is refreshed
+     */
+    public void setIfAbsent(RedisDto<K> redisDto, V value, Duration computeTime) {
+        delegate.setIfAbsent(redisDto, toEntry(redisDto, value, computeTime.toMillis()));
+    }
+
+    @Override
+    public void set(RedisDto<K> redisDto, V value) {
+        set(redisDto, value, Duration.ZERO);
+    }
+
+    /**
+     * @param computeTime how long computing {@code value} took, which decides how early it is refreshed
+     */
+    public void set(RedisDto<K> redisDto, V value, Duration computeTime) {
+        delegate.set(redisDto, toEntry(redisDto, value, computeTime.toMillis()));
+    }
+
+    @Override
+    public void setAll(Map<RedisDto<K>, V> values) {
+        Map<RedisDto<K>, RefreshAheadEntry<V>> entries = new LinkedHashMap<>();
+        values.forEach((redisDto, value) -> entries.put(redisDto, toEntry(redisDto, value, 0)));
+        delegate.setAll(entries);
+    }
+
+    @Override
+    public V get(K key, TypeReference<V> typeReference) {
+        return valueOf(delegate.get(key, entryType(typeReference)));
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys, TypeReference<V> typeReference) {
+        Map<K, V> result = new LinkedHashMap<>();
+        delegate.getAll(keys, entryType(typeReference)).forEach((key, entry) -> result.put(key, entry.value()));
+        return result;
+    }
+
+    @Override
+    public V getOrLoad(RedisDto<K> redisDto, TypeReference<V> typeReference, Supplier<V> loader) {
+        TypeReference<RefreshAheadEntry<V>> entryType = entryType(typeReference);
+        RefreshAheadEntry<V> entry = delegate.get(redisDto.key(), entryType);
+        if (entry == null) {
+            return valueOf(delegate.getOrLoad(redisDto, entryType, () -> compute(redisDto, loader)));
+        }
+        if (shouldRefresh(entry)) {
+            refreshInBackground(redisDto, loader);
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void delete(K key) {
+        delegate.delete(key);
+    }
+
+    @Override
+    public long deleteAll(Collection<K> keys) {
+        return delegate.deleteAll(keys);
+    }
+
+    @Override
+    public long deleteByPattern(String pattern) {
+        return delegate.deleteByPattern(pattern);
+    }
+
+    @Override
+    public Boolean hasKey(K key) {
+        return delegate.hasKey(key);
+    }
+
+    @Override
+    public BitSet hasKeys(List<K> keys) {
+        return delegate.hasKeys(keys);
+    }
+
+    @Override
+    public long countExisting(Collection<K> keys) {
+        return delegate.countExisting(keys);
+    }
+
+    @Override
+    public Long getExpire(K key, TimeUnit timeUnit) {
+        return delegate.getExpire(key, timeUnit);
+    }
+
+    @Override
+    public Stream<Map.Entry<K, V>> scan(String pattern, int batchSize, TypeReference<V> typeReference) {
+        return delegate.scan(pattern, batchSize, entryType(typeReference))
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().value()));
+    }
+
+    @Override
+    public void close() {
+        refreshExecutor.shutdown();
+    }
+
+    boolean shouldRefresh(RefreshAheadEntry<V> entry) {
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double earlyBy = entry.delta() * beta * -Math.log(random);
+        return System.currentTimeMillis() + earlyBy >= entry.expiresAt();
+    }
+
+    private void refreshInBackground(RedisDto<K> redisDto, Supplier<V> loader) {
+        if (!refreshingKeys.add(redisDto.key())) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    RefreshAheadEntry<V> entry = compute(redisDto, loader);
+                    if (entry != null) {
+                        delegate.set(redisDto, entry);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Could not refresh key {} ahead of expiry", redisDto.key(), e);
+                } finally {
+                    refreshingKeys.remove(redisDto.key());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the refresh queue is full, a later read gets another chance to refresh this key
+            refreshingKeys.remove(redisDto.key());
+        }
+    }
+
+    private RefreshAheadEntry<V> compute(RedisDto<K> redisDto, Supplier<V> loader) {
+        long start = System.nanoTime();
+        V value = loader.get();
+        long delta = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return value == null ? null : toEntry(redisDto, value, delta);
+    }
+
+    private RefreshAheadEntry<V> toEntry(RedisDto<K> redisDto, V value, long delta) {
+        long expiresAt = System.currentTimeMillis() + redisDto.timeUnit().toMillis(redisDto.timeout());
+        return new RefreshAheadEntry<>(value, delta, expiresAt);
+    }
+
+    private V valueOf(RefreshAheadEntry<V> entry) {
+        return entry == null ? null : entry.value();
+    }
+
+    private TypeReference<RefreshAheadEntry<V>> entryType(TypeReference<V> typeReference) {
+        return entryTypes.computeIfAbsent(typeReference.getType(), valueType -> {
+            Type entryType = ResolvableType.forClassWithGenerics(RefreshAheadEntry.class, ResolvableType.forType(valueType))
+                    .getType();
+            return new TypeReference<>() {
+                @Override
+                public Type getType() {
+                    return entryType;
+                }
+            };
+        });
+    }
+}
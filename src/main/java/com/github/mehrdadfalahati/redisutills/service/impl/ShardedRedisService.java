@@ -0,0 +1,239 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Spreads keys over independent redis servers with a {@link ConsistentHashRing} of {@code redis-utils.shard.virtual-nodes}
+ * points per server, so adding a server moves only about {@code 1/n} of the keys. Single-key operations go to the
+ * server owning the key; bulk operations run per server in parallel on virtual threads and keep the input order.
+ */
+public class ShardedRedisService<K, V> implements RedisService<K, V> {
+
+    private final List<RedisService<K, V>> shards;
+    private final ConsistentHashRing<RedisService<K, V>> ring;
+    private final RedisSerializer<?> keySerializer;
+
+    /**
+     * @param shards        services of the servers, by a name that must stay the same when servers are added
+     * @param keySerializer turns keys into the bytes hashed onto the ring
+     */
+    public ShardedRedisService(Map<String, RedisService<K, V>> shards, RedisSerializer<?> keySerializer, int virtualNodes) {
+        this.shards = List.copyOf(shards.values());
+        this.ring = new ConsistentHashRing<>(shards, virtualNodes);
+        this.keySerializer = keySerializer;
+    }
+
+    /**
+     * Builds a {@link RedisServiceImpl} per connection factory, named after its {@code host:port}, whose template uses
+     * the serializers of {@code redisTemplate}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <K, V> ShardedRedisService<K, V> create(List<? extends RedisConnectionFactory> connectionFactories,
+                                                          RedisTemplate<K, V> redisTemplate,
+                                                          RedisValueReader redisValueReader,
+                                                          RedisInvalidationPublisher invalidationPublisher,
+                                                          SingleFlightLoader singleFlightLoader,
+                                                          RedisUtilsProperties properties) {
+        Map<String, RedisService<K, V>> shards = new LinkedHashMap<>();
+        for (int i = 0; i < connectionFactories.size(); i++) {
+            RedisConnectionFactory connectionFactory = connectionFactories.get(i);
+            RedisTemplate<K, V> shardTemplate = shardTemplate(redisTemplate, connectionFactory);
+            RedisSlotGrouping slotGrouping = new RedisSlotGrouping(connectionFactory, properties);
+            RedisKeyDeleter keyDeleter = new RedisKeyDeleter((RedisTemplate) shardTemplate, invalidationPublisher,
+                    properties, slotGrouping);
+            RedisService<K, V> shard = new RedisServiceImpl<>(shardTemplate, redisValueReader, invalidationPublisher,
+                    singleFlightLoader, keyDeleter, slotGrouping);
+            if (shards.putIfAbsent(shardName(connectionFactory, i), shard) != null) {
+                throw new IllegalArgumentException("Two connection factories point to " + shardName(connectionFactory, i));
+            }
+        }
+        return new ShardedRedisService<>(shards, redisTemplate.getKeySerializer(), properties.getShard().getVirtualNodes());
+    }
+
+    @Override
+    public void setIfAbsent(RedisDto<K> redisDto, V value) {
+        shardOf(redisDto.key()).setIfAbsent(redisDto, value);
+    }
+
+    @Override
+    public void set(RedisDto<K> redisDto, V value) {
+        shardOf(redisDto.key()).set(redisDto, value);
+    }
+
+    @Override
+    public void setAll(Map<RedisDto<K>, V> values) {
+        Map<RedisService<K, V>, Map<RedisDto<K>, V>> valuesByShard = new LinkedHashMap<>();
+        values.forEach((redisDto, value) ->
+                valuesByShard.computeIfAbsent(shardOf(redisDto.key()), shard -> new LinkedHashMap<>()).put(redisDto, value));
+        inParallel(valuesByShard, (shard, shardValues) -> {
+            shard.setAll(shardValues);
+            return null;
+        });
+    }
+
+    @Override
+    public V get(K key, TypeReference<V> typeReference) {
+        return shardOf(key).get(key, typeReference);
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys, TypeReference<V> typeReference) {
+        List<K> keyList = new ArrayList<>(keys);
+        Map<K, V> found = new HashMap<>();
+        inParallel(positionsByShard(keyList), (shard, positions) -> shard.getAll(keysAt(keyList, positions), typeReference))
+                .forEach(found::putAll);
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keyList) {
+            V value = found.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public V getOrLoad(RedisDto<K> redisDto, TypeReference<V> typeReference, Supplier<V> loader) {
+        return shardOf(redisDto.key()).getOrLoad(redisDto, typeReference, loader);
+    }
+
+    @Override
+    public void delete(K key) {
+        shardOf(key).delete(key);
+    }
+
+    @Override
+    public long deleteAll(Collection<K> keys) {
+        List<K> keyList = new ArrayList<>(keys);
+        return inParallel(positionsByShard(keyList), (shard, positions) -> shard.deleteAll(keysAt(keyList, positions)))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Override
+    public long deleteByPattern(String pattern) {
+        Map<RedisService<K, V>, String> patterns = new LinkedHashMap<>();
+        shards.forEach(shard -> patterns.put(shard, pattern));
+        return inParallel(patterns, RedisService::deleteByPattern).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Override
+    public Boolean hasKey(K key) {
+        return shardOf(key).hasKey(key);
+    }
+
+    @Override
+    public BitSet hasKeys(List<K> keys) {
+        Map<RedisService<K, V>, List<Integer>> positionsByShard = positionsByShard(keys);
+        List<BitSet> shardBits = inParallel(positionsByShard, (shard, positions) -> shard.hasKeys(keysAt(keys, positions)));
+        BitSet existing = new BitSet(keys.size());
+        int i = 0;
+        for (List<Integer> positions : positionsByShard.values()) {
+            BitSet bits = shardBits.get(i++);
+            bits.stream().forEach(bit -> existing.set(positions.get(bit)));
+        }
+        return existing;
+    }
+
+    @Override
+    public long countExisting(Collection<K> keys) {
+        List<K> keyList = new ArrayList<>(keys);
+        return inParallel(positionsByShard(keyList), (shard, positions) -> shard.countExisting(keysAt(keyList, positions)))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Override
+    public Long getExpire(K key, TimeUnit timeUnit) {
+        return shardOf(key).getExpire(key, timeUnit);
+    }
+
+    /**
+     * Scans the shards one after the other.
+     */
+    @Override
+    public Stream<Map.Entry<K, V>> scan(String pattern, int batchSize, TypeReference<V> typeReference) {
+        return shards.stream().flatMap(shard -> shard.scan(pattern, batchSize, typeReference));
+    }
+
+    private RedisService<K, V> shardOf(K key) {
+        return ring.nodeFor(RedisBytes.serialize(keySerializer, key));
+    }
+
+    private Map<RedisService<K, V>, List<Integer>> positionsByShard(List<K> keys) {
+        Map<RedisService<K, V>, List<Integer>> positionsByShard = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            positionsByShard.computeIfAbsent(shardOf(keys.get(i)), shard -> new ArrayList<>()).add(i);
+        }
+        return positionsByShard;
+    }
+
+    private static <K> List<K> keysAt(List<K> keys, List<Integer> positions) {
+        return positions.stream().map(keys::get).toList();
+    }
+
+    private <T, R> List<R> inParallel(Map<RedisService<K, V>, T> groups, BiFunction<RedisService<K, V>, T, R> operation) {
+        if (groups.size() <= 1) {
+            List<R> results = new ArrayList<>(1);
+            groups.forEach((shard, group) -> results.add(operation.apply(shard, group)));
+            return results;
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<R>> futures = groups.entrySet().stream()
+                    .map(entry -> executor.submit(() -> operation.apply(entry.getKey(), entry.getValue())))
+                    .toList();
+            List<R> results = new ArrayList<>(futures.size());
+            for (Future<R> future : futures) {
+                results.add(RedisSlotGrouping.await(future));
+            }
+            return results;
+        }
+    }
+
+    private static <K, V> RedisTemplate<K, V> shardTemplate(RedisTemplate<K, V> redisTemplate,
+                                                           RedisConnectionFactory connectionFactory) {
+        RedisTemplate<K, V> shardTemplate = new RedisTemplate<>();
+        shardTemplate.setConnectionFactory(connectionFactory);
+        shardTemplate.setKeySerializer(redisTemplate.getKeySerializer());
+        shardTemplate.setValueSerializer(redisTemplate.getValueSerializer());
+        shardTemplate.setHashKeySerializer(redisTemplate.getHashKeySerializer());
+        shardTemplate.setHashValueSerializer(redisTemplate.getHashValueSerializer());
+        shardTemplate.afterPropertiesSet();
+        return shardTemplate;
+    }
+
+    private static String shardName(RedisConnectionFactory connectionFactory, int index) {
+        if (connectionFactory instanceof LettuceConnectionFactory lettuce) {
+            return lettuce.getHostName() + ":" + lettuce.getPort() + "/" + lettuce.getDatabase();
+        }
+        return "shard-" + index;
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Read-through loading that lets only one caller per key recompute a missing value. Concurrent misses in this process
+ * wait for the same loader call; with {@code redis-utils.load.lease} set, a {@code SET NX PX} lease also keeps other
+ * instances waiting for the value instead of recomputing it.
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlightLoader {
+
+    private static final byte[] LEASE_SUFFIX = ":lease".getBytes(StandardCharsets.UTF_8);
+    private static final RedisScript<Long> RELEASE_LEASE = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+    private final RedisUtilsProperties properties;
+    private final ConcurrentMap<Flight, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <K, V> V getOrLoad(RedisService<K, V> redisService, RedisDto<K> redisDto, TypeReference<V> typeReference,
+                              Supplier<V> loader) {
+        V value = redisService.get(redisDto.key(), typeReference);
+        if (value != null) {
+            return value;
+        }
+        Flight flight = new Flight(redisService, redisDto.key());
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flight, result);
+        if (running != null) {
+            return (V) awaitFlight(running);
+        }
+        try {
+            // a flight that finished between the miss above and winning this one has stored the value already
+            value = redisService.get(redisDto.key(), typeReference);
+            if (value == null) {
+                value = load(redisService, redisDto, typeReference, loader);
+            }
+            result.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flight, result);
+        }
+    }
+
+    private <K, V> V load(RedisService<K, V> redisService, RedisDto<K> redisDto, TypeReference<V> typeReference,
+                          Supplier<V> loader) {
+        Duration lease = properties.getLoad().getLease();
+        if (lease.isZero()) {
+            return loadAndStore(redisService, redisDto, loader);
+        }
+        byte[] rawLeaseKey = rawLeaseKey(redisDto.key());
+        byte[] leaseToken = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        long leaseDeadline = System.nanoTime() + lease.toNanos();
+        while (!acquireLease(rawLeaseKey, leaseToken, lease)) {
+            // another instance holds the lease, so wait for the value it is computing
+            V value = redisService.get(redisDto.key(), typeReference);
+            if (value != null) {
+                return value;
+            }
+            if (System.nanoTime() - leaseDeadline > 0) {
+                return loadAndStore(redisService, redisDto, loader);
+            }
+            sleep(properties.getLoad().getLeasePollInterval());
+        }
+        try {
+            V value = redisService.get(redisDto.key(), typeReference);
+            return value != null ? value : loadAndStore(redisService, redisDto, loader);
+        } finally {
+            releaseLease(rawLeaseKey, leaseToken);
+        }
+    }
+
+    private static <K, V> V loadAndStore(RedisService<K, V> redisService, RedisDto<K> redisDto, Supplier<V> loader) {
+        V value = loader.get();
+        if (value != null) {
+            redisService.set(redisDto, value);
+        }
+        return value;
+    }
+
+    private boolean acquireLease(byte[] rawLeaseKey, byte[] leaseToken, Duration lease) {
+        return Boolean.TRUE.equals(redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                connection.stringCommands().set(rawLeaseKey, leaseToken, Expiration.from(lease),
+                        RedisStringCommands.SetOption.ifAbsent())));
+    }
+
+    private void releaseLease(byte[] rawLeaseKey, byte[] leaseToken) {
+        redisTemplate.execute((RedisCallback<Object>) connection ->
+                RedisScriptCalls.eval(connection, RELEASE_LEASE, ReturnType.INTEGER, 1, rawLeaseKey, leaseToken));
+    }
+
+    private byte[] rawLeaseKey(Object key) {
+        byte[] rawKey = RedisBytes.serialize(redisTemplate.getKeySerializer(), key);
+        byte[] rawLeaseKey = Arrays.copyOf(rawKey, rawKey.length + LEASE_SUFFIX.length);
+        System.arraycopy(LEASE_SUFFIX, 0, rawLeaseKey, rawKey.length, LEASE_SUFFIX.length);
+        return rawLeaseKey;
+    }
+
+    private static Object awaitFlight(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for lease", e);
+        }
+    }
+
+    private record Flight(Object owner, Object key) {
+    }
+}
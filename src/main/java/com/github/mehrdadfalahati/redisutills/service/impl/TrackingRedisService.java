@@ -0,0 +1,339 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Serves {@code get} from a local copy that redis keeps valid through RESP3 {@code CLIENT TRACKING}: values are read
+ * over a dedicated tracking connection, and an {@code invalidate} push from the server drops the local copy.
+ * Writes go to the delegate. The tracking connection comes from a RESP3 client of its own, which server pushes
+ * require; it shares the given client's resources and options, and the given client is left untouched.
+ * <p>
+ * In broadcast mode the server only reports changes to keys under the tracked prefixes, which are encoded like keys,
+ * so values of other keys are read through without being kept. A read that was in flight while the connection
+ * dropped is not kept either, since the server may have served it before tracking was switched on again.
+ */
+public class TrackingRedisService<K, V> implements RedisService<K, V>, AutoCloseable {
+
+    private static final String INVALIDATE = "invalidate";
+    // one char per byte, so binary keys such as hashed ones map to distinct local keys
+    private static final Charset LOCAL_KEY_CODEC_CHARSET = StandardCharsets.ISO_8859_1;
+    private static final StringCodec LOCAL_KEY_CODEC = new StringCodec(LOCAL_KEY_CODEC_CHARSET);
+
+    private final RedisService<K, V> delegate;
+    private final RedisSerializer<?> keySerializer;
+    private final RedisValueReader redisValueReader;
+    private final TrackingArgs trackingArgs;
+    private final List<byte[]> trackedPrefixes;
+    private final RedisClient trackingClient;
+    private final StatefulRedisConnection<byte[], byte[]> connection;
+    private final ConcurrentMap<String, Object> localValues;
+    private volatile boolean trackingEnabled;
+    // bumped on every disconnect, so reads issued on an earlier connection are not kept
+    private volatile long connectionEpoch;
+
+    private TrackingRedisService(RedisService<K, V> delegate, RedisClient redisClient, RedisURI redisUri,
+                                 RedisSerializer<?> keySerializer, RedisValueReader redisValueReader,
+                                 List<byte[]> trackedPrefixes, long maximumSize) {
+        this.delegate = delegate;
+        this.keySerializer = keySerializer;
+        this.redisValueReader = redisValueReader;
+        this.trackedPrefixes = trackedPrefixes;
+        this.trackingArgs = trackedPrefixes.isEmpty()
+                ? TrackingArgs.Builder.enabled()
+                : TrackingArgs.Builder.enabled().bcast().prefixes(LOCAL_KEY_CODEC_CHARSET,
+                trackedPrefixes.stream().map(TrackingRedisService::localKey).toArray(String[]::new));
+        this.localValues = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .<String, Object>build()
+                .asMap();
+
+        this.trackingClient = RedisClient.create(redisClient.getResources());
+        this.trackingClient.setOptions(redisClient.getOptions().mutate()
+                .protocolVersion(ProtocolVersion.RESP3)
+                .build());
+        this.trackingClient.addListener(new TrackingConnectionStateListener());
+        this.connection = trackingClient.connect(ByteArrayCodec.INSTANCE, redisUri);
+        this.connection.addListener(this::onPushMessage);
+        enableTracking();
+    }
+
+    public static <K, V> TrackingRedisService<K, V> defaultMode(RedisService<K, V> delegate, RedisClient redisClient,
+                                                                RedisURI redisUri, RedisSerializer<?> keySerializer,
+                                                                RedisValueReader redisValueReader, long maximumSize) {
+        return new TrackingRedisService<>(delegate, redisClient, redisUri, keySerializer, redisValueReader, List.of(),
+                maximumSize);
+    }
+
+    /**
+     * @param prefixes prefixes of application keys, encoded with {@code keySerializer} before they are sent; values
+     *                 of keys outside them are not kept locally
+     */
+    public static <K, V> TrackingRedisService<K, V> broadcastMode(RedisService<K, V> delegate, RedisClient redisClient,
+                                                                  RedisURI redisUri, RedisSerializer<?> keySerializer,
+                                                                  RedisValueReader redisValueReader, long maximumSize,
+                                                                  String... prefixes) {
+        if (prefixes.length == 0) {
+            throw new IllegalArgumentException("Broadcast mode needs at least one prefix");
+        }
+        List<byte[]> trackedPrefixes = Stream.of(prefixes)
+                .map(prefix -> RedisBytes.keyPrefix(keySerializer, prefix))
+                .toList();
+        return new TrackingRedisService<>(delegate, redisClient, redisUri, keySerializer, redisValueReader,
+                trackedPrefixes, maximumSize);
+    }
+
+    @Override
+    public void setIfAbsent(RedisDto<K> redisDto, V value) {
+        delegate.setIfAbsent(redisDto, value);
+        localValues.remove(localKey(redisDto.key()));
+    }
+
+    @Override
+    public void set(RedisDto<K> redisDto, V value) {
+        delegate.set(redisDto, value);
+        localValues.remove(localKey(redisDto.key()));
+    }
+
+    @Override
+    public void setAll(Map<RedisDto<K>, V> values) {
+        delegate.setAll(values);
+        values.keySet().forEach(redisDto -> localValues.remove(localKey(redisDto.key())));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key, TypeReference<V> typeReference) {
+        byte[] rawKey = rawKey(key);
+        String localKey = localKey(rawKey);
+        if (localValues.get(localKey) instanceof LocalValue localValue && localValue.isOf(typeReference)) {
+            return (V) localValue.value();
+        }
+        long epoch = connectionEpoch;
+        ensureTracking();
+        PendingRead pendingRead = startRead(localKey, rawKey);
+        V value = redisValueReader.read(connection.sync().get(rawKey), typeReference);
+        completeRead(localKey, pendingRead, epoch, value, typeReference);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<K, V> getAll(Collection<K> keys, TypeReference<V> typeReference) {
+        Map<K, V> result = new LinkedHashMap<>();
+        List<K> missingKeys = new ArrayList<>();
+        for (K key : keys) {
+            if (localValues.get(localKey(key)) instanceof LocalValue localValue && localValue.isOf(typeReference)) {
+                result.put(key, (V) localValue.value());
+            } else {
+                result.put(key, null);
+                missingKeys.add(key);
+            }
+        }
+        if (!missingKeys.isEmpty()) {
+            long epoch = connectionEpoch;
+            ensureTracking();
+            byte[][] rawKeys = missingKeys.stream().map(this::rawKey).toArray(byte[][]::new);
+            List<PendingRead> pendingReads = new ArrayList<>(rawKeys.length);
+            for (byte[] rawKey : rawKeys) {
+                pendingReads.add(startRead(localKey(rawKey), rawKey));
+            }
+            List<KeyValue<byte[], byte[]>> rawValues = connection.sync().mget(rawKeys);
+            for (int i = 0; i < rawKeys.length; i++) {
+                KeyValue<byte[], byte[]> rawValue = rawValues.get(i);
+                V value = rawValue.hasValue() ? redisValueReader.read(rawValue.getValue(), typeReference) : null;
+                completeRead(localKey(rawKeys[i]), pendingReads.get(i), epoch, value, typeReference);
+                result.put(missingKeys.get(i), value);
+            }
+        }
+        result.values().removeIf(value -> value == null);
+        return result;
+    }
+
+    @Override
+    public V getOrLoad(RedisDto<K> redisDto, TypeReference<V> typeReference, Supplier<V> loader) {
+        V value = get(redisDto.key(), typeReference);
+        return value != null ? value : delegate.getOrLoad(redisDto, typeReference, loader);
+    }
+
+    @Override
+    public void delete(K key) {
+        delegate.delete(key);
+        localValues.remove(localKey(key));
+    }
+
+    @Override
+    public long deleteAll(Collection<K> keys) {
+        long removed = delegate.deleteAll(keys);
+        keys.forEach(key -> localValues.remove(localKey(key)));
+        return removed;
+    }
+
+    @Override
+    public long deleteByPattern(String pattern) {
+        long removed = delegate.deleteByPattern(pattern);
+        localValues.clear();
+        return removed;
+    }
+
+    @Override
+    public Boolean hasKey(K key) {
+        return localValues.get(localKey(key)) instanceof LocalValue || Boolean.TRUE.equals(delegate.hasKey(key));
+    }
+
+    @Override
+    public BitSet hasKeys(List<K> keys) {
+        return delegate.hasKeys(keys);
+    }
+
+    @Override
+    public long countExisting(Collection<K> keys) {
+        return delegate.countExisting(keys);
+    }
+
+    @Override
+    public Long getExpire(K key, TimeUnit timeUnit) {
+        return delegate.getExpire(key, timeUnit);
+    }
+
+    @Override
+    public Stream<Map.Entry<K, V>> scan(String pattern, int batchSize, TypeReference<V> typeReference) {
+        return delegate.scan(pattern, batchSize, typeReference);
+    }
+
+    @Override
+    public void close() {
+        connection.close();
+        // the client resources belong to the given client, so this leaves them running
+        trackingClient.shutdown();
+    }
+
+    private void onPushMessage(PushMessage message) {
+        if (!INVALIDATE.equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(LOCAL_KEY_CODEC::decodeKey);
+        if (content.size() < 2 || !(content.get(1) instanceof List<?> invalidatedKeys)) {
+            // a null key list means the server flushed its keyspace
+            localValues.clear();
+            return;
+        }
+        invalidatedKeys.forEach(localValues::remove);
+    }
+
+    /**
+     * @return the marker of a read whose value may be kept, {@code null} for keys the server does not report changes to
+     */
+    private PendingRead startRead(String localKey, byte[] rawKey) {
+        if (!isTracked(rawKey)) {
+            return null;
+        }
+        PendingRead pendingRead = new PendingRead();
+        localValues.put(localKey, pendingRead);
+        return pendingRead;
+    }
+
+    private void completeRead(String localKey, PendingRead pendingRead, long epoch, V value,
+                              TypeReference<V> typeReference) {
+        if (pendingRead == null) {
+            return;
+        }
+        // an invalidation push that arrived while the read was in flight has already removed the marker
+        if (value == null || epoch != connectionEpoch) {
+            localValues.remove(localKey, pendingRead);
+        } else {
+            localValues.replace(localKey, pendingRead, new LocalValue(value, typeReference.getType()));
+        }
+    }
+
+    private boolean isTracked(byte[] rawKey) {
+        if (trackedPrefixes.isEmpty()) {
+            return true;
+        }
+        for (byte[] prefix : trackedPrefixes) {
+            if (rawKey.length >= prefix.length && Arrays.equals(rawKey, 0, prefix.length, prefix, 0, prefix.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void ensureTracking() {
+        if (!trackingEnabled) {
+            enableTracking();
+        }
+    }
+
+    private synchronized void enableTracking() {
+        if (!trackingEnabled) {
+            connection.sync().clientTracking(trackingArgs);
+            trackingEnabled = true;
+        }
+    }
+
+    private byte[] rawKey(K key) {
+        return RedisBytes.serialize(keySerializer, key);
+    }
+
+    private String localKey(K key) {
+        return localKey(rawKey(key));
+    }
+
+    private static String localKey(byte[] rawKey) {
+        return new String(rawKey, LOCAL_KEY_CODEC_CHARSET);
+    }
+
+    private record LocalValue(Object value, Type type) {
+
+        boolean isOf(TypeReference<?> typeReference) {
+            return type.equals(typeReference.getType());
+        }
+    }
+
+    private static final class PendingRead {
+    }
+
+    private class TrackingConnectionStateListener implements RedisConnectionStateListener {
+
+        @Override
+        public void onRedisDisconnected(RedisChannelHandler<?, ?> channelHandler) {
+            if (channelHandler == connection) {
+                // tracking state lives on the server side connection, so nothing cached can be trusted any more; the
+                // flag goes first so that a read seeing the new epoch also switches tracking on before it is sent
+                trackingEnabled = false;
+                localValues.clear();
+                connectionEpoch++;
+            }
+        }
+    }
+}
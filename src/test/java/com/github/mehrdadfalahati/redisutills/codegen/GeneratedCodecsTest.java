@@ -0,0 +1,169 @@
+package com.github.mehrdadfalahati.redisutills.codegen;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.mehrdadfalahati.redisutills.serializer.CodecRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueCodecs;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedCodecsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final List<RedisValueCodec> codecs = RedisValueCodecs.available(objectMapper);
+
+    private final Product milk = Product.builder()
+            .name("Milk")
+            .price(10.2)
+            .build();
+
+    @Test
+    void whenTypeAnnotated_expectedGeneratedCodecFound() {
+        assertNotNull(GeneratedCodecs.find(Product.class));
+        assertNotNull(GeneratedCodecs.find(Shipment.class));
+        assertNull(GeneratedCodecs.find(String.class));
+    }
+
+    @Test
+    void whenRoundTrippingThroughEachFormat_expectedSameValue() {
+        Shipment shipment = shipment();
+        for (RedisValueCodec codec : codecs) {
+            CodecRedisSerializer serializer = new CodecRedisSerializer(codec, codecs);
+
+            assertEquals(milk, serializer.deserialize(serializer.serialize(milk), Product.class), codec.name());
+            assertEquals(shipment, serializer.deserialize(serializer.serialize(shipment), Shipment.class), codec.name());
+        }
+    }
+
+    @Test
+    void whenGeneratedJsonReadByJackson_expectedSameValue() throws Exception {
+        CodecRedisSerializer serializer = new CodecRedisSerializer(codecs.get(0), codecs);
+        Shipment shipment = shipment();
+
+        assertEquals(milk, objectMapper.readValue(serializer.serialize(milk), Product.class));
+        assertEquals(shipment, objectMapper.readValue(serializer.serialize(shipment), Shipment.class));
+    }
+
+    @Test
+    void whenJacksonJsonReadByGeneratedCodec_expectedSameValue() throws Exception {
+        CodecRedisSerializer serializer = new CodecRedisSerializer(codecs.get(0), codecs);
+        Shipment shipment = shipment();
+
+        assertEquals(milk, serializer.deserialize(objectMapper.writeValueAsBytes(milk), Product.class));
+        assertEquals(shipment, serializer.deserialize(objectMapper.writeValueAsBytes(shipment), Shipment.class));
+    }
+
+    @Test
+    void whenJsonHasUnknownAndMissingProperties_expectedDefaults() {
+        CodecRedisSerializer serializer = new CodecRedisSerializer(codecs.get(0), codecs);
+        byte[] json = "{\"unknown\":{\"nested\":[1,2]},\"count\":3,\"tracking\":null}".getBytes(StandardCharsets.UTF_8);
+
+        Shipment shipment = serializer.deserialize(json, Shipment.class);
+
+        assertEquals(new Shipment(null, 3, false, null, null, null, null), shipment);
+    }
+
+    @Test
+    void whenReadingUntyped_expectedJacksonMap() {
+        CodecRedisSerializer serializer = new CodecRedisSerializer(codecs.get(0), codecs);
+
+        Object value = serializer.deserialize(serializer.serialize(milk));
+
+        assertEquals("Milk", ((Map<?, ?>) value).get("name"));
+    }
+
+    @Test
+    void whenPropertiesIgnoredOrTransient_expectedLeftOutAndDefaultedOnRead() {
+        CodecRedisSerializer serializer = new CodecRedisSerializer(codecs.get(0), codecs);
+
+        byte[] session = serializer.serialize(new Session("s-1", "secret", "jane"));
+        byte[] draft = serializer.serialize(new Draft("Title", 5));
+
+        assertEquals("{\"id\":\"s-1\",\"user\":\"jane\"}", new String(session, StandardCharsets.UTF_8));
+        assertEquals(new Session("s-1", null, "jane"), serializer.deserialize(session, Session.class));
+        assertEquals("{\"title\":\"Title\"}", new String(draft, StandardCharsets.UTF_8));
+        assertEquals(new Draft("Title", 0), serializer.deserialize(draft, Draft.class));
+    }
+
+    @Test
+    void whenNestedInCollection_expectedGeneratedCodecUsed() {
+        CodecRedisSerializer serializer = new CodecRedisSerializer(codecs.get(0), codecs);
+        TypeReference<List<Draft>> drafts = new TypeReference<>() {
+        };
+
+        byte[] json = serializer.serialize(List.of(new Draft("Title", 5)));
+        // data binding would write and read the transient property through its accessors
+        List<Draft> read = serializer.deserialize("[{\"title\":\"Title\",\"views\":5}]".getBytes(StandardCharsets.UTF_8),
+                drafts.getType());
+
+        assertEquals("[{\"title\":\"Title\"}]", new String(json, StandardCharsets.UTF_8));
+        assertEquals(List.of(new Draft("Title", 0)), read);
+        assertEquals(Map.of("milk", milk), serializer.deserialize(serializer.serialize(Map.of("milk", milk)),
+                new TypeReference<Map<String, Product>>() {
+                }.getType()));
+    }
+
+    @Test
+    void whenScalarMalformed_expectedFailureInsteadOfDefault() {
+        CodecRedisSerializer serializer = new CodecRedisSerializer(codecs.get(0), codecs);
+
+        assertEquals(10.5, serializer.<Product>deserialize(json("{\"price\":\"10.5\"}"), Product.class).getPrice());
+        assertEquals(3, serializer.<Shipment>deserialize(json("{\"count\":\"3\",\"express\":\"true\"}"), Shipment.class).count());
+        assertThrows(SerializationException.class, () -> serializer.deserialize(json("{\"price\":\"cheap\"}"), Product.class));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(json("{\"count\":\"3x\"}"), Shipment.class));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(json("{\"count\":{}}"), Shipment.class));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(json("{\"express\":\"yes\"}"), Shipment.class));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(json("{\"tracking\":[1]}"), Shipment.class));
+    }
+
+    private static byte[] json(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Shipment shipment() {
+        return new Shipment(UUID.randomUUID(), 2, true, Status.SHIPPED, milk, List.of("fragile", "cold"), "tr-1");
+    }
+
+    enum Status {
+        PENDING, SHIPPED
+    }
+
+    @RedisValue
+    record Session(String id, @JsonIgnore String token, @JsonProperty("user") String userName) {
+    }
+
+    @RedisValue
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    static class Draft {
+        private String title;
+        private transient int views;
+    }
+
+    @RedisValue
+    record Shipment(UUID id, int count, boolean express, Status status, Product product, List<String> labels,
+                    String tracking) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.mehrdadfalahati.redisutills.codegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisValueProcessorTest {
+
+    @TempDir
+    Path output;
+
+    @Test
+    void whenSupportedJacksonAnnotations_expectedCompiles() {
+        DiagnosticCollector<JavaFileObject> diagnostics = compile("""
+                package sample;
+
+                @com.github.mehrdadfalahati.redisutills.codegen.RedisValue
+                @com.fasterxml.jackson.annotation.JsonIgnoreProperties(ignoreUnknown = true)
+                public record Order(@com.fasterxml.jackson.annotation.JsonProperty("order_id") String id,
+                                    @com.fasterxml.jackson.annotation.JsonIgnore String note) {
+                }
+                """);
+
+        assertEquals(List.of(), errors(diagnostics));
+    }
+
+    @Test
+    void whenUnsupportedJacksonAnnotation_expectedCompilationError() {
+        DiagnosticCollector<JavaFileObject> diagnostics = compile("""
+                package sample;
+
+                @com.github.mehrdadfalahati.redisutills.codegen.RedisValue
+                public record Order(String id,
+                                    @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy") java.util.Date placed) {
+                }
+                """);
+
+        List<String> errors = errors(diagnostics);
+        assertEquals(1, errors.size(), errors.toString());
+        assertTrue(errors.get(0).contains("JsonFormat"), errors.get(0));
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///sample/Order.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                List.of("-classpath", System.getProperty("java.class.path"), "-d", output.toString(), "-proc:only"),
+                null, List.of(file));
+        task.setProcessors(List.of(new RedisValueProcessor()));
+        task.call();
+        return diagnostics;
+    }
+
+    private static List<String> errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.mehrdadfalahati.redisutills.config;
+
+import com.github.mehrdadfalahati.redisutills.serializer.key.KeyStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisConfigTest {
+
+    // the user configuration comes after RedisConfig, as it would when component scanning finds it later
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(LettuceConnectionFactory.class)
+            .withUserConfiguration(RedisConfig.class);
+
+    @Test
+    void whenNoKeyStrategyBean_expectedNamespacedKeysFromProperties() {
+        contextRunner.withPropertyValues("redis-utils.key.prefix=catalog:", "redis-utils.key.version=2")
+                .run(context -> {
+                    assertNull(context.getBeanProvider(KeyStrategy.class).getIfAvailable());
+                    assertEquals("catalog:v2:product:1", rawKey(context.getBean(RedisTemplate.class)));
+                });
+    }
+
+    @Test
+    void whenKeyStrategyBeanRegistered_expectedTemplatesUseIt() {
+        contextRunner.withUserConfiguration(UpperCaseKeyStrategyConfig.class)
+                .run(context -> {
+                    assertEquals("PRODUCT:1", rawKey(context.getBean(RedisTemplate.class)));
+                    ByteBuffer rawKey = context.getBean(ReactiveRedisTemplate.class).getSerializationContext()
+                            .getKeySerializationPair().write("product:1");
+                    assertEquals("PRODUCT:1", StandardCharsets.UTF_8.decode(rawKey).toString());
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String rawKey(RedisTemplate<?, ?> redisTemplate) {
+        byte[] rawKey = ((RedisSerializer<String>) redisTemplate.getKeySerializer()).serialize("product:1");
+        return new String(rawKey, StandardCharsets.UTF_8);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class UpperCaseKeyStrategyConfig {
+
+        @Bean
+        KeyStrategy upperCaseKeyStrategy() {
+            return new KeyStrategy() {
+                @Override
+                public byte[] toRawKey(String key) {
+                    return key.toUpperCase().getBytes(StandardCharsets.UTF_8);
+                }
+
+                @Override
+                public String fromRawKey(byte[] rawKey) {
+                    return new String(rawKey, StandardCharsets.UTF_8).toLowerCase();
+                }
+
+                @Override
+                public String toPattern(String pattern) {
+                    return pattern.toUpperCase();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.mehrdadfalahati.redisutills.invalidation;
+
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.serializer.key.KeyStrategyRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.key.NamespacedKeyStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidationMessagesTest {
+
+    @Test
+    void whenEncodingRawKeys_expectedSameKeysDecoded() {
+        KeyStrategyRedisSerializer keySerializer = new KeyStrategyRedisSerializer(
+                new NamespacedKeyStrategy("catalog:", 2, 16));
+        List<byte[]> rawKeys = List.of("product:1", "", "orders:customer:42:open-orders-sorted-by-creation-date")
+                .stream()
+                .map(keySerializer::serialize)
+                .toList();
+
+        List<String> keys = InvalidationMessages.decode(InvalidationMessages.encode(rawKeys)).stream()
+                .map(keySerializer::deserialize)
+                .toList();
+
+        assertEquals(List.of("product:1", ""), keys.subList(0, 2));
+        // hashed keys come back as the strategy's token for them, which addresses the same raw key
+        for (int i = 0; i < rawKeys.size(); i++) {
+            assertArrayEquals(rawKeys.get(i), keySerializer.serialize(keys.get(i)));
+        }
+    }
+
+    @Test
+    void whenMessageTruncated_expectedIllegalArgumentException() {
+        byte[] message = InvalidationMessages.encode(List.of("product:1".getBytes()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> InvalidationMessages.decode(Arrays.copyOf(message, message.length - 1)));
+    }
+
+    @Test
+    void whenChannelNotSet_expectedChannelInsideKeyPrefix() {
+        RedisUtilsProperties properties = new RedisUtilsProperties();
+        properties.getKey().setPrefix("catalog:");
+
+        assertEquals("catalog:redis-utils:invalidation", InvalidationMessages.channel(properties));
+        properties.getInvalidation().setChannel("shared");
+        assertEquals("shared", InvalidationMessages.channel(properties));
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecRedisSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    private final List<RedisValueCodec> codecs = RedisValueCodecs.available(objectMapper);
+
+    private final Product milk = Product.builder()
+            .name("Milk")
+            .price(10.2)
+            .build();
+
+    @Test
+    void whenAllDataformatsPresent_expectedEveryCodecAvailable() {
+        assertEquals(List.of("json", "smile", "cbor", "msgpack"), codecs.stream().map(RedisValueCodec::name).toList());
+    }
+
+    @Test
+    void whenRoundTrippingWithEachCodec_expectedSameProduct() {
+        for (RedisValueCodec codec : codecs) {
+            CodecRedisSerializer serializer = new CodecRedisSerializer(codec, codecs);
+
+            byte[] bytes = serializer.serialize(List.of(milk));
+            List<Product> products = serializer.deserialize(bytes, Product.getTypeReferences().getType());
+
+            assertEquals(List.of(milk), products, codec.name());
+        }
+    }
+
+    @Test
+    void whenStreamingToOutputAndReadingFromDirectBuffer_expectedSameAsArrayPath() {
+        for (RedisValueCodec codec : codecs) {
+            CodecRedisSerializer serializer = new CodecRedisSerializer(codec, codecs);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            serializer.serialize(milk, out);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(out.size()).put(out.toByteArray()).flip();
+
+            assertArrayEquals(serializer.serialize(milk), out.toByteArray(), codec.name());
+            assertEquals(milk, serializer.deserialize(buffer, Product.class), codec.name());
+        }
+    }
+
+    @Test
+    void whenWritingBinaryCodec_expectedHeaderByte() {
+        CodecRedisSerializer serializer = serializer(SmileRedisValueCodec.NAME);
+
+        assertEquals(SmileRedisValueCodec.ID, serializer.serialize(milk)[0]);
+    }
+
+    @Test
+    void whenWritingJson_expectedNoHeaderByte() throws Exception {
+        CodecRedisSerializer serializer = serializer(JsonRedisValueCodec.NAME);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(milk), serializer.serialize(milk));
+    }
+
+    @Test
+    void whenReadingLegacyJsonWithBinaryWriter_expectedProduct() throws Exception {
+        CodecRedisSerializer serializer = serializer(MessagePackRedisValueCodec.NAME);
+
+        Product product = serializer.deserialize(objectMapper.writeValueAsBytes(milk), Product.class);
+
+        assertEquals(milk, product);
+    }
+
+    @Test
+    void whenReadingBinaryValueWithJsonWriter_expectedProduct() {
+        byte[] cbor = serializer(CborRedisValueCodec.NAME).serialize(milk);
+
+        Product product = serializer(JsonRedisValueCodec.NAME).deserialize(cbor, Product.class);
+
+        assertEquals(milk, product);
+    }
+
+    @Test
+    void whenReadingUntyped_expectedMap() {
+        CodecRedisSerializer serializer = serializer(SmileRedisValueCodec.NAME);
+
+        Object value = serializer.deserialize(serializer.serialize(milk));
+
+        assertInstanceOf(Map.class, value);
+        assertEquals("Milk", ((Map<?, ?>) value).get("name"));
+    }
+
+    @Test
+    void whenReadingNullOrEmpty_expectedNull() {
+        CodecRedisSerializer serializer = serializer(SmileRedisValueCodec.NAME);
+
+        assertNull(serializer.deserialize(null));
+        assertNull(serializer.deserialize(new byte[0], Product.class));
+        assertArrayEquals(new byte[0], serializer.serialize(null));
+    }
+
+    @Test
+    void whenHeaderIsUnknown_expectedSerializationException() {
+        CodecRedisSerializer serializer = serializer(JsonRedisValueCodec.NAME);
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{7, 1, 2}, Product.class));
+    }
+
+    @Test
+    void whenCodecNameIsUnknown_expectedIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> RedisValueCodecs.byName(codecs, "avro"));
+    }
+
+    private CodecRedisSerializer serializer(String codec) {
+        return new CodecRedisSerializer(RedisValueCodecs.byName(codecs, codec), codecs);
+    }
+}
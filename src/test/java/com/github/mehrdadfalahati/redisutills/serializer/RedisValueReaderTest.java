@@ -0,0 +1,47 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisValueReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    private final RedisValueReader redisValueReader = new RedisValueReader(
+            new CodecRedisSerializer(new JsonRedisValueCodec(objectMapper), List.of()));
+
+    private final Product milk = Product.builder()
+            .name("Milk")
+            .price(10.2)
+            .build();
+
+    @Test
+    void whenReadingProductBytes_expectedProduct() throws Exception {
+        Product product = redisValueReader.read(objectMapper.writeValueAsBytes(milk), Product.getTypeReference());
+
+        assertEquals(milk, product);
+    }
+
+    @Test
+    void whenReadingListOfProductsBytes_expectedTypedProducts() throws Exception {
+        List<Product> products = redisValueReader.read(objectMapper.writeValueAsBytes(List.of(milk)),
+                Product.getTypeReferences());
+
+        assertInstanceOf(Product.class, products.get(0));
+        assertEquals(milk, products.get(0));
+    }
+
+    @Test
+    void whenReadingNull_expectedNull() {
+        assertNull(redisValueReader.read(null, Product.getTypeReference()));
+    }
+}
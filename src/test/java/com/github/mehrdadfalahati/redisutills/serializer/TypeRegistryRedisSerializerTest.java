@@ -0,0 +1,93 @@
+package com.github.mehrdadfalahati.redisutills.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeRegistryRedisSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    private final List<RedisValueCodec> codecs = RedisValueCodecs.available(objectMapper);
+    private final TypedRedisSerializer json = new CodecRedisSerializer(codecs.get(0), codecs);
+    private final RedisTypeRegistry typeRegistry = new RedisTypeRegistry(Map.of(1, Product.class));
+    private final TypeRegistryRedisSerializer serializer = new TypeRegistryRedisSerializer(json, typeRegistry);
+
+    private final Product milk = Product.builder()
+            .name("Milk")
+            .price(10.2)
+            .build();
+
+    @Test
+    void whenTypeRegistered_expectedTwoByteTypeHeader() {
+        byte[] bytes = serializer.serialize(milk);
+
+        assertEquals(TypeRegistryRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(1, bytes[1]);
+        assertEquals(json.serialize(milk).length + 2, bytes.length);
+    }
+
+    @Test
+    void whenTypeNotRegistered_expectedNoHeader() {
+        assertArrayEquals(json.serialize(List.of(milk)), serializer.serialize(List.of(milk)));
+    }
+
+    @Test
+    void whenReadingUntyped_expectedRegisteredType() {
+        assertEquals(milk, serializer.deserialize(serializer.serialize(milk)));
+    }
+
+    @Test
+    void whenReadingWithTypeReference_expectedRequestedType() {
+        assertEquals(milk, serializer.deserialize(serializer.serialize(milk), Product.getTypeReference().getType()));
+        Map<?, ?> map = serializer.deserialize(serializer.serialize(milk), Map.class);
+        assertEquals("Milk", map.get("name"));
+    }
+
+    @Test
+    void whenReadingValueWithoutHeader_expectedDelegateResult() {
+        assertEquals(milk, serializer.deserialize(json.serialize(milk), Product.class));
+        assertInstanceOf(Map.class, serializer.deserialize(json.serialize(milk)));
+    }
+
+    @Test
+    void whenTypeIdUnknown_expectedUntypedValue() {
+        byte[] bytes = serializer.serialize(milk);
+        TypeRegistryRedisSerializer otherInstance = new TypeRegistryRedisSerializer(json, new RedisTypeRegistry());
+
+        assertInstanceOf(Map.class, otherInstance.deserialize(bytes));
+        assertEquals(milk, otherInstance.deserialize(bytes, Product.class));
+    }
+
+    @Test
+    void whenLargeIdAndBinaryCodec_expectedVarIntHeaderRoundTrip() {
+        RedisTypeRegistry registry = new RedisTypeRegistry().register(300, Product.class);
+        TypeRegistryRedisSerializer smile = new TypeRegistryRedisSerializer(
+                new CodecRedisSerializer(RedisValueCodecs.byName(codecs, "smile"), codecs), registry);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        smile.serialize(milk, out);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(out.size()).put(out.toByteArray()).flip();
+
+        assertArrayEquals(smile.serialize(milk), out.toByteArray());
+        assertEquals(milk, smile.deserialize(buffer, Object.class));
+    }
+
+    @Test
+    void whenRegisteringConflictingIds_expectedIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> typeRegistry.register(1, String.class));
+        assertThrows(IllegalArgumentException.class, () -> typeRegistry.register(2, Product.class));
+        assertThrows(IllegalArgumentException.class, () -> typeRegistry.register(0, String.class));
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.mehrdadfalahati.redisutills.serializer.CodecRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.JsonRedisValueCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.TypedRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressingRedisSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    private final TypedRedisSerializer json = new CodecRedisSerializer(new JsonRedisValueCodec(objectMapper), List.of());
+    private final List<Compressor> compressors = Compressors.available();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<Product> products = IntStream.range(0, 200)
+            .mapToObj(i -> Product.builder().name("Milk " + i).price(10.2).build())
+            .toList();
+
+    @Test
+    void whenLargeValue_expectedCompressedRoundTripWithEveryAlgorithm() {
+        assertEquals(List.of("deflate", "lz4", "zstd"), compressors.stream().map(Compressor::name).toList());
+        for (Compressor compressor : compressors) {
+            CompressingRedisSerializer serializer = serializer(compressor, 1024);
+
+            byte[] bytes = serializer.serialize(products);
+            List<Product> read = serializer.deserialize(bytes, Product.getTypeReferences().getType());
+
+            assertEquals(CompressingRedisSerializer.MAGIC, bytes[0], compressor.name());
+            assertEquals(compressor.id(), bytes[1], compressor.name());
+            assertTrue(bytes.length < json.serialize(products).length, compressor.name());
+            assertEquals(products, read, compressor.name());
+        }
+    }
+
+    @Test
+    void whenValueBelowThreshold_expectedUncompressed() {
+        CompressingRedisSerializer serializer = serializer(new DeflateCompressor(), 1024);
+        Product milk = products.get(0);
+
+        byte[] bytes = serializer.serialize(milk);
+
+        assertArrayEquals(json.serialize(milk), bytes);
+        assertEquals(milk, serializer.deserialize(bytes, Product.class));
+    }
+
+    @Test
+    void whenCompressionDisabled_expectedCompressedValuesStillReadable() {
+        byte[] compressed = serializer(new ZstdCompressor(), 1024).serialize(products);
+
+        CompressingRedisSerializer serializer = serializer(null, 1024);
+
+        assertArrayEquals(json.serialize(products), serializer.serialize(products));
+        assertEquals(products, serializer.deserialize(compressed, Product.getTypeReferences().getType()));
+    }
+
+    @Test
+    void whenCompressing_expectedRatioAndTimeMetrics() {
+        CompressingRedisSerializer serializer = serializer(new Lz4Compressor(), 1024);
+
+        serializer.deserialize(serializer.serialize(products));
+
+        assertTrue(meterRegistry.get("redis.utils.compression.ratio").tag("algorithm", "lz4").summary().mean() > 1);
+        assertEquals(1, meterRegistry.get("redis.utils.compression.time").tag("algorithm", "lz4")
+                .tag("operation", "compress").timer().count());
+        assertEquals(1, meterRegistry.get("redis.utils.compression.time").tag("algorithm", "lz4")
+                .tag("operation", "decompress").timer().count());
+    }
+
+    @Test
+    void whenHeaderClaimsHugeLength_expectedSerializationExceptionBeforeAllocating() {
+        byte[] bytes = serializer(new DeflateCompressor(), 1024).serialize(products);
+        ByteBuffer.wrap(bytes, 2, 4).putInt(Integer.MAX_VALUE - 8);
+
+        SerializationException e = assertThrows(SerializationException.class,
+                () -> serializer(null, 1024).deserialize(bytes));
+        assertTrue(e.getMessage().contains("Corrupt compression header"));
+    }
+
+    @Test
+    void whenCompressorUnknown_expectedSerializationException() {
+        byte[] bytes = serializer(new DeflateCompressor(), 1024).serialize(products);
+        bytes[1] = 42;
+
+        assertThrows(SerializationException.class, () -> serializer(null, 1024).deserialize(bytes));
+    }
+
+    private CompressingRedisSerializer serializer(Compressor compressor, int threshold) {
+        return new CompressingRedisSerializer(json, compressor, compressors, threshold, meterRegistry);
+    }
+}
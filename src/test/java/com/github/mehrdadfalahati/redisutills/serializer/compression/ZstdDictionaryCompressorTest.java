@@ -0,0 +1,222 @@
+package com.github.mehrdadfalahati.redisutills.serializer.compression;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.mehrdadfalahati.redisutills.serializer.CodecRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.JsonRedisValueCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.TypedRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import com.github.mehrdadfalahati.redisutills.serializer.key.KeyStrategyRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.key.NamespacedKeyStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ZstdDictionaryCompressorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    private final TypedRedisSerializer json = new CodecRedisSerializer(new JsonRedisValueCodec(objectMapper), List.of());
+    private final InMemoryDictionaryStore dictionaryStore = new InMemoryDictionaryStore();
+    private final ZstdDictionaryCompressor compressor = new ZstdDictionaryCompressor(dictionaryStore, 3, Duration.ZERO);
+    private final CompressingRedisSerializer serializer = new CompressingRedisSerializer(json, compressor,
+            List.of(compressor), 0, new SimpleMeterRegistry());
+    private final List<ZstdDictionaryCompressor> otherInstances = new ArrayList<>();
+
+    @Test
+    void whenTrainedOnSimilarValues_expectedSmallValuesShrink() {
+        List<byte[]> samples = IntStream.range(0, 2_000).mapToObj(i -> json.serialize(product(i))).toList();
+        Product milk = product(5_000);
+        int plain = json.serialize(milk).length;
+        int withoutDictionary = serializer.serialize(milk).length;
+
+        int version = compressor.train(samples, 16 * 1024);
+        byte[] bytes = serializer.serialize(milk);
+
+        assertEquals(1, version);
+        assertEquals(version, ByteBuffer.wrap(bytes, CompressingRedisSerializer.HEADER_LENGTH, 2).getShort());
+        assertTrue(plain >= 2.5 * bytes.length, plain + " -> " + bytes.length);
+        assertEquals(plain, withoutDictionary);
+        assertEquals(milk, serializer.deserialize(bytes, Product.class));
+    }
+
+    @Test
+    void whenDictionaryRetrained_expectedValuesFromOlderVersionStillReadable() {
+        List<byte[]> samples = IntStream.range(0, 2_000).mapToObj(i -> json.serialize(product(i))).toList();
+        compressor.train(samples, 16 * 1024);
+        byte[] first = serializer.serialize(product(1));
+
+        compressor.train(samples.subList(0, 1_000), 8 * 1024);
+
+        ZstdDictionaryCompressor otherInstance = otherInstance();
+        otherInstance.refresh();
+        CompressingRedisSerializer otherSerializer = new CompressingRedisSerializer(json, otherInstance,
+                List.of(otherInstance), 0, new SimpleMeterRegistry());
+        byte[] second = otherSerializer.serialize(product(2));
+
+        assertEquals(2, ByteBuffer.wrap(second, CompressingRedisSerializer.HEADER_LENGTH, 2).getShort());
+        assertEquals(product(1), otherSerializer.deserialize(first, Product.class));
+        assertEquals(product(2), serializer.deserialize(second, Product.class));
+    }
+
+    @Test
+    void whenDictionaryVersionMissing_expectedSerializationException() {
+        compressor.train(IntStream.range(0, 2_000).mapToObj(i -> json.serialize(product(i))).toList(), 16 * 1024);
+        byte[] bytes = serializer.serialize(product(1));
+        dictionaryStore.dictionaries.clear();
+
+        ZstdDictionaryCompressor otherInstance = otherInstance();
+        otherInstance.refresh();
+        CompressingRedisSerializer otherSerializer = new CompressingRedisSerializer(json, null,
+                List.of(otherInstance), 0, new SimpleMeterRegistry());
+
+        assertThrows(SerializationException.class, () -> otherSerializer.deserialize(bytes, Product.class));
+    }
+
+    @Test
+    void whenDictionaryVersionsExhausted_expectedCurrentVersionKept() {
+        List<byte[]> samples = IntStream.range(0, 2_000).mapToObj(i -> json.serialize(product(i))).toList();
+        compressor.train(samples, 16 * 1024);
+        dictionaryStore.sequence.set(0xFFFF);
+
+        assertThrows(IllegalStateException.class, () -> compressor.train(samples, 16 * 1024));
+
+        assertEquals(1, dictionaryStore.currentVersion());
+        assertFalse(dictionaryStore.dictionaries.containsKey(0x10000));
+        byte[] bytes = serializer.serialize(product(1));
+        assertEquals(1, ByteBuffer.wrap(bytes, CompressingRedisSerializer.HEADER_LENGTH, 2).getShort());
+    }
+
+    @Test
+    void whenCompressingAcrossRetraining_expectedReusedContextPicksUpNewDictionary() {
+        List<byte[]> samples = IntStream.range(0, 2_000).mapToObj(i -> json.serialize(product(i))).toList();
+        byte[] withoutDictionary = serializer.serialize(product(1));
+        compressor.train(samples, 16 * 1024);
+        byte[] withDictionary = serializer.serialize(product(1));
+
+        assertTrue(withDictionary.length < withoutDictionary.length);
+        assertEquals(product(1), serializer.deserialize(withoutDictionary, Product.class));
+        assertEquals(product(1), serializer.deserialize(withDictionary, Product.class));
+    }
+
+    @Test
+    void whenReadingVersionNotLoadedYet_expectedFailureWithoutStoreCallThenRefreshInBackground() {
+        compressor.train(IntStream.range(0, 2_000).mapToObj(i -> json.serialize(product(i))).toList(), 16 * 1024);
+        byte[] bytes = serializer.serialize(product(1));
+        // the first refresh stays blocked, as a slow redis would keep it
+        dictionaryStore.loadsBlocked = true;
+        ZstdDictionaryCompressor otherInstance = otherInstance();
+        CompressingRedisSerializer otherSerializer = new CompressingRedisSerializer(json, null,
+                List.of(otherInstance), 0, new SimpleMeterRegistry());
+        int loads = dictionaryStore.loads.get();
+
+        assertThrows(SerializationException.class, () -> otherSerializer.deserialize(bytes, Product.class));
+        assertEquals(loads, dictionaryStore.loads.get());
+
+        dictionaryStore.loadsBlocked = false;
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertEquals(product(1), otherSerializer.deserialize(bytes, Product.class)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenTrainingFromPattern_expectedScanWithinKeyNamespace() {
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        RedisConnection connection = mock(RedisConnection.class, RETURNS_DEEP_STUBS);
+        Cursor<byte[]> cursor = mock(Cursor.class);
+        byte[] key = "catalog:v2:product:1".getBytes(StandardCharsets.UTF_8);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.keyCommands().scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(key);
+        CompressionDictionaryTrainer trainer = new CompressionDictionaryTrainer(connectionFactory,
+                new KeyStrategyRedisSerializer(new NamespacedKeyStrategy("catalog:", 2, 0)), serializer, compressor, 1024);
+
+        // the sampled key has expired since the scan, leaving nothing to train from
+        assertThrows(IllegalArgumentException.class, () -> trainer.train("product:*", 10));
+
+        ArgumentCaptor<ScanOptions> options = ArgumentCaptor.forClass(ScanOptions.class);
+        verify(connection.keyCommands()).scan(options.capture());
+        assertEquals("catalog:v2:product:*", options.getValue().getPattern());
+    }
+
+    @AfterEach
+    void tearDown() {
+        compressor.close();
+        otherInstances.forEach(ZstdDictionaryCompressor::close);
+    }
+
+    private ZstdDictionaryCompressor otherInstance() {
+        ZstdDictionaryCompressor otherInstance = new ZstdDictionaryCompressor(dictionaryStore, 3, Duration.ZERO);
+        otherInstances.add(otherInstance);
+        return otherInstance;
+    }
+
+    private static Product product(int i) {
+        return Product.builder()
+                .id("product-" + i)
+                .name("Milk " + (i % 50))
+                .price(10.0 + i % 20)
+                .createAt(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(i))
+                .build();
+    }
+
+    private static class InMemoryDictionaryStore implements DictionaryStore {
+
+        private final Map<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+        private final AtomicInteger sequence = new AtomicInteger();
+        private final AtomicInteger loads = new AtomicInteger();
+        private volatile int current;
+        private volatile boolean loadsBlocked;
+
+        @Override
+        public int currentVersion() {
+            return current;
+        }
+
+        @Override
+        public byte[] load(int version) {
+            while (loadsBlocked) {
+                Thread.onSpinWait();
+            }
+            loads.incrementAndGet();
+            return dictionaries.get(version);
+        }
+
+        @Override
+        public int nextVersion() {
+            return sequence.incrementAndGet();
+        }
+
+        @Override
+        public void save(int version, byte[] dictionary) {
+            dictionaries.put(version, dictionary);
+            current = version;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.mehrdadfalahati.redisutills.serializer.key;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NamespacedKeyStrategyTest {
+
+    private static final String LONG_KEY = "orders:customer:42:open-orders-sorted-by-creation-date-descending";
+
+    @Test
+    void whenNoPrefixOrVersion_expectedPlainUtf8Key() {
+        NamespacedKeyStrategy strategy = new NamespacedKeyStrategy("", 0, 0);
+
+        assertArrayEquals("product:1".getBytes(StandardCharsets.UTF_8), strategy.toRawKey("product:1"));
+        assertEquals("product:1", strategy.fromRawKey(strategy.toRawKey("product:1")));
+        assertEquals("product:*", strategy.toPattern("product:*"));
+    }
+
+    @Test
+    void whenPrefixAndVersion_expectedNamespacedKey() {
+        NamespacedKeyStrategy strategy = new NamespacedKeyStrategy("catalog:", 3, 0);
+
+        assertEquals("catalog:v3:product:1", new String(strategy.toRawKey("product:1"), StandardCharsets.UTF_8));
+        assertEquals("product:1", strategy.fromRawKey(strategy.toRawKey("product:1")));
+        assertEquals("catalog:v3:product:*", strategy.toPattern("product:*"));
+    }
+
+    @Test
+    void whenVersionBumped_expectedOldKeysOutsideNamespace() {
+        NamespacedKeyStrategy before = new NamespacedKeyStrategy("catalog:", 3, 0);
+        NamespacedKeyStrategy after = new NamespacedKeyStrategy("catalog:", 4, 0);
+
+        assertFalse(Arrays.equals(before.toRawKey("product:1"), after.toRawKey("product:1")));
+        assertNull(after.fromRawKey(before.toRawKey("product:1")));
+    }
+
+    @Test
+    void whenPrefixHasGlobCharacters_expectedEscapedInPattern() {
+        NamespacedKeyStrategy strategy = new NamespacedKeyStrategy("tenant[1]*:", 0, 0);
+
+        assertEquals("tenant\\[1\\]\\*:product:*", strategy.toPattern("product:*"));
+    }
+
+    @Test
+    void whenPrefixLongerThanThreshold_expectedNamespacedPrefixNotHashed() {
+        NamespacedKeyStrategy strategy = new NamespacedKeyStrategy("catalog:", 1, 8);
+
+        assertArrayEquals("catalog:v1:products:summer:".getBytes(StandardCharsets.UTF_8),
+                strategy.toRawPrefix("products:summer:"));
+    }
+
+    @Test
+    void whenKeyLongerThanThreshold_expectedFixedWidthDigest() {
+        NamespacedKeyStrategy strategy = new NamespacedKeyStrategy("catalog:", 1, 32);
+
+        byte[] rawKey = strategy.toRawKey(LONG_KEY);
+
+        assertEquals("catalog:v1:".length() + 1 + NamespacedKeyStrategy.DIGEST_LENGTH, rawKey.length);
+        assertEquals(rawKey.length, strategy.toRawKey(LONG_KEY + ":page-2").length);
+        assertFalse(Arrays.equals(rawKey, strategy.toRawKey(LONG_KEY + ":page-2")));
+        assertArrayEquals("catalog:v1:short".getBytes(StandardCharsets.UTF_8), strategy.toRawKey("short"));
+    }
+
+    @Test
+    void whenReadingHashedKey_expectedTokenMappingToSameRawKey() {
+        NamespacedKeyStrategy strategy = new NamespacedKeyStrategy("catalog:", 1, 32);
+        byte[] rawKey = strategy.toRawKey(LONG_KEY);
+
+        String token = strategy.fromRawKey(rawKey);
+
+        assertNotEquals(LONG_KEY, token);
+        assertArrayEquals(rawKey, strategy.toRawKey(token));
+    }
+
+    @Test
+    void whenHashingKeyWithHashTag_expectedHashTagKept() {
+        NamespacedKeyStrategy strategy = new NamespacedKeyStrategy("catalog:", 1, 32);
+        byte[] rawKey = strategy.toRawKey("{customer:42}" + LONG_KEY);
+
+        assertArrayEquals("catalog:v1:{customer:42}".getBytes(StandardCharsets.UTF_8),
+                Arrays.copyOf(rawKey, "catalog:v1:{customer:42}".length()));
+        assertEquals(ClusterSlotHashUtil.calculateSlot("{customer:42}" + LONG_KEY), ClusterSlotHashUtil.calculateSlot(rawKey));
+        assertArrayEquals(rawKey, strategy.toRawKey(strategy.fromRawKey(rawKey)));
+    }
+
+    @Test
+    void whenKeyStartsWithNulButIsNoToken_expectedRejected() {
+        NamespacedKeyStrategy strategy = new NamespacedKeyStrategy("", 0, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> strategy.toRawKey("\0abc"));
+    }
+}
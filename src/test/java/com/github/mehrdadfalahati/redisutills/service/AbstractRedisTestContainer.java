@@ -5,11 +5,16 @@ import com.github.mehrdadfalahati.redisutills.service.dto.Product;
 import com.redis.testcontainers.RedisContainer;
 import lombok.extern.log4j.Log4j2;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.utility.DockerImageName;
 
+import java.util.Properties;
+
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Log4j2
@@ -35,6 +40,9 @@ public abstract class AbstractRedisTestContainer {
                 .toString());
     }
 
+    @Autowired
+    protected RedisTemplate<String, Object> redisTemplate;
+
     protected final Product milk = Product.builder()
             .name("Milk")
             .price(10.2)
@@ -45,6 +53,23 @@ public abstract class AbstractRedisTestContainer {
             .price(100.5)
             .build();
 
+    protected void resetCommandStats() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().resetConfigStats();
+            return null;
+        });
+    }
+
+    protected long commandCalls(String command) {
+        Properties commandStats = redisTemplate.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("commandstats"));
+        String stats = commandStats.getProperty("cmdstat_" + command);
+        if (stats == null) {
+            return 0;
+        }
+        return Long.parseLong(stats.substring("calls=".length(), stats.indexOf(',')));
+    }
+
     @Test
     void givenRedisContainerConfiguredWithDynamicProperties_whenCheckingRunningStatus_thenStatusIsRunning() {
         assertTrue(REDIS_CONTAINER.isRunning());
@@ -0,0 +1,61 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncRedisHashServiceTest extends AbstractRedisTestContainer {
+
+    @Autowired
+    private AsyncRedisService<String, Product> asyncRedisHashService;
+
+    @Test
+    void whenAddingProduct_expectedGetProductWithKey() {
+        asyncRedisHashService.set(new RedisDto<>("async-hash-product", 5, TimeUnit.SECONDS), milk).join();
+
+        Product product = asyncRedisHashService.get("async-hash-product", Product.getTypeReference()).join();
+        assertEquals(milk.getId(), product.getId());
+        assertTrue(redisTemplate.getExpire("async-hash-product") > 0);
+    }
+
+    @Test
+    void whenAddingProductIfAbsentTwice_expectedFirstProductKept() {
+        asyncRedisHashService.delete("async-hash-product").join();
+        asyncRedisHashService.setIfAbsent(new RedisDto<>("async-hash-product", 5, TimeUnit.SECONDS), milk).join();
+        asyncRedisHashService.setIfAbsent(new RedisDto<>("async-hash-product", 5, TimeUnit.SECONDS), meat).join();
+
+        Product product = asyncRedisHashService.get("async-hash-product", Product.getTypeReference()).join();
+        assertEquals(milk.getId(), product.getId());
+    }
+
+    @Test
+    void whenAddingProduct_thenCallDeleteByKey_expectedGetNone() {
+        asyncRedisHashService.set(new RedisDto<>("async-hash-product", 5, TimeUnit.SECONDS), milk).join();
+
+        asyncRedisHashService.delete("async-hash-product").join();
+        assertNull(asyncRedisHashService.get("async-hash-product", Product.getTypeReference()).join());
+        assertFalse(asyncRedisHashService.hasKey("async-hash-product").join());
+    }
+
+    @Test
+    void whenFanningOutLookups_expectedAllProductsWithoutBlocking() {
+        List<CompletableFuture<Void>> writes = IntStream.range(0, 100)
+                .mapToObj(i -> asyncRedisHashService.set(new RedisDto<>("async-hash-product:" + i, 5, TimeUnit.SECONDS), milk))
+                .toList();
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+
+        List<CompletableFuture<Product>> reads = IntStream.range(0, 100)
+                .mapToObj(i -> asyncRedisHashService.get("async-hash-product:" + i, Product.getTypeReference()))
+                .toList();
+        CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new)).join();
+
+        assertTrue(reads.stream().allMatch(read -> milk.getId().equals(read.join().getId())));
+    }
+}
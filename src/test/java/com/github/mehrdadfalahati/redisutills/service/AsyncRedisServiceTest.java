@@ -0,0 +1,61 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncRedisServiceTest extends AbstractRedisTestContainer {
+
+    @Autowired
+    private AsyncRedisService<String, Product> asyncRedisService;
+
+    @Test
+    void whenAddingProduct_expectedGetProductWithKey() {
+        asyncRedisService.set(new RedisDto<>("async-product", 5, TimeUnit.SECONDS), milk).join();
+
+        Product product = asyncRedisService.get("async-product", Product.getTypeReference()).join();
+        assertEquals(milk.getId(), product.getId());
+        assertTrue(redisTemplate.getExpire("async-product") > 0);
+    }
+
+    @Test
+    void whenAddingProductIfAbsentTwice_expectedFirstProductKept() {
+        asyncRedisService.delete("async-product").join();
+        asyncRedisService.setIfAbsent(new RedisDto<>("async-product", 5, TimeUnit.SECONDS), milk).join();
+        asyncRedisService.setIfAbsent(new RedisDto<>("async-product", 5, TimeUnit.SECONDS), meat).join();
+
+        Product product = asyncRedisService.get("async-product", Product.getTypeReference()).join();
+        assertEquals(milk.getId(), product.getId());
+    }
+
+    @Test
+    void whenAddingProduct_thenCallDeleteByKey_expectedGetNone() {
+        asyncRedisService.set(new RedisDto<>("async-product", 5, TimeUnit.SECONDS), milk).join();
+
+        asyncRedisService.delete("async-product").join();
+        assertNull(asyncRedisService.get("async-product", Product.getTypeReference()).join());
+        assertFalse(asyncRedisService.hasKey("async-product").join());
+    }
+
+    @Test
+    void whenFanningOutLookups_expectedAllProductsWithoutBlocking() {
+        List<CompletableFuture<Void>> writes = IntStream.range(0, 100)
+                .mapToObj(i -> asyncRedisService.set(new RedisDto<>("async-product:" + i, 5, TimeUnit.SECONDS), milk))
+                .toList();
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+
+        List<CompletableFuture<Product>> reads = IntStream.range(0, 100)
+                .mapToObj(i -> asyncRedisService.get("async-product:" + i, Product.getTypeReference()))
+                .toList();
+        CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new)).join();
+
+        assertTrue(reads.stream().allMatch(read -> milk.getId().equals(read.join().getId())));
+    }
+}
@@ -0,0 +1,255 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import com.github.mehrdadfalahati.redisutills.service.impl.BucketedRedisService;
+import com.github.mehrdadfalahati.redisutills.service.impl.SingleFlightLoader;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Log4j2
+public class BucketedRedisServiceTest extends AbstractRedisTestContainer {
+
+    private static final TypeReference<Integer> INTEGER = new TypeReference<>() {
+    };
+    private static final int BENCHMARK_KEYS = 20_000;
+
+    @Autowired
+    private BucketedRedisService<String, Product> bucketedRedisService;
+
+    @Autowired
+    private RedisService<String, Integer> redisService;
+
+    @Autowired
+    private RedisTemplate<String, Integer> integerRedisTemplate;
+
+    @Autowired
+    private RedisValueReader redisValueReader;
+
+    @Autowired
+    private RedisInvalidationPublisher invalidationPublisher;
+
+    @Autowired
+    private SingleFlightLoader singleFlightLoader;
+
+    @Test
+    void whenSettingProduct_expectedStoredInBucketInsteadOfOwnKey() {
+        bucketedRedisService.set(new RedisDto<>("bucket-milk", 5, TimeUnit.SECONDS), milk);
+
+        assertEquals(milk, bucketedRedisService.get("bucket-milk", Product.getTypeReference()));
+        assertTrue(bucketedRedisService.hasKey("bucket-milk"));
+        assertFalse(redisTemplate.hasKey("bucket-milk"));
+        long expire = bucketedRedisService.getExpire("bucket-milk", TimeUnit.MILLISECONDS);
+        assertTrue(expire > 0 && expire <= 5000);
+    }
+
+    @Test
+    void whenDeletingProduct_expectedGetNone() {
+        bucketedRedisService.set(new RedisDto<>("bucket-deleted", 5, TimeUnit.SECONDS), milk);
+
+        bucketedRedisService.delete("bucket-deleted");
+
+        assertNull(bucketedRedisService.get("bucket-deleted", Product.getTypeReference()));
+        assertFalse(bucketedRedisService.hasKey("bucket-deleted"));
+        assertEquals(-2, bucketedRedisService.getExpire("bucket-deleted", TimeUnit.SECONDS));
+    }
+
+    @Test
+    void whenSettingProductIfAbsentTwice_expectedFirstProductKept() {
+        bucketedRedisService.delete("bucket-absent");
+        bucketedRedisService.setIfAbsent(new RedisDto<>("bucket-absent", 5, TimeUnit.SECONDS), milk);
+        bucketedRedisService.setIfAbsent(new RedisDto<>("bucket-absent", 5, TimeUnit.SECONDS), meat);
+
+        assertEquals(milk.getId(), bucketedRedisService.get("bucket-absent", Product.getTypeReference()).getId());
+    }
+
+    @Test
+    void whenEntryExpires_expectedGoneAndWritableIfAbsent() throws InterruptedException {
+        bucketedRedisService.set(new RedisDto<>("bucket-expiring", 100, TimeUnit.MILLISECONDS), milk);
+        Thread.sleep(200);
+
+        assertNull(bucketedRedisService.get("bucket-expiring", Product.getTypeReference()));
+        assertFalse(bucketedRedisService.hasKey("bucket-expiring"));
+
+        bucketedRedisService.setIfAbsent(new RedisDto<>("bucket-expiring", 5, TimeUnit.SECONDS), meat);
+        assertEquals(meat.getId(), bucketedRedisService.get("bucket-expiring", Product.getTypeReference()).getId());
+    }
+
+    @Test
+    void whenSettingProductsInBulk_expectedGetAllProductsWithKeys() {
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        products.put(new RedisDto<>("bucket-bulk-milk", 5, TimeUnit.SECONDS), milk);
+        products.put(new RedisDto<>("bucket-bulk-meat", 5, TimeUnit.SECONDS), meat);
+        bucketedRedisService.setAll(products);
+
+        Map<String, Product> loaded = bucketedRedisService.getAll(
+                List.of("bucket-bulk-milk", "bucket-bulk-missing", "bucket-bulk-meat"), Product.getTypeReference());
+
+        assertEquals(List.of("bucket-bulk-milk", "bucket-bulk-meat"), List.copyOf(loaded.keySet()));
+        assertEquals(meat, loaded.get("bucket-bulk-meat"));
+    }
+
+    @Test
+    void whenEntriesReadExpired_expectedOnlyThoseFieldsRemoved() throws InterruptedException {
+        BucketedRedisService<String, Integer> bucketed = singleBucket("bucket-expired:");
+        Map<RedisDto<String>, Integer> values = new LinkedHashMap<>();
+        values.put(new RedisDto<>("bucket-expired-a", 100, TimeUnit.MILLISECONDS), 1);
+        values.put(new RedisDto<>("bucket-expired-b", 100, TimeUnit.MILLISECONDS), 2);
+        values.put(new RedisDto<>("bucket-expired-live", 5, TimeUnit.SECONDS), 3);
+        values.put(new RedisDto<>("bucket-expired-unread", 100, TimeUnit.MILLISECONDS), 4);
+        bucketed.setAll(values);
+        Thread.sleep(200);
+
+        Map<String, Integer> loaded = bucketed.getAll(List.of("bucket-expired-a", "bucket-expired-b",
+                "bucket-expired-live"), INTEGER);
+
+        assertEquals(Map.of("bucket-expired-live", 3), loaded);
+        assertEquals(2, redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.hashCommands().hLen(bytes("bucket-expired:0"))));
+        assertEquals(1, bucketed.purgeExpired());
+    }
+
+    @Test
+    void whenEntriesExpireUnread_expectedPurgedOnSchedule() {
+        RedisUtilsProperties properties = singleBucketProperties("bucket-purged:");
+        properties.getBucket().setPurgeInterval(Duration.ofMillis(50));
+        BucketedRedisService<String, Integer> bucketed = new BucketedRedisService<>(integerRedisTemplate,
+                redisValueReader, invalidationPublisher, singleFlightLoader, properties);
+        bucketed.set(new RedisDto<>("bucket-purged-unread", 100, TimeUnit.MILLISECONDS), 1);
+        bucketed.set(new RedisDto<>("bucket-purged-live", 5, TimeUnit.SECONDS), 2);
+
+        bucketed.afterPropertiesSet();
+        try {
+            // the live entry keeps the bucket, and without HPEXPIRE the unread one with it, until the purge
+            await().atMost(Duration.ofSeconds(2)).until(() -> redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.hashCommands().hLen(bytes("bucket-purged:0"))) == 1);
+            assertEquals(2, bucketed.get("bucket-purged-live", INTEGER));
+        } finally {
+            bucketed.destroy();
+        }
+    }
+
+    @Test
+    void whenScriptCacheFlushed_expectedWritesFallBackToEval() {
+        BucketedRedisService<String, Integer> bucketed = singleBucket("bucket-noscript:");
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+        bucketed.set(new RedisDto<>("bucket-noscript-single", 5, TimeUnit.SECONDS), 1);
+
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+        bucketed.setAll(Map.of(new RedisDto<>("bucket-noscript-bulk", 5, TimeUnit.SECONDS), 2));
+
+        assertEquals(1, bucketed.get("bucket-noscript-single", INTEGER));
+        assertEquals(2, bucketed.get("bucket-noscript-bulk", INTEGER));
+    }
+
+    private BucketedRedisService<String, Integer> singleBucket(String prefix) {
+        return new BucketedRedisService<>(integerRedisTemplate, redisValueReader, invalidationPublisher,
+                singleFlightLoader, singleBucketProperties(prefix));
+    }
+
+    private RedisUtilsProperties singleBucketProperties(String prefix) {
+        RedisUtilsProperties properties = new RedisUtilsProperties();
+        properties.getBucket().setPrefix(prefix);
+        properties.getBucket().setCount(1);
+        redisTemplate.delete(prefix + "0");
+        return properties;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void whenStoringManySmallValues_expectedBucketsUseLessMemoryThanKeys() {
+        RedisUtilsProperties properties = new RedisUtilsProperties();
+        properties.getBucket().setPrefix("bucket-benchmark:");
+        properties.getBucket().setCount(BENCHMARK_KEYS / 100);
+        BucketedRedisService<String, Integer> bucketed = new BucketedRedisService<>(integerRedisTemplate,
+                redisValueReader, invalidationPublisher, singleFlightLoader, properties);
+        Map<RedisDto<String>, Integer> values = new LinkedHashMap<>();
+        IntStream.range(0, BENCHMARK_KEYS).forEach(i ->
+                values.put(new RedisDto<>("bucket-benchmark-key:" + i, 1, TimeUnit.MINUTES), i));
+
+        long keysMemory = usedMemoryOf(redisService::setAll, values);
+        long bucketsMemory = usedMemoryOf(bucketed::setAll, values);
+        log.info("{} small values: {} bytes as keys, {} bytes in {} buckets", BENCHMARK_KEYS, keysMemory,
+                bucketsMemory, properties.getBucket().getCount());
+
+        assertEquals(BENCHMARK_KEYS - 1, bucketed.get("bucket-benchmark-key:" + (BENCHMARK_KEYS - 1), INTEGER));
+        assertTrue(bucketsMemory * 2 < keysMemory, keysMemory + " bytes as keys, " + bucketsMemory + " in buckets");
+    }
+
+    private long usedMemoryOf(Consumer<Map<RedisDto<String>, Integer>> write, Map<RedisDto<String>, Integer> values) {
+        long before = usedMemory();
+        write.accept(values);
+        return usedMemory() - before;
+    }
+
+    private long usedMemory() {
+        Properties memory = redisTemplate.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("memory"));
+        return Long.parseLong(memory.getProperty("used_memory"));
+    }
+
+    @Test
+    void whenScanningProducts_expectedMatchingLiveEntriesStreamed() {
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        IntStream.range(0, 50).forEach(i -> products.put(new RedisDto<>("bucket-scan:" + i, 5, TimeUnit.SECONDS),
+                Product.builder().name("Product " + i).build()));
+        bucketedRedisService.setAll(products);
+
+        try (Stream<Map.Entry<String, Product>> entries = bucketedRedisService.scan("bucket-scan:*", 100,
+                Product.getTypeReference())) {
+            assertEquals(50, entries.map(Map.Entry::getKey).distinct().count());
+        }
+    }
+
+    @Test
+    void whenDeletingProducts_expectedCountOfRemovedEntries() {
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        IntStream.range(0, 30).forEach(i -> products.put(new RedisDto<>("bucket-delete:" + i, 5, TimeUnit.SECONDS),
+                Product.builder().name("Product " + i).build()));
+        bucketedRedisService.setAll(products);
+
+        assertEquals(2, bucketedRedisService.deleteAll(List.of("bucket-delete:0", "bucket-delete:1", "bucket-delete:missing")));
+        assertEquals(28, bucketedRedisService.deleteByPattern("bucket-delete:*"));
+        assertFalse(bucketedRedisService.hasKey("bucket-delete:29"));
+    }
+
+    @Test
+    void whenCheckingManyKeys_expectedBitPerLiveEntry() {
+        bucketedRedisService.set(new RedisDto<>("bucket-exists-milk", 5, TimeUnit.SECONDS), milk);
+        bucketedRedisService.set(new RedisDto<>("bucket-exists-meat", 5, TimeUnit.SECONDS), meat);
+        List<String> keys = List.of("bucket-exists-milk", "bucket-exists-missing", "bucket-exists-meat");
+
+        assertEquals(BitSet.valueOf(new long[]{0b101}), bucketedRedisService.hasKeys(keys));
+        assertEquals(2, bucketedRedisService.countExisting(keys));
+    }
+}
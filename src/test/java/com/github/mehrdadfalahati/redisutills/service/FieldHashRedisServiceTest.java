@@ -0,0 +1,132 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldHashRedisServiceTest extends AbstractRedisTestContainer {
+
+    @Autowired
+    private RedisFieldHashService<String, Product> fieldHashRedisService;
+
+    @Test
+    void whenSettingProduct_expectedEachPropertyStoredAsField() {
+        fieldHashRedisService.set(new RedisDto<>("field-hash-milk", 5, TimeUnit.SECONDS), milk);
+
+        Set<byte[]> fields = redisTemplate.execute((RedisCallback<Set<byte[]>>) connection ->
+                connection.hashCommands().hKeys("field-hash-milk".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(Set.of("id", "name", "price", "createAt"), fields.stream()
+                .map(field -> new String(field, StandardCharsets.UTF_8))
+                .collect(Collectors.toSet()));
+
+        Product product = fieldHashRedisService.get("field-hash-milk", Product.getTypeReference());
+        assertEquals(milk, product);
+        long expire = redisTemplate.getExpire("field-hash-milk", TimeUnit.MILLISECONDS);
+        assertTrue(expire > 0 && expire <= 5000);
+    }
+
+    @Test
+    void whenGettingFields_expectedOnlyExistingFieldsInRequestOrder() {
+        fieldHashRedisService.set(new RedisDto<>("field-hash-meat", 5, TimeUnit.SECONDS), meat);
+
+        Map<String, Object> fields = fieldHashRedisService.getFields("field-hash-meat",
+                new LinkedHashSet<>(List.of("price", "missing", "name")));
+
+        assertEquals(List.of("price", "name"), List.copyOf(fields.keySet()));
+        assertEquals(100.5, fields.get("price"));
+        assertEquals("Meat", fields.get("name"));
+    }
+
+    @Test
+    void whenUpdatingFields_expectedOnlyThoseFieldsChanged() {
+        fieldHashRedisService.set(new RedisDto<>("field-hash-update", 5, TimeUnit.SECONDS), milk);
+        Map<String, Object> update = new HashMap<>();
+        update.put("price", 12.5);
+        update.put("name", null);
+
+        assertTrue(fieldHashRedisService.updateFields("field-hash-update", update));
+
+        Product product = fieldHashRedisService.get("field-hash-update", Product.getTypeReference());
+        assertEquals(milk.getId(), product.getId());
+        assertEquals(12.5, product.getPrice());
+        assertNull(product.getName());
+        assertEquals(milk.getCreateAt(), product.getCreateAt());
+        assertTrue(redisTemplate.getExpire("field-hash-update") > 0);
+    }
+
+    @Test
+    void whenUpdatingFieldsOfMissingKey_expectedNothingWritten() {
+        fieldHashRedisService.delete("field-hash-missing");
+
+        assertFalse(fieldHashRedisService.updateFields("field-hash-missing", Map.of("price", 1.0)));
+        assertFalse(fieldHashRedisService.hasKey("field-hash-missing"));
+    }
+
+    @Test
+    void whenSettingProductWithFewerFields_expectedStaleFieldsRemoved() {
+        fieldHashRedisService.set(new RedisDto<>("field-hash-replace", 5, TimeUnit.SECONDS), milk);
+        Product renamed = Product.builder().price(1.0).build();
+        fieldHashRedisService.set(new RedisDto<>("field-hash-replace", 5, TimeUnit.SECONDS), renamed);
+
+        Product product = fieldHashRedisService.get("field-hash-replace", Product.getTypeReference());
+        assertEquals(renamed.getId(), product.getId());
+        assertNull(product.getName());
+    }
+
+    @Test
+    void whenSettingProductIfAbsentTwice_expectedFirstProductKept() {
+        fieldHashRedisService.delete("field-hash-absent");
+        fieldHashRedisService.setIfAbsent(new RedisDto<>("field-hash-absent", 5, TimeUnit.SECONDS), milk);
+        fieldHashRedisService.setIfAbsent(new RedisDto<>("field-hash-absent", 5, TimeUnit.SECONDS), meat);
+
+        assertEquals(milk.getId(), fieldHashRedisService.get("field-hash-absent", Product.getTypeReference()).getId());
+    }
+
+    @Test
+    void whenSettingProductsInBulk_expectedGetAllProductsWithKeys() {
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        products.put(new RedisDto<>("field-hash-bulk-milk", 5, TimeUnit.SECONDS), milk);
+        products.put(new RedisDto<>("field-hash-bulk-meat", 5, TimeUnit.SECONDS), meat);
+        fieldHashRedisService.setAll(products);
+
+        Map<String, Product> loaded = fieldHashRedisService.getAll(
+                List.of("field-hash-bulk-milk", "field-hash-bulk-missing", "field-hash-bulk-meat"),
+                Product.getTypeReference());
+
+        assertEquals(List.of("field-hash-bulk-milk", "field-hash-bulk-meat"), List.copyOf(loaded.keySet()));
+        assertEquals(meat, loaded.get("field-hash-bulk-meat"));
+        assertTrue(redisTemplate.getExpire("field-hash-bulk-meat") > 0);
+    }
+
+    @Test
+    void whenSettingProductsInBulkAfterScriptFlush_expectedScriptSentOnceAndDigestUsed() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+        resetCommandStats();
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        products.put(new RedisDto<>("field-hash-digest-milk", 5, TimeUnit.SECONDS), milk);
+        products.put(new RedisDto<>("field-hash-digest-meat", 5, TimeUnit.SECONDS), meat);
+
+        fieldHashRedisService.setAll(products);
+        fieldHashRedisService.setAll(products);
+
+        assertEquals(2, commandCalls("eval"));
+        assertEquals(4, commandCalls("evalsha"));
+        assertEquals(milk, fieldHashRedisService.get("field-hash-digest-milk", Product.getTypeReference()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveRedisServiceTest extends AbstractRedisTestContainer {
+
+    @Autowired
+    private ReactiveRedisService<String, Product> reactiveRedisService;
+
+    @Test
+    void whenAddingProduct_expectedGetProductWithKey() {
+        reactiveRedisService.set(new RedisDto<>("reactive-product", 5, TimeUnit.SECONDS), milk).block();
+
+        Product product = reactiveRedisService.get("reactive-product", Product.getTypeReference()).block();
+        assertEquals(milk.getId(), product.getId());
+        assertTrue(redisTemplate.getExpire("reactive-product") > 0);
+    }
+
+    @Test
+    void whenAddingProductIfAbsentTwice_expectedFirstProductKept() {
+        reactiveRedisService.delete("reactive-product").block();
+        reactiveRedisService.setIfAbsent(new RedisDto<>("reactive-product", 5, TimeUnit.SECONDS), milk).block();
+        reactiveRedisService.setIfAbsent(new RedisDto<>("reactive-product", 5, TimeUnit.SECONDS), meat).block();
+
+        Product product = reactiveRedisService.get("reactive-product", Product.getTypeReference()).block();
+        assertEquals(milk.getId(), product.getId());
+    }
+
+    @Test
+    void whenAddingProduct_thenCallDeleteByKey_expectedGetNone() {
+        reactiveRedisService.set(new RedisDto<>("reactive-product", 5, TimeUnit.SECONDS), milk).block();
+
+        reactiveRedisService.delete("reactive-product").block();
+        assertNull(reactiveRedisService.get("reactive-product", Product.getTypeReference()).block());
+        assertFalse(reactiveRedisService.hasKey("reactive-product").block());
+    }
+
+    @Test
+    void whenStreamingKeys_expectedProductsInBatches() {
+        IntStream.range(0, 250).forEach(i -> reactiveRedisService
+                .set(new RedisDto<>("reactive-product:" + i, 5, TimeUnit.SECONDS), milk)
+                .block());
+        Flux<String> keys = Flux.range(0, 260).map(i -> "reactive-product:" + i);
+
+        resetCommandStats();
+        List<Map.Entry<String, Product>> products = reactiveRedisService
+                .getAll(keys, Product.getTypeReference(), 100)
+                .collectList()
+                .block();
+
+        assertEquals(250, products.size());
+        assertEquals("reactive-product:0", products.get(0).getKey());
+        assertEquals(3, commandCalls("mget"));
+    }
+}
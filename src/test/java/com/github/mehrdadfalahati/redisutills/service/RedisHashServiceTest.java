@@ -5,14 +5,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 public class RedisHashServiceTest extends AbstractRedisTestContainer  {
 
     @Autowired
-    private RedisService<String, Product> redisHashService;
+    private RedisHashService<String, Product> redisHashService;
 
     @Autowired
     @Qualifier("redisHashService")
@@ -66,4 +72,128 @@ public class RedisHashServiceTest extends AbstractRedisTestContainer  {
 
         assertTrue(redisHashService.hasKey("product"));
     }
+
+    @Test
+    void whenAddingProductsInBulk_expectedGetAllProductsWithKeys() {
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        products.put(new RedisDto<>("hash-milk", 5, TimeUnit.SECONDS), milk);
+        products.put(new RedisDto<>("hash-meat", 5, TimeUnit.SECONDS), meat);
+        redisHashService.setAll(products);
+
+        Map<String, Product> loaded = redisHashService.getAll(List.of("hash-milk", "missing", "hash-meat"),
+                Product.getTypeReference());
+        assertEquals(List.of("hash-milk", "hash-meat"), List.copyOf(loaded.keySet()));
+        assertEquals(meat.getId(), loaded.get("hash-meat").getId());
+    }
+
+    @Test
+    void whenAddingThousandProductsInBulk_expectedGetAllProductsWithExpiry() {
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        IntStream.range(0, 1000).forEach(i -> products.put(new RedisDto<>("hash-product:" + i, 5, TimeUnit.SECONDS),
+                Product.builder().name("Product " + i).price((double) i).build()));
+        List<String> keys = products.keySet().stream().map(RedisDto::key).toList();
+
+        redisHashService.setAll(products);
+        Map<String, Product> loaded = redisHashService.getAll(keys, Product.getTypeReference());
+
+        assertEquals(1000, loaded.size());
+        assertTrue(redisTemplate.getExpire("hash-product:999") > 0);
+    }
+
+    @Test
+    void whenAddingProductToNewKey_expectedKeyExpires() {
+        redisHashService.delete("fresh-product");
+        redisHashService.set(new RedisDto<>("fresh-product", 5, TimeUnit.SECONDS), milk);
+
+        long expire = redisTemplate.getExpire("fresh-product", TimeUnit.MILLISECONDS);
+        assertTrue(expire > 0 && expire <= 5000);
+    }
+
+    @Test
+    void whenAddingProductIfAbsentTwice_expectedFirstProductKept() {
+        redisHashService.delete("fresh-product");
+        redisHashService.setIfAbsent(new RedisDto<>("fresh-product", 5, TimeUnit.SECONDS), milk);
+        redisHashService.setIfAbsent(new RedisDto<>("fresh-product", 5, TimeUnit.SECONDS), meat);
+
+        assertEquals(milk.getId(), redisHashService.get("fresh-product", Product.getTypeReference()).getId());
+        assertTrue(redisTemplate.getExpire("fresh-product") > 0);
+    }
+
+    @Test
+    void whenPuttingFields_expectedGetFieldsInRequestOrder() {
+        redisHashService.delete("product-fields");
+        redisHashService.putField("product-fields", "milk", milk, Duration.ofSeconds(5));
+        redisHashService.putField("product-fields", "meat", meat, Duration.ofSeconds(5));
+
+        assertEquals(milk.getId(), redisHashService.getField("product-fields", "milk", Product.getTypeReference()).getId());
+        Map<String, Product> products = redisHashService.getFields("product-fields", List.of("meat", "missing", "milk"),
+                Product.getTypeReference());
+        assertEquals(List.of("meat", "milk"), List.copyOf(products.keySet()));
+        assertTrue(redisTemplate.getExpire("product-fields") > 0);
+    }
+
+    @Test
+    void whenFieldExpires_expectedOtherFieldsKept() throws InterruptedException {
+        redisHashService.delete("product-expiring-fields");
+        redisHashService.putField("product-expiring-fields", "milk", milk, Duration.ofMillis(100));
+        redisHashService.putField("product-expiring-fields", "meat", meat, Duration.ofSeconds(5));
+        Thread.sleep(200);
+
+        assertNull(redisHashService.getField("product-expiring-fields", "milk", Product.getTypeReference()));
+        assertEquals(meat.getId(), redisHashService.getField("product-expiring-fields", "meat",
+                Product.getTypeReference()).getId());
+        assertTrue(redisTemplate.hasKey("product-expiring-fields"));
+    }
+
+    @Test
+    void whenDeletingFields_expectedCountOfRemovedFields() {
+        redisHashService.delete("product-deleted-fields");
+        redisHashService.putField("product-deleted-fields", "milk", milk, Duration.ofSeconds(5));
+        redisHashService.putField("product-deleted-fields", "meat", meat, Duration.ofSeconds(5));
+
+        assertEquals(1, redisHashService.deleteFields("product-deleted-fields", List.of("milk", "missing")));
+        assertNull(redisHashService.getField("product-deleted-fields", "milk", Product.getTypeReference()));
+        assertNotNull(redisHashService.getField("product-deleted-fields", "meat", Product.getTypeReference()));
+    }
+
+    @Test
+    void whenPuttingFieldIntoHashWithoutExpiry_expectedHashKeepsNoExpiry() {
+        redisHashService.delete("product-persistent");
+        redisTemplate.opsForHash().put("product-persistent", "milk", milk);
+        redisHashService.putField("product-persistent", "meat", meat, Duration.ofSeconds(5));
+
+        assertEquals(-1, redisTemplate.getExpire("product-persistent"));
+        redisHashService.delete("product-persistent");
+    }
+
+    @Test
+    void whenScanningProducts_expectedEveryMatchingProductStreamed() {
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        IntStream.range(0, 150).forEach(i -> products.put(new RedisDto<>("hash-scan-product:" + i, 5, TimeUnit.SECONDS),
+                Product.builder().name("Product " + i).price((double) i).build()));
+        redisHashService.setAll(products);
+
+        try (Stream<Map.Entry<String, Product>> entries = redisHashService.scan("hash-scan-product:*", 50,
+                Product.getTypeReference())) {
+            assertEquals(150, entries.map(Map.Entry::getKey).distinct().count());
+        }
+    }
+
+    @Test
+    void whenScanningHashFields_expectedLiveFieldsStreamed() throws InterruptedException {
+        redisHashService.delete("product-scanned-fields");
+        IntStream.range(0, 120).forEach(i -> redisHashService.putField("product-scanned-fields", "product-" + i,
+                Product.builder().name("Product " + i).build(), Duration.ofSeconds(5)));
+        redisHashService.putField("product-scanned-fields", "expiring", milk, Duration.ofMillis(50));
+        Thread.sleep(100);
+
+        Map<Object, Product> fields;
+        try (Stream<Map.Entry<Object, Product>> entries = redisHashService.scanHash("product-scanned-fields", 25,
+                Product.getTypeReference())) {
+            fields = entries.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first));
+        }
+
+        assertEquals(120, fields.size());
+        assertEquals("Product 7", fields.get("product-7").getName());
+    }
 }
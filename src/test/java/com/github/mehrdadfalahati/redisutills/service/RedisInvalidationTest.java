@@ -0,0 +1,89 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationSubscriber;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import com.github.mehrdadfalahati.redisutills.service.impl.NearCacheRedisService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "redis-utils.invalidation.enabled=true")
+class RedisInvalidationTest extends AbstractRedisTestContainer {
+
+    @Autowired
+    private RedisService<String, Product> redisService;
+
+    @Autowired
+    private AsyncRedisService<String, Product> asyncRedisService;
+
+    @Autowired
+    private ReactiveRedisService<String, Product> reactiveRedisService;
+
+    @Autowired
+    private RedisInvalidationSubscriber invalidationSubscriber;
+
+    private NearCacheRedisService<String, Product> nearCacheRedisService;
+
+    @BeforeEach
+    void setUp() {
+        nearCacheRedisService = new NearCacheRedisService<>(redisService, 100, Duration.ofMinutes(1));
+        invalidationSubscriber.register(nearCacheRedisService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        invalidationSubscriber.unregister(nearCacheRedisService);
+    }
+
+    @Test
+    void whenProductChangesOnAnotherInstance_expectedLocalCopyEvicted() {
+        redisService.set(new RedisDto<>("shared-product", 5, TimeUnit.SECONDS), milk);
+        assertEquals(milk.getId(), nearCacheRedisService.get("shared-product", Product.getTypeReference()).getId());
+
+        redisService.set(new RedisDto<>("shared-product", 5, TimeUnit.SECONDS), meat);
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertEquals(meat.getId(),
+                nearCacheRedisService.get("shared-product", Product.getTypeReference()).getId()));
+    }
+
+    @Test
+    void whenProductDeletedOnAnotherInstance_expectedLocalCopyEvicted() {
+        redisService.set(new RedisDto<>("shared-product", 5, TimeUnit.SECONDS), milk);
+        assertNotNull(nearCacheRedisService.get("shared-product", Product.getTypeReference()));
+
+        redisService.delete("shared-product");
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertNull(nearCacheRedisService.get("shared-product", Product.getTypeReference())));
+    }
+
+    @Test
+    void whenProductChangesThroughAsyncService_expectedLocalCopyEvicted() {
+        redisService.set(new RedisDto<>("shared-async-product", 5, TimeUnit.SECONDS), milk);
+        assertEquals(milk.getId(), nearCacheRedisService.get("shared-async-product", Product.getTypeReference()).getId());
+
+        asyncRedisService.set(new RedisDto<>("shared-async-product", 5, TimeUnit.SECONDS), meat).join();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertEquals(meat.getId(),
+                nearCacheRedisService.get("shared-async-product", Product.getTypeReference()).getId()));
+    }
+
+    @Test
+    void whenProductDeletedThroughReactiveService_expectedLocalCopyEvicted() {
+        redisService.set(new RedisDto<>("shared-reactive-product", 5, TimeUnit.SECONDS), milk);
+        assertNotNull(nearCacheRedisService.get("shared-reactive-product", Product.getTypeReference()));
+
+        reactiveRedisService.delete("shared-reactive-product").block();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertNull(nearCacheRedisService.get("shared-reactive-product", Product.getTypeReference())));
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.mehrdadfalahati.redisutills.service;
+
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "redis-utils.load.lease=2s")
+class RedisLoadLeaseTest extends AbstractRedisTestContainer {
+
+    @Autowired
+    private RedisService<String, Product> redisService;
+
+    @Test
+    void whenNoValueCached_expectedLoadedAndStored() {
+        redisService.delete("loaded-product");
+
+        Product product = redisService.getOrLoad(new RedisDto<>("loaded-product", 5, TimeUnit.SECONDS),
+                Product.getTypeReference(), () -> milk);
+
+        assertEquals(milk.getId(), product.getId());
+        assertEquals(milk.getId(), redisService.get("loaded-product", Product.getTypeReference()).getId());
+        assertFalse(redisTemplate.hasKey("loaded-product:lease"));
+    }
+
+    @Test
+    void whenAnotherInstanceHoldsLease_expectedWaitForItsValue() throws Exception {
+        redisService.delete("leased-product");
+        redisTemplate.opsForValue().set("leased-product:lease", "other-instance", 2, TimeUnit.SECONDS);
+
+        CompletableFuture<Product> waiting = CompletableFuture.supplyAsync(() ->
+                redisService.getOrLoad(new RedisDto<>("leased-product", 5, TimeUnit.SECONDS),
+                        Product.getTypeReference(), () -> {
+                            throw new AssertionError("lease holder computes the value");
+                        }));
+        Thread.sleep(200);
+        redisService.set(new RedisDto<>("leased-product", 5, TimeUnit.SECONDS), meat);
+
+        assertEquals(meat.getId(), waiting.get(2, TimeUnit.SECONDS).getId());
+    }
+}
@@ -5,8 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -67,4 +73,94 @@ class RedisServiceTest extends AbstractRedisTestContainer {
 
         assertTrue(redisService.hasKey("product"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenAddingProductsInBulk_expectedGetAllProductsWithKeys() {
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        products.put(new RedisDto<>("milk", 5, TimeUnit.SECONDS), milk);
+        products.put(new RedisDto<>("meat", 5, TimeUnit.SECONDS), meat);
+        redisService.setAll(products);
+
+        Map<String, Product> loaded = redisService.getAll(List.of("milk", "missing", "meat"), Product.getTypeReference());
+        assertEquals(List.of("milk", "meat"), List.copyOf(loaded.keySet()));
+        assertEquals(meat.getId(), loaded.get("meat").getId());
+    }
+
+    @Test
+    void whenAddingThousandProductsInBulk_expectedBoundedRoundTrips() {
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        IntStream.range(0, 1000).forEach(i -> products.put(new RedisDto<>("product:" + i, 5, TimeUnit.SECONDS),
+                Product.builder().name("Product " + i).price((double) i).build()));
+        List<String> keys = products.keySet().stream().map(RedisDto::key).toList();
+
+        resetCommandStats();
+        redisService.setAll(products);
+        Map<String, Product> loaded = redisService.getAll(keys, Product.getTypeReference());
+
+        assertEquals(1000, loaded.size());
+        assertEquals(1, commandCalls("mget"));
+        assertTrue(redisTemplate.getExpire("product:999") > 0);
+    }
+
+    @Test
+    void whenScanningProducts_expectedEveryMatchingProductStreamed() {
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        IntStream.range(0, 250).forEach(i -> products.put(new RedisDto<>("scan-product:" + i, 5, TimeUnit.SECONDS),
+                Product.builder().name("Product " + i).price((double) i).build()));
+        redisService.setAll(products);
+
+        Map<String, Product> scanned;
+        try (Stream<Map.Entry<String, Product>> entries = redisService.scan("scan-product:*", 100,
+                Product.getTypeReference())) {
+            scanned = entries.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first));
+        }
+
+        assertEquals(250, scanned.size());
+        assertEquals("Product 249", scanned.get("scan-product:249").getName());
+    }
+
+    @Test
+    void whenDeletingProductsInBulk_expectedCountOfExistingKeysWithUnlink() {
+        redisService.set(new RedisDto<>("delete-milk", 5, TimeUnit.SECONDS), milk);
+        redisService.set(new RedisDto<>("delete-meat", 5, TimeUnit.SECONDS), meat);
+        resetCommandStats();
+
+        assertEquals(2, redisService.deleteAll(List.of("delete-milk", "delete-missing", "delete-meat")));
+
+        assertFalse(redisService.hasKey("delete-milk"));
+        assertEquals(1, commandCalls("unlink"));
+        assertEquals(0, commandCalls("del"));
+    }
+
+    @Test
+    void whenDeletingProductsByPattern_expectedEveryMatchingKeyRemoved() {
+        Map<RedisDto<String>, Product> products = new LinkedHashMap<>();
+        IntStream.range(0, 1200).forEach(i -> products.put(new RedisDto<>("delete-pattern:" + i, 5, TimeUnit.SECONDS),
+                Product.builder().name("Product " + i).build()));
+        redisService.setAll(products);
+        redisService.set(new RedisDto<>("delete-kept", 5, TimeUnit.SECONDS), milk);
+
+        assertEquals(1200, redisService.deleteByPattern("delete-pattern:*"));
+
+        try (Stream<Map.Entry<String, Product>> remaining = redisService.scan("delete-pattern:*", 500,
+                Product.getTypeReference())) {
+            assertEquals(0, remaining.count());
+        }
+        assertTrue(redisService.hasKey("delete-kept"));
+    }
+
+    @Test
+    void whenCheckingManyKeys_expectedBitPerKeyInInputOrder() {
+        redisService.set(new RedisDto<>("exists-milk", 5, TimeUnit.SECONDS), milk);
+        redisService.set(new RedisDto<>("exists-meat", 5, TimeUnit.SECONDS), meat);
+        List<String> keys = List.of("exists-milk", "exists-missing", "exists-meat");
+        resetCommandStats();
+
+        assertEquals(BitSet.valueOf(new long[]{0b101}), redisService.hasKeys(keys));
+        assertEquals(3, commandCalls("exists"));
+
+        resetCommandStats();
+        assertEquals(2, redisService.countExisting(keys));
+        assertEquals(1, commandCalls("exists"));
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.mehrdadfalahati.redisutills.service.dto;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.mehrdadfalahati.redisutills.codegen.RedisValue;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +15,7 @@ import java.util.UUID;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@RedisValue
 public class Product {
 
     @Builder.Default
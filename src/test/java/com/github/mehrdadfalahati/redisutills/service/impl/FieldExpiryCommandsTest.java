@@ -0,0 +1,147 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.CodecRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.JsonRedisValueCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.serializer.TypedRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.key.KeyStrategyRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.key.NamespacedKeyStrategy;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which commands the field expiry paths send for each server version; {@code RedisFieldExpiryTest} runs them
+ * against real Redis 7.4 and 8 servers.
+ */
+class FieldExpiryCommandsTest {
+
+    private final TypedRedisSerializer serializer = new CodecRedisSerializer(new JsonRedisValueCodec(new ObjectMapper()), List.of());
+    private final RedisUtilsProperties properties = new RedisUtilsProperties();
+
+    private RespStandIn standIn;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> redisTemplate;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionFactory.destroy();
+        standIn.close();
+    }
+
+    @Test
+    void whenPuttingFieldOnRedis8_expectedHsetex() throws Exception {
+        RedisHashServiceImpl<String, String> redisHashService = redisHashService("8.0.2");
+
+        redisHashService.putField("product-fields", "milk", "Milk", Duration.ofSeconds(5));
+
+        assertEquals(List.of(List.of("product-fields", "PX", "5000", "FIELDS", "1", "milk", "\"Milk\"")),
+                standIn.commands("HSETEX"));
+        assertEquals(0, standIn.calls("EVALSHA"));
+    }
+
+    @Test
+    void whenPuttingFieldOnRedis74_expectedFieldExpiryScript() throws Exception {
+        RedisHashServiceImpl<String, String> redisHashService = redisHashService("7.4.1");
+
+        redisHashService.putField("product-fields", "milk", "Milk", Duration.ofSeconds(5));
+
+        List<String> call = standIn.commands("EVALSHA").get(0);
+        assertEquals(List.of(RedisHashScripts.PUT_FIELD_WITH_FIELD_EXPIRY.getSha1(), "1", "product-fields", "milk",
+                "\"Milk\"", "5000"), call);
+        assertEquals(0, standIn.calls("HSETEX"));
+    }
+
+    @Test
+    void whenPuttingFieldOnRedis72_expectedDeadlineScript() throws Exception {
+        RedisHashServiceImpl<String, String> redisHashService = redisHashService("7.2.4");
+
+        redisHashService.putField("product-fields", "milk", "Milk", Duration.ofSeconds(5));
+
+        assertEquals(RedisHashScripts.PUT_FIELD_WITH_DEADLINE.getSha1(), standIn.commands("EVALSHA").get(0).get(0));
+    }
+
+    @Test
+    void whenSettingInBucketOnRedis74_expectedFieldExpiryScripts() throws Exception {
+        BucketedRedisService<String, String> bucketedRedisService = bucketedRedisService("7.4.1");
+
+        bucketedRedisService.set(new RedisDto<>("bucket-milk", 5, TimeUnit.SECONDS), "Milk");
+        bucketedRedisService.setIfAbsent(new RedisDto<>("bucket-meat", 5, TimeUnit.SECONDS), "Meat");
+
+        List<List<String>> calls = standIn.commands("EVALSHA");
+        assertEquals(RedisBucketScripts.SET_WITH_FIELD_EXPIRY.getSha1(), calls.get(0).get(0));
+        assertEquals(RedisBucketScripts.SET_IF_ABSENT_WITH_FIELD_EXPIRY.getSha1(), calls.get(1).get(0));
+        assertEquals("5000", calls.get(0).get(5));
+    }
+
+    @Test
+    void whenSettingInBucketOnRedis72_expectedDeadlineScripts() throws Exception {
+        BucketedRedisService<String, String> bucketedRedisService = bucketedRedisService("7.2.4");
+
+        bucketedRedisService.set(new RedisDto<>("bucket-milk", 5, TimeUnit.SECONDS), "Milk");
+
+        assertEquals(RedisBucketScripts.SET_WITH_DEADLINE.getSha1(), standIn.commands("EVALSHA").get(0).get(0));
+    }
+
+    @Test
+    void whenKeysNamespaced_expectedBucketNamesInNamespace() throws Exception {
+        BucketedRedisService<String, String> bucketedRedisService = bucketedRedisService("7.2.4");
+        redisTemplate.setKeySerializer(new KeyStrategyRedisSerializer(new NamespacedKeyStrategy("catalog:", 2, 0)));
+
+        bucketedRedisService.set(new RedisDto<>("bucket-milk", 5, TimeUnit.SECONDS), "Milk");
+        bucketedRedisService.purgeExpired();
+
+        String bucket = standIn.commands("EVALSHA").get(0).get(2);
+        assertTrue(bucket.startsWith("catalog:v2:redis-utils:bucket:"), bucket);
+        assertEquals("catalog:v2:bucket-milk", standIn.commands("EVALSHA").get(0).get(3));
+        assertEquals("catalog:v2:redis-utils:bucket:0", standIn.commands("EVALSHA").get(1).get(2));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private RedisHashServiceImpl<String, String> redisHashService(String version) throws Exception {
+        connect(version);
+        RedisInvalidationPublisher invalidationPublisher = new RedisInvalidationPublisher((RedisTemplate) redisTemplate, properties);
+        RedisSlotGrouping slotGrouping = new RedisSlotGrouping(false, 1);
+        return new RedisHashServiceImpl<>(redisTemplate, new RedisValueReader(serializer), invalidationPublisher,
+                new SingleFlightLoader((RedisTemplate) redisTemplate, properties),
+                new RedisKeyDeleter((RedisTemplate) redisTemplate, invalidationPublisher, properties, slotGrouping),
+                slotGrouping);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private BucketedRedisService<String, String> bucketedRedisService(String version) throws Exception {
+        connect(version);
+        return new BucketedRedisService<>(redisTemplate, new RedisValueReader(serializer),
+                new RedisInvalidationPublisher((RedisTemplate) redisTemplate, properties),
+                new SingleFlightLoader((RedisTemplate) redisTemplate, properties), properties);
+    }
+
+    private void connect(String version) throws Exception {
+        standIn = new RespStandIn(version);
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(InetAddress.getLoopbackAddress().getHostAddress(), standIn.port()));
+        connectionFactory.afterPropertiesSet();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(serializer);
+        redisTemplate.setHashValueSerializer(serializer);
+        redisTemplate.afterPropertiesSet();
+    }
+}
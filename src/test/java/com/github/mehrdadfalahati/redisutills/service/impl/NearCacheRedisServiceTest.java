@@ -0,0 +1,151 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.mehrdadfalahati.redisutills.service.ExpiringValue;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NearCacheRedisServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisService<String, Product> delegate = mock(RedisService.class);
+
+    private final NearCacheRedisService<String, Product> nearCacheRedisService =
+            new NearCacheRedisService<>(delegate, 100, Duration.ofMinutes(1));
+
+    private final Product milk = Product.builder()
+            .name("Milk")
+            .price(10.2)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        when(delegate.getAllWithExpire(eq(List.of("product")), any()))
+                .thenReturn(Map.of("product", new ExpiringValue<>(milk, 60_000L)));
+    }
+
+    @Test
+    void whenGettingProductTwice_expectedSingleRemoteRead() {
+        nearCacheRedisService.get("product", Product.getTypeReference());
+        Product product = nearCacheRedisService.get("product", Product.getTypeReference());
+
+        assertSame(milk, product);
+        verify(delegate, times(1)).getAllWithExpire(eq(List.of("product")), any());
+    }
+
+    @Test
+    void whenSettingProduct_expectedLocalEntryInvalidated() {
+        nearCacheRedisService.get("product", Product.getTypeReference());
+        nearCacheRedisService.set(new RedisDto<>("product", 5, TimeUnit.SECONDS), milk);
+        nearCacheRedisService.get("product", Product.getTypeReference());
+
+        verify(delegate, times(2)).getAllWithExpire(eq(List.of("product")), any());
+    }
+
+    @Test
+    void whenDeletingProduct_expectedLocalEntryInvalidated() {
+        nearCacheRedisService.get("product", Product.getTypeReference());
+        nearCacheRedisService.delete("product");
+        nearCacheRedisService.get("product", Product.getTypeReference());
+
+        verify(delegate, times(2)).getAllWithExpire(eq(List.of("product")), any());
+    }
+
+    @Test
+    void whenRedisKeyExpiresBeforeLocalTtl_expectedLocalEntryExpiresWithIt() throws InterruptedException {
+        when(delegate.getAllWithExpire(eq(List.of("product")), any()))
+                .thenReturn(Map.of("product", new ExpiringValue<>(milk, 50L)));
+
+        nearCacheRedisService.get("product", Product.getTypeReference());
+        Thread.sleep(100);
+        nearCacheRedisService.get("product", Product.getTypeReference());
+
+        verify(delegate, times(2)).getAllWithExpire(eq(List.of("product")), any());
+    }
+
+    @Test
+    void whenGettingAllWithLocalHit_expectedOnlyMissingKeysLoaded() {
+        when(delegate.getAllWithExpire(eq(List.of("other")), any()))
+                .thenReturn(Map.of("other", new ExpiringValue<>(milk, 60_000L)));
+        nearCacheRedisService.get("product", Product.getTypeReference());
+
+        Map<String, Product> products = nearCacheRedisService.getAll(List.of("product", "other"),
+                Product.getTypeReference());
+
+        assertEquals(List.of("product", "other"), List.copyOf(products.keySet()));
+        verify(delegate).getAllWithExpire(eq(List.of("other")), any());
+    }
+
+    @Test
+    void whenGettingAllTwice_expectedLoadedValuesCachedLocally() {
+        when(delegate.getAllWithExpire(eq(List.of("product", "other")), any()))
+                .thenReturn(Map.of("product", new ExpiringValue<>(milk, 60_000L)));
+
+        nearCacheRedisService.getAll(List.of("product", "other"), Product.getTypeReference());
+        Product product = nearCacheRedisService.get("product", Product.getTypeReference());
+
+        assertSame(milk, product);
+        verify(delegate, never()).getAllWithExpire(eq(List.of("product")), any());
+    }
+
+    @Test
+    void whenInvalidatedWhileReading_expectedStaleValueNotCached() {
+        when(delegate.getAllWithExpire(eq(List.of("product")), any())).thenAnswer(invocation -> {
+            // a write from another instance lands after the remote read but before the value is cached
+            nearCacheRedisService.onInvalidation(List.of("product"));
+            return Map.of("product", new ExpiringValue<>(milk, 60_000L));
+        });
+
+        assertSame(milk, nearCacheRedisService.get("product", Product.getTypeReference()));
+        nearCacheRedisService.get("product", Product.getTypeReference());
+
+        verify(delegate, times(2)).getAllWithExpire(eq(List.of("product")), any());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void whenReadingKeyAsAnotherType_expectedRemoteReadInsteadOfLocalEntry() {
+        TypeReference asMap = new TypeReference<Map<String, Object>>() {
+        };
+        nearCacheRedisService.get("product", Product.getTypeReference());
+
+        nearCacheRedisService.get("product", asMap);
+
+        verify(delegate, times(2)).getAllWithExpire(eq(List.of("product")), any());
+    }
+
+    @Test
+    void whenDeletingProductsByPattern_expectedLocalEntriesInvalidated() {
+        nearCacheRedisService.get("product", Product.getTypeReference());
+        nearCacheRedisService.deleteByPattern("prod*");
+        nearCacheRedisService.get("product", Product.getTypeReference());
+
+        verify(delegate).deleteByPattern("prod*");
+        verify(delegate, times(2)).getAllWithExpire(eq(List.of("product")), any());
+    }
+
+    @Test
+    void whenCheckingKeysWithLocalHit_expectedOnlyMissingKeysChecked() {
+        when(delegate.hasKeys(List.of("other"))).thenReturn(BitSet.valueOf(new long[]{0b1}));
+        nearCacheRedisService.get("product", Product.getTypeReference());
+
+        BitSet existing = nearCacheRedisService.hasKeys(List.of("product", "other"));
+
+        assertEquals(BitSet.valueOf(new long[]{0b11}), existing);
+        verify(delegate).hasKeys(List.of("other"));
+    }
+}
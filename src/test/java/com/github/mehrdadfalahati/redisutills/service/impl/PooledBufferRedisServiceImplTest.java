@@ -0,0 +1,228 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.mehrdadfalahati.redisutills.config.LettuceAsyncCommandsProvider;
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.CodecRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.JsonRedisValueCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.serializer.TypedRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledBufferRedisServiceImplTest {
+
+    private static final TypeReference<List<Product>> PRODUCTS = Product.getTypeReferences();
+    private static final TypeReference<List<String>> DOCUMENTS = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+    private final TypedRedisSerializer serializer = new CodecRedisSerializer(new JsonRedisValueCodec(objectMapper), List.of());
+
+    private final List<Product> products = IntStream.range(0, 50)
+            .mapToObj(i -> Product.builder().name("Milk " + i).price(10.2).build())
+            .toList();
+
+    private final List<String> documents = IntStream.range(0, 16)
+            .mapToObj(i -> ("document " + i + " ").repeat(200))
+            .toList();
+
+    private RespStandIn standIn;
+    private LettuceConnectionFactory connectionFactory;
+    private LettuceAsyncCommandsProvider asyncCommandsProvider;
+    private RedisService<String, List<Product>> templateRedisService;
+    private RedisService<String, List<Product>> pooledBufferRedisService;
+    private RedisService<String, List<String>> templateDocumentService;
+    private RedisService<String, List<String>> pooledBufferDocumentService;
+    private Function<TypedRedisSerializer, RedisService<String, List<Product>>> pooledBufferRedisServiceFactory;
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void setUp() throws Exception {
+        standIn = new RespStandIn();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(InetAddress.getLoopbackAddress().getHostAddress(), standIn.port()));
+        connectionFactory.afterPropertiesSet();
+
+        RedisTemplate<String, List<Product>> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(serializer);
+        redisTemplate.afterPropertiesSet();
+
+        RedisUtilsProperties properties = new RedisUtilsProperties();
+        RedisInvalidationPublisher invalidationPublisher = new RedisInvalidationPublisher((RedisTemplate) redisTemplate, properties);
+        SingleFlightLoader singleFlightLoader = new SingleFlightLoader((RedisTemplate) redisTemplate, properties);
+        RedisValueReader redisValueReader = new RedisValueReader(serializer);
+        asyncCommandsProvider = new LettuceAsyncCommandsProvider(connectionFactory);
+
+        RedisSlotGrouping slotGrouping = new RedisSlotGrouping(false, 1);
+        RedisKeyDeleter keyDeleter = new RedisKeyDeleter((RedisTemplate) redisTemplate, invalidationPublisher, properties,
+                slotGrouping);
+        templateRedisService = new RedisServiceImpl<>(redisTemplate, redisValueReader, invalidationPublisher,
+                singleFlightLoader, keyDeleter, slotGrouping);
+        pooledBufferRedisServiceFactory = valueSerializer -> new PooledBufferRedisServiceImpl<>(redisTemplate,
+                redisValueReader, invalidationPublisher, singleFlightLoader, keyDeleter, slotGrouping,
+                asyncCommandsProvider, valueSerializer);
+        pooledBufferRedisService = pooledBufferRedisServiceFactory.apply(serializer);
+        templateDocumentService = (RedisService) templateRedisService;
+        pooledBufferDocumentService = (RedisService) pooledBufferRedisService;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        asyncCommandsProvider.destroy();
+        connectionFactory.destroy();
+        standIn.close();
+    }
+
+    @Test
+    void whenSetThenGet_expectedSameValue() {
+        pooledBufferRedisService.set(dto("pooled-products"), products);
+
+        assertEquals(products, pooledBufferRedisService.get("pooled-products", PRODUCTS));
+        assertEquals(products, templateRedisService.get("pooled-products", PRODUCTS));
+        assertNull(pooledBufferRedisService.get("pooled-missing", PRODUCTS));
+    }
+
+    @Test
+    void whenSetIfAbsentOnExistingKey_expectedValueKept() {
+        pooledBufferRedisService.set(dto("pooled-existing"), products);
+
+        pooledBufferRedisService.setIfAbsent(dto("pooled-existing"), products.subList(0, 1));
+
+        assertEquals(products, pooledBufferRedisService.get("pooled-existing", PRODUCTS));
+    }
+
+    @Test
+    void whenGetAll_expectedOnlyExistingKeysInOrder() {
+        templateRedisService.set(dto("pooled-first"), products.subList(0, 1));
+        pooledBufferRedisService.set(dto("pooled-second"), products.subList(1, 2));
+
+        Map<String, List<Product>> values = pooledBufferRedisService.getAll(
+                List.of("pooled-second", "pooled-missing", "pooled-first"), PRODUCTS);
+
+        assertEquals(List.of("pooled-second", "pooled-first"), List.copyOf(values.keySet()));
+        assertEquals(products.subList(0, 1), values.get("pooled-first"));
+    }
+
+    @Test
+    void whenSetting_expectedValueSerializedOnCallingThread() {
+        Set<String> serializingThreads = ConcurrentHashMap.newKeySet();
+        RedisService<String, List<Product>> redisService = pooledBufferRedisServiceFactory.apply(new TypedRedisSerializer() {
+            @Override
+            public byte[] serialize(Object value) {
+                serializingThreads.add(Thread.currentThread().getName());
+                return serializer.serialize(value);
+            }
+
+            @Override
+            public void serialize(Object value, OutputStream out) {
+                serializingThreads.add(Thread.currentThread().getName());
+                serializer.serialize(value, out);
+            }
+
+            @Override
+            public Object deserialize(byte[] bytes) {
+                return serializer.deserialize(bytes);
+            }
+
+            @Override
+            public <T> T deserialize(byte[] bytes, Type type) {
+                return serializer.deserialize(bytes, type);
+            }
+        });
+
+        redisService.set(dto("pooled-caller"), products);
+
+        assertEquals(Set.of(Thread.currentThread().getName()), serializingThreads);
+        assertEquals(products, redisService.get("pooled-caller", PRODUCTS));
+    }
+
+    @Test
+    void whenWritingAndReadingLargeValues_expectedAtMostHalfTheAllocatedBytesOfTemplatePath() {
+        int iterations = 2_000;
+        exercise(templateDocumentService, documents, DOCUMENTS, iterations);
+        exercise(pooledBufferDocumentService, documents, DOCUMENTS, iterations);
+
+        long templateBytes = allocatedBytes(() -> exercise(templateDocumentService, documents, DOCUMENTS, iterations));
+        long pooledBytes = allocatedBytes(() -> exercise(pooledBufferDocumentService, documents, DOCUMENTS, iterations));
+
+        assertTrue(pooledBytes < templateBytes / 2, "template: " + templateBytes / iterations
+                + " B/op, pooled buffers: " + pooledBytes / iterations + " B/op");
+    }
+
+    @Test
+    void whenWritingAndReadingProducts_expectedFewerAllocatedBytesThanTemplatePath() {
+        int iterations = 2_000;
+        exercise(templateRedisService, products, PRODUCTS, iterations);
+        exercise(pooledBufferRedisService, products, PRODUCTS, iterations);
+
+        long templateBytes = allocatedBytes(() -> exercise(templateRedisService, products, PRODUCTS, iterations));
+        long pooledBytes = allocatedBytes(() -> exercise(pooledBufferRedisService, products, PRODUCTS, iterations));
+
+        assertTrue(pooledBytes < templateBytes, "template: " + templateBytes / iterations
+                + " B/op, pooled buffers: " + pooledBytes / iterations + " B/op");
+    }
+
+    private <V> void exercise(RedisService<String, V> redisService, V value, TypeReference<V> typeReference,
+                              int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            redisService.set(dto("pooled-benchmark"), value);
+            assertNotNull(redisService.get("pooled-benchmark", typeReference));
+        }
+    }
+
+    private static RedisDto<String> dto(String key) {
+        return new RedisDto<>(key, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Bytes allocated by the calling thread and Lettuce's event loop, which encodes and decodes the commands.
+     */
+    private static long allocatedBytes(Runnable runnable) {
+        long before = threadAllocatedBytes();
+        runnable.run();
+        return threadAllocatedBytes() - before;
+    }
+
+    private static long threadAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = threads.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && info.getThreadName().startsWith("lettuce-")) {
+                total += threads.getThreadAllocatedBytes(info.getThreadId());
+            }
+        }
+        return total;
+    }
+}
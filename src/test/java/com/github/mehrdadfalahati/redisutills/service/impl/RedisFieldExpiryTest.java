@@ -0,0 +1,174 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.CodecRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.JsonRedisValueCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.serializer.TypedRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the field expiry paths, which the shared container's Redis 5 never takes, against Redis 7.4 and Redis 8.
+ */
+class RedisFieldExpiryTest {
+
+    private static final String REDIS_7_4 = "redis:7.4-alpine";
+    private static final String REDIS_8 = "redis:8.0-alpine";
+    private static final TypeReference<String> STRING = new TypeReference<>() {
+    };
+    private static final RedisScript<Long> FIELD_TTL = RedisScript.of(
+            "return redis.call('HPTTL', KEYS[1], 'FIELDS', 1, ARGV[1])[1]", Long.class);
+    private static final Map<String, RedisContainer> CONTAINERS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> CONTAINERS.values().forEach(RedisContainer::stop)));
+    }
+
+    private final TypedRedisSerializer serializer = new CodecRedisSerializer(new JsonRedisValueCodec(new ObjectMapper()), List.of());
+    private final RedisUtilsProperties properties = new RedisUtilsProperties();
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> redisTemplate;
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {REDIS_7_4, REDIS_8})
+    void whenPuttingFields_expectedServerExpiresEachField(String image) {
+        RedisHashServiceImpl<String, String> redisHashService = redisHashService(image);
+        redisTemplate.delete("field-expiry");
+        resetCommandStats();
+
+        redisHashService.putField("field-expiry", "milk", "Milk", Duration.ofMillis(200));
+        redisHashService.putField("field-expiry", "meat", "Meat", Duration.ofSeconds(5));
+
+        assertEquals(2, commandCalls(REDIS_8.equals(image) ? "hsetex" : "hpexpire"));
+        assertEquals(Set.of("milk", "meat"), redisTemplate.opsForHash().keys("field-expiry"));
+        long ttl = fieldTtl("field-expiry", "meat");
+        assertTrue(ttl > 0 && ttl <= 5000);
+        await().atMost(Duration.ofSeconds(2)).until(() -> !redisTemplate.opsForHash().hasKey("field-expiry", "milk"));
+        assertEquals(Map.of("meat", "Meat"), redisHashService.getFields("field-expiry", List.of("milk", "meat"), STRING));
+        assertEquals(1, redisHashService.deleteFields("field-expiry", List.of("milk", "meat")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {REDIS_7_4, REDIS_8})
+    void whenSettingInBucket_expectedServerExpiresEachEntry(String image) {
+        BucketedRedisService<String, String> bucketedRedisService = bucketedRedisService(image, "field-expiry-bucket:");
+        redisTemplate.delete("field-expiry-bucket:0");
+
+        bucketedRedisService.set(new RedisDto<>("bucket-milk", 200, TimeUnit.MILLISECONDS), "Milk");
+        bucketedRedisService.set(new RedisDto<>("bucket-meat", 5, TimeUnit.SECONDS), "Meat");
+        bucketedRedisService.setIfAbsent(new RedisDto<>("bucket-meat", 5, TimeUnit.SECONDS), "Fish");
+        Map<RedisDto<String>, String> values = new LinkedHashMap<>();
+        values.put(new RedisDto<>("bucket-bread", 5, TimeUnit.SECONDS), "Bread");
+        values.put(new RedisDto<>("bucket-eggs", 5, TimeUnit.SECONDS), "Eggs");
+        bucketedRedisService.setAll(values);
+
+        assertEquals("Meat", bucketedRedisService.get("bucket-meat", STRING));
+        for (String field : List.of("bucket-meat", "bucket-bread", "bucket-eggs")) {
+            long ttl = fieldTtl("field-expiry-bucket:0", field);
+            assertTrue(ttl > 0 && ttl <= 5000);
+        }
+        // removed by the server itself, without a read or purge
+        await().atMost(Duration.ofSeconds(2)).until(() ->
+                !redisTemplate.opsForHash().hasKey("field-expiry-bucket:0", "bucket-milk"));
+        long expire = bucketedRedisService.getExpire("bucket-meat", TimeUnit.MILLISECONDS);
+        assertTrue(expire > 0 && expire <= 5000);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private RedisHashServiceImpl<String, String> redisHashService(String image) {
+        connect(image);
+        RedisInvalidationPublisher invalidationPublisher = new RedisInvalidationPublisher((RedisTemplate) redisTemplate, properties);
+        RedisSlotGrouping slotGrouping = new RedisSlotGrouping(false, 1);
+        return new RedisHashServiceImpl<>(redisTemplate, new RedisValueReader(serializer), invalidationPublisher,
+                new SingleFlightLoader((RedisTemplate) redisTemplate, properties),
+                new RedisKeyDeleter((RedisTemplate) redisTemplate, invalidationPublisher, properties, slotGrouping),
+                slotGrouping);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private BucketedRedisService<String, String> bucketedRedisService(String image, String prefix) {
+        connect(image);
+        RedisUtilsProperties bucketProperties = new RedisUtilsProperties();
+        bucketProperties.getBucket().setPrefix(prefix);
+        bucketProperties.getBucket().setCount(1);
+        return new BucketedRedisService<>(redisTemplate, new RedisValueReader(serializer),
+                new RedisInvalidationPublisher((RedisTemplate) redisTemplate, properties),
+                new SingleFlightLoader((RedisTemplate) redisTemplate, properties), bucketProperties);
+    }
+
+    private void connect(String image) {
+        RedisContainer container = CONTAINERS.computeIfAbsent(image, it -> {
+            RedisContainer started = new RedisContainer(DockerImageName.parse(it)).withExposedPorts(6379);
+            started.start();
+            return started;
+        });
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(container.getHost(), container.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(serializer);
+        redisTemplate.setHashValueSerializer(serializer);
+        redisTemplate.afterPropertiesSet();
+    }
+
+    private long fieldTtl(String key, String field) {
+        return redisTemplate.execute(FIELD_TTL, new StringRedisSerializer(), new GenericToStringSerializer<>(Long.class),
+                List.of(key), field);
+    }
+
+    private void resetCommandStats() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().resetConfigStats();
+            return null;
+        });
+    }
+
+    private long commandCalls(String command) {
+        Properties commandStats = redisTemplate.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("commandstats"));
+        String stats = commandStats.getProperty("cmdstat_" + command);
+        if (stats == null) {
+            return 0;
+        }
+        return Long.parseLong(stats.substring("calls=".length(), stats.indexOf(',')));
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.Cursor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RedisScanStreamsTest {
+
+    @SuppressWarnings("unchecked")
+    private final Cursor<Integer> cursor = mock(Cursor.class);
+
+    private final List<List<Integer>> loadedBatches = new ArrayList<>();
+
+    RedisScanStreamsTest() {
+        Iterator<Integer> elements = IntStream.range(0, 25).iterator();
+        when(cursor.hasNext()).thenAnswer(invocation -> elements.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> elements.next());
+    }
+
+    @Test
+    void whenConsumingWholeStream_expectedEveryBatchLoadedInOrder() {
+        try (Stream<Integer> stream = RedisScanStreams.batched(cursor, 10, this::load)) {
+            assertEquals(IntStream.range(0, 25).boxed().toList(), stream.toList());
+        }
+
+        assertEquals(List.of(10, 10, 5), loadedBatches.stream().map(List::size).toList());
+        verify(cursor).close();
+    }
+
+    @Test
+    void whenConsumingFirstElements_expectedOnlyFirstBatchLoaded() {
+        try (Stream<Integer> stream = RedisScanStreams.batched(cursor, 10, this::load)) {
+            assertEquals(List.of(0, 1, 2), stream.limit(3).toList());
+        }
+
+        assertEquals(1, loadedBatches.size());
+        verify(cursor, times(10)).next();
+        verify(cursor).close();
+    }
+
+    private List<Integer> load(List<Integer> batch) {
+        loadedBatches.add(batch);
+        return batch;
+    }
+}
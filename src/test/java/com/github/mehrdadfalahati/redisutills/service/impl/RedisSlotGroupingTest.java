@@ -0,0 +1,229 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.CodecRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.JsonRedisValueCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.serializer.TypedRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisSlotGroupingTest {
+
+    private static final TypeReference<String> STRING = new TypeReference<>() {
+    };
+
+    private final TypedRedisSerializer serializer = new CodecRedisSerializer(new JsonRedisValueCodec(new ObjectMapper()), List.of());
+
+    private RespStandIn standIn;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisService<String, String> slotGroupedRedisService;
+    private RedisService<String, String> plainRedisService;
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void setUp() throws Exception {
+        standIn = new RespStandIn();
+        standIn.enforceSlots();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(InetAddress.getLoopbackAddress().getHostAddress(), standIn.port()));
+        connectionFactory.afterPropertiesSet();
+
+        RedisTemplate<String, String> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(serializer);
+        redisTemplate.afterPropertiesSet();
+
+        RedisUtilsProperties properties = new RedisUtilsProperties();
+        RedisInvalidationPublisher invalidationPublisher = new RedisInvalidationPublisher((RedisTemplate) redisTemplate, properties);
+        SingleFlightLoader singleFlightLoader = new SingleFlightLoader((RedisTemplate) redisTemplate, properties);
+        RedisValueReader redisValueReader = new RedisValueReader(serializer);
+
+        RedisSlotGrouping slotGrouping = new RedisSlotGrouping(true, 4);
+        slotGroupedRedisService = new RedisServiceImpl<>(redisTemplate, redisValueReader, invalidationPublisher,
+                singleFlightLoader, new RedisKeyDeleter((RedisTemplate) redisTemplate, invalidationPublisher, properties,
+                slotGrouping), slotGrouping);
+        RedisSlotGrouping noGrouping = new RedisSlotGrouping(false, 4);
+        plainRedisService = new RedisServiceImpl<>(redisTemplate, redisValueReader, invalidationPublisher,
+                singleFlightLoader, new RedisKeyDeleter((RedisTemplate) redisTemplate, invalidationPublisher, properties,
+                noGrouping), noGrouping);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionFactory.destroy();
+        standIn.close();
+    }
+
+    @Test
+    void whenKeysSpanSlotsWithoutGrouping_expectedCrossSlotError() {
+        List<String> keys = List.of("slot-a", "slot-b", "slot-c");
+
+        assertThrows(DataAccessException.class, () -> plainRedisService.getAll(keys, STRING));
+        assertThrows(DataAccessException.class, () -> plainRedisService.deleteAll(keys));
+    }
+
+    @Test
+    void whenGettingKeysAcrossSlots_expectedOneMgetPerSlotInInputOrder() {
+        Map<RedisDto<String>, String> values = new LinkedHashMap<>();
+        IntStream.range(0, 100).forEach(i -> values.put(dto("slot-key:" + i), "value " + i));
+        slotGroupedRedisService.setAll(values);
+        List<String> keys = new ArrayList<>(IntStream.range(0, 100).mapToObj(i -> "slot-key:" + i).toList());
+        keys.add("slot-key:missing");
+        Collections.shuffle(keys, new Random(7));
+
+        Map<String, String> loaded = slotGroupedRedisService.getAll(keys, STRING);
+
+        assertEquals(keys.stream().filter(key -> !key.endsWith("missing")).toList(), List.copyOf(loaded.keySet()));
+        loaded.forEach((key, value) -> assertEquals("value " + key.substring("slot-key:".length()), value));
+        assertEquals(keys.stream().map(ClusterSlotHashUtil::calculateSlot).distinct().count(), standIn.calls("MGET"));
+    }
+
+    @Test
+    void whenKeysShareHashTag_expectedSingleCommandPerOperation() {
+        Map<RedisDto<String>, String> values = new LinkedHashMap<>();
+        IntStream.range(0, 20).forEach(i ->
+                values.put(RedisDto.withHashTag("customer:42", "order:" + i, 5, TimeUnit.SECONDS), "order " + i));
+        slotGroupedRedisService.setAll(values);
+        List<String> keys = values.keySet().stream().map(RedisDto::key).toList();
+
+        assertEquals(20, slotGroupedRedisService.getAll(keys, STRING).size());
+        assertEquals(20, slotGroupedRedisService.countExisting(keys));
+        assertEquals(20, slotGroupedRedisService.deleteAll(keys));
+        assertEquals(1, standIn.calls("MGET"));
+        assertEquals(1, standIn.calls("EXISTS"));
+        assertEquals(1, standIn.calls("UNLINK"));
+    }
+
+    @Test
+    void whenDeletingKeysAcrossSlots_expectedCountOfRemovedKeys() {
+        Map<RedisDto<String>, String> values = new LinkedHashMap<>();
+        IntStream.range(0, 30).forEach(i -> values.put(dto("slot-delete:" + i), "value " + i));
+        slotGroupedRedisService.setAll(values);
+        List<String> keys = new ArrayList<>(values.keySet().stream().map(RedisDto::key).toList());
+        keys.add("slot-delete:missing");
+
+        assertEquals(30, slotGroupedRedisService.countExisting(keys));
+        assertEquals(30, slotGroupedRedisService.deleteAll(keys));
+        assertEquals(0, slotGroupedRedisService.countExisting(keys));
+    }
+
+    @Test
+    void whenGrouping_expectedBatchesOfOneSlotInSlotOrder() {
+        byte[][] rawKeys = IntStream.range(0, 200)
+                .mapToObj(i -> ("{tag-" + (i % 5) + "}key:" + i).getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+
+        List<int[]> groups = new RedisSlotGrouping(true, 4).groups(rawKeys, 15);
+
+        assertEquals(15, groups.size());
+        int previousSlot = -1;
+        for (int[] group : groups) {
+            assertTrue(group.length <= 15);
+            int slot = ClusterSlotHashUtil.calculateSlot(rawKeys[group[0]]);
+            assertTrue(slot >= previousSlot);
+            for (int position : group) {
+                assertEquals(slot, ClusterSlotHashUtil.calculateSlot(rawKeys[position]));
+            }
+            previousSlot = slot;
+        }
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void whenClusterAwareConnectionFactory_expectedOnePipelinePerNodeWithoutRedirects() throws Exception {
+        List<RespStandIn> nodes = List.of(new RespStandIn(), new RespStandIn(), new RespStandIn());
+        RespStandIn.formCluster(nodes);
+        LettuceConnectionFactory clusterConnectionFactory = new LettuceConnectionFactory(new RedisClusterConfiguration(
+                nodes.stream().map(node -> InetAddress.getLoopbackAddress().getHostAddress() + ":" + node.port()).toList()));
+        clusterConnectionFactory.afterPropertiesSet();
+        try {
+            RedisTemplate<String, String> redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(clusterConnectionFactory);
+            redisTemplate.setKeySerializer(new StringRedisSerializer());
+            redisTemplate.setValueSerializer(serializer);
+            redisTemplate.afterPropertiesSet();
+            RedisUtilsProperties properties = new RedisUtilsProperties();
+            RedisInvalidationPublisher invalidationPublisher = new RedisInvalidationPublisher((RedisTemplate) redisTemplate, properties);
+            RedisSlotGrouping slotGrouping = new RedisSlotGrouping(clusterConnectionFactory, properties);
+            RedisService<String, String> clusterRedisService = new RedisServiceImpl<>(redisTemplate,
+                    new RedisValueReader(serializer), invalidationPublisher,
+                    new SingleFlightLoader((RedisTemplate) redisTemplate, properties),
+                    new RedisKeyDeleter((RedisTemplate) redisTemplate, invalidationPublisher, properties, slotGrouping),
+                    slotGrouping);
+            Map<RedisDto<String>, String> values = new LinkedHashMap<>();
+            IntStream.range(0, 60).forEach(i -> values.put(dto("cluster-key:" + i), "value " + i));
+            clusterRedisService.setAll(values);
+            List<String> keys = new ArrayList<>(values.keySet().stream().map(RedisDto::key).toList());
+            Collections.shuffle(keys, new Random(7));
+
+            Map<String, String> loaded = clusterRedisService.getAll(keys, STRING);
+
+            assertEquals(keys, List.copyOf(loaded.keySet()));
+            loaded.forEach((key, value) -> assertEquals("value " + key.substring("cluster-key:".length()), value));
+            assertEquals(60, clusterRedisService.countExisting(keys));
+            assertEquals(60, clusterRedisService.deleteAll(keys));
+            for (RespStandIn node : nodes) {
+                assertEquals(0, node.redirects());
+                assertTrue(node.calls("MGET") > 0);
+                assertTrue(node.keys().isEmpty());
+            }
+            assertEquals(keys.stream().map(ClusterSlotHashUtil::calculateSlot).distinct().count(),
+                    nodes.stream().mapToInt(node -> node.calls("MGET")).sum());
+
+            byte[][] rawKeys = keys.stream().map(key -> key.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+            List<RedisClusterNode> masters;
+            try (RedisClusterConnection connection = clusterConnectionFactory.getClusterConnection()) {
+                masters = List.copyOf((Collection<RedisClusterNode>) connection.clusterGetNodes());
+            }
+            List<List<int[]>> lanes = slotGrouping.lanes(slotGrouping.groups(rawKeys, 100), rawKeys, masters);
+            assertEquals(3, lanes.size());
+            for (List<int[]> lane : lanes) {
+                assertEquals(1, lane.stream()
+                        .map(group -> ClusterSlotHashUtil.calculateSlot(rawKeys[group[0]]))
+                        .map(slot -> masters.stream().filter(master -> master.servesSlot(slot)).findFirst().orElseThrow())
+                        .distinct()
+                        .count());
+            }
+        } finally {
+            clusterConnectionFactory.destroy();
+            for (RespStandIn node : nodes) {
+                node.close();
+            }
+        }
+    }
+
+    private static RedisDto<String> dto(String key) {
+        return new RedisDto<>(key, 5, TimeUnit.SECONDS);
+    }
+}
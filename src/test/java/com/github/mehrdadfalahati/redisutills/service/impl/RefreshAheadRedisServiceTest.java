@@ -0,0 +1,122 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshAheadRedisServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisService<String, RefreshAheadEntry<Product>> delegate = mock(RedisService.class);
+
+    private final RefreshAheadRedisService<String, Product> refreshAheadRedisService =
+            new RefreshAheadRedisService<>(delegate);
+
+    private final RedisDto<String> redisDto = new RedisDto<>("product", 5, TimeUnit.SECONDS);
+
+    private final Product milk = Product.builder()
+            .name("Milk")
+            .price(10.2)
+            .build();
+
+    private final Product meat = Product.builder()
+            .name("Meat")
+            .price(100.5)
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        refreshAheadRedisService.close();
+    }
+
+    @Test
+    void whenSettingProduct_expectedEntryWithExpiry() {
+        long before = System.currentTimeMillis();
+        refreshAheadRedisService.set(redisDto, milk);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<RefreshAheadEntry<Product>> entry = ArgumentCaptor.forClass(RefreshAheadEntry.class);
+        verify(delegate).set(eq(redisDto), entry.capture());
+        assertSame(milk, entry.getValue().value());
+        assertTrue(entry.getValue().expiresAt() >= before + 5000);
+    }
+
+    @Test
+    void whenSettingProductWithComputeTime_expectedEntryWithDelta() {
+        refreshAheadRedisService.set(redisDto, milk, Duration.ofMillis(250));
+        refreshAheadRedisService.setIfAbsent(redisDto, meat, Duration.ofSeconds(2));
+
+        verify(delegate).set(eq(redisDto), argThat(entry -> entry.value() == milk && entry.delta() == 250));
+        verify(delegate).setIfAbsent(eq(redisDto), argThat(entry -> entry.value() == meat && entry.delta() == 2000));
+    }
+
+    @Test
+    void whenEntryIsFarFromExpiry_expectedNoRefresh() {
+        when(delegate.get(eq("product"), any()))
+                .thenReturn(new RefreshAheadEntry<>(milk, 10, System.currentTimeMillis() + 60_000));
+
+        Product product = refreshAheadRedisService.getOrLoad(redisDto, Product.getTypeReference(), () -> meat);
+
+        assertSame(milk, product);
+        verify(delegate, after(200).never()).set(any(), any());
+    }
+
+    @Test
+    void whenEntryIsAboutToExpire_expectedCurrentValueAndBackgroundRefresh() {
+        when(delegate.get(eq("product"), any()))
+                .thenReturn(new RefreshAheadEntry<>(milk, 60_000, System.currentTimeMillis() + 10));
+
+        Product product = refreshAheadRedisService.getOrLoad(redisDto, Product.getTypeReference(), () -> meat);
+
+        assertSame(milk, product);
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                verify(delegate).set(eq(redisDto), argThat(entry -> entry.value() == meat)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenEntryIsMissing_expectedLoadedThroughDelegate() {
+        when(delegate.getOrLoad(eq(redisDto), any(), any()))
+                .thenAnswer(invocation -> ((Supplier<RefreshAheadEntry<Product>>) invocation.getArgument(2)).get());
+
+        Product product = refreshAheadRedisService.getOrLoad(redisDto, Product.getTypeReference(), () -> meat);
+
+        assertSame(meat, product);
+    }
+
+    @Test
+    void whenEntryHasSlowComputeTime_expectedRefreshMoreLikelyEarly() {
+        long expiresAt = System.currentTimeMillis() + 1_000;
+        RefreshAheadEntry<Product> fastEntry = new RefreshAheadEntry<>(milk, 1, expiresAt);
+        RefreshAheadEntry<Product> slowEntry = new RefreshAheadEntry<>(milk, 10_000, expiresAt);
+
+        long fastRefreshes = countRefreshes(fastEntry);
+        long slowRefreshes = countRefreshes(slowEntry);
+
+        assertEquals(0, fastRefreshes);
+        assertTrue(slowRefreshes > 800);
+    }
+
+    private long countRefreshes(RefreshAheadEntry<Product> entry) {
+        long refreshes = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (refreshAheadRedisService.shouldRefresh(entry)) {
+                refreshes++;
+            }
+        }
+        return refreshes;
+    }
+}
@@ -0,0 +1,296 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-JVM RESP3 server: understands HELLO, INFO, CLIENT TRACKING, SET, SETEX, GET, MGET, DEL, UNLINK and EXISTS,
+ * answers {@code :1} to HSETEX, EVAL and EVALSHA without running them, {@code +OK} to anything else and can push
+ * {@code invalidate} messages to tracking clients. It reports the version it was created with and records the
+ * arguments of every command. With {@link #enforceSlots()} it rejects multi-key commands spanning hash slots like a
+ * cluster node does; {@link #formCluster(List)} also makes stand-ins answer {@code CLUSTER NODES} and redirect keys of
+ * slots they do not serve with {@code MOVED}.
+ */
+class RespStandIn implements AutoCloseable {
+
+    private static final Set<String> MULTI_KEY_COMMANDS = Set.of("MGET", "DEL", "UNLINK", "EXISTS");
+    private static final Set<String> KEY_COMMANDS = Set.of("GET", "SET", "SETEX", "PSETEX", "MGET", "DEL", "UNLINK",
+            "EXISTS");
+
+    private final String version;
+    private final ServerSocket serverSocket;
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> commandCalls = new ConcurrentHashMap<>();
+    private final Map<String, List<List<String>>> commands = new ConcurrentHashMap<>();
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final List<Client> trackingClients = new CopyOnWriteArrayList<>();
+    private final List<List<String>> trackingCommands = new CopyOnWriteArrayList<>();
+    private final AtomicInteger redirects = new AtomicInteger();
+    private volatile boolean enforceSlots;
+    private volatile List<RespStandIn> cluster;
+
+    RespStandIn() throws IOException {
+        this("7.2.0");
+    }
+
+    RespStandIn(String version) throws IOException {
+        this.version = version;
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(this::accept);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    void put(String key, String value) {
+        values.put(key, value);
+    }
+
+    Set<String> keys() {
+        return values.keySet();
+    }
+
+    void enforceSlots() {
+        enforceSlots = true;
+    }
+
+    /**
+     * Makes {@code nodes} the masters of one cluster, each serving an equal, contiguous share of the hash slots.
+     */
+    static void formCluster(List<RespStandIn> nodes) {
+        for (RespStandIn node : nodes) {
+            node.enforceSlots = true;
+            node.cluster = List.copyOf(nodes);
+        }
+    }
+
+    /**
+     * @return the number of commands answered with a {@code MOVED} redirection
+     */
+    int redirects() {
+        return redirects.get();
+    }
+
+    int calls(String command) {
+        return commandCalls.getOrDefault(command, new AtomicInteger()).get();
+    }
+
+    /**
+     * @return the arguments, after the command name, of every call of {@code command} in the order received
+     */
+    List<List<String>> commands(String command) {
+        return commands.getOrDefault(command, List.of());
+    }
+
+    List<List<String>> trackingCommands() {
+        return trackingCommands;
+    }
+
+    void invalidate(String... keys) throws IOException {
+        StringBuilder push = new StringBuilder(">2\r\n").append(bulk("invalidate"));
+        push.append('*').append(keys.length).append("\r\n");
+        for (String key : keys) {
+            push.append(bulk(key));
+        }
+        pushToTrackingClients(push.toString());
+    }
+
+    void invalidateAll() throws IOException {
+        pushToTrackingClients(">2\r\n" + bulk("invalidate") + "_\r\n");
+    }
+
+    /**
+     * Drops every client connection, as a server restart or network failure would.
+     */
+    void disconnectAll() throws IOException {
+        for (Client client : clients) {
+            client.socket.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void pushToTrackingClients(String push) throws IOException {
+        for (Client client : trackingClients) {
+            client.write(push);
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Client client = new Client(serverSocket.accept());
+                clients.add(client);
+                Thread.ofVirtual().start(client::serve);
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private static String address(RespStandIn node) {
+        return InetAddress.getLoopbackAddress().getHostAddress() + ":" + node.port();
+    }
+
+    private static String bulk(String value) {
+        return "$" + value.getBytes(StandardCharsets.UTF_8).length + "\r\n" + value + "\r\n";
+    }
+
+    private class Client {
+
+        private final Socket socket;
+        private final OutputStream out;
+
+        Client(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = socket.getOutputStream();
+        }
+
+        synchronized void write(String reply) throws IOException {
+            out.write(reply.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        void serve() {
+            try (socket) {
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                for (List<String> command = readCommand(in); command != null; command = readCommand(in)) {
+                    write(execute(command));
+                }
+            } catch (IOException ignored) {
+                // the client went away
+            }
+            clients.remove(this);
+            trackingClients.remove(this);
+        }
+
+        private String execute(List<String> command) {
+            String name = command.get(0).toUpperCase();
+            commandCalls.computeIfAbsent(name, it -> new AtomicInteger()).incrementAndGet();
+            commands.computeIfAbsent(name, it -> new CopyOnWriteArrayList<>()).add(command.subList(1, command.size()));
+            if (enforceSlots && MULTI_KEY_COMMANDS.contains(name) && spansSlots(command.subList(1, command.size()))) {
+                return "-CROSSSLOT Keys in request don't hash to the same slot\r\n";
+            }
+            if (cluster != null && KEY_COMMANDS.contains(name)) {
+                int slot = ClusterSlotHashUtil.calculateSlot(command.get(1));
+                RespStandIn owner = cluster.get(slot * cluster.size() / ClusterSlotHashUtil.SLOT_COUNT);
+                if (owner != RespStandIn.this) {
+                    redirects.incrementAndGet();
+                    return "-MOVED " + slot + " " + address(owner) + "\r\n";
+                }
+            }
+            switch (name) {
+                case "HELLO":
+                    return "%3\r\n" + bulk("server") + bulk("redis") + bulk("version") + bulk(version)
+                            + bulk("proto") + ":3\r\n";
+                case "INFO":
+                    return bulk("# Server\r\nredis_version:" + version + "\r\n");
+                case "HSETEX", "EVAL", "EVALSHA":
+                    return ":1\r\n";
+                case "CLUSTER":
+                    if ("NODES".equalsIgnoreCase(command.get(1)) && cluster != null) {
+                        return bulk(clusterNodes());
+                    }
+                    return "+OK\r\n";
+                case "CLIENT":
+                    if ("TRACKING".equalsIgnoreCase(command.get(1))) {
+                        trackingCommands.add(command);
+                        trackingClients.add(this);
+                    }
+                    return "+OK\r\n";
+                case "SET":
+                    boolean nx = command.subList(3, command.size()).stream().anyMatch("NX"::equalsIgnoreCase);
+                    if (nx && values.putIfAbsent(command.get(1), command.get(2)) != null) {
+                        return "_\r\n";
+                    }
+                    values.put(command.get(1), command.get(2));
+                    return "+OK\r\n";
+                case "SETEX", "PSETEX":
+                    values.put(command.get(1), command.get(3));
+                    return "+OK\r\n";
+                case "GET":
+                    return value(command.get(1));
+                case "MGET":
+                    StringBuilder reply = new StringBuilder("*").append(command.size() - 1).append("\r\n");
+                    command.subList(1, command.size()).forEach(key -> reply.append(value(key)));
+                    return reply.toString();
+                case "DEL", "UNLINK":
+                    return ":" + command.subList(1, command.size()).stream().filter(key -> values.remove(key) != null).count()
+                            + "\r\n";
+                case "EXISTS":
+                    return ":" + command.subList(1, command.size()).stream().filter(values::containsKey).count() + "\r\n";
+                default:
+                    return "+OK\r\n";
+            }
+        }
+
+        private String clusterNodes() {
+            StringBuilder nodes = new StringBuilder();
+            for (int i = 0; i < cluster.size(); i++) {
+                RespStandIn node = cluster.get(i);
+                int firstSlot = (ClusterSlotHashUtil.SLOT_COUNT * i + cluster.size() - 1) / cluster.size();
+                int lastSlot = (ClusterSlotHashUtil.SLOT_COUNT * (i + 1) + cluster.size() - 1) / cluster.size() - 1;
+                nodes.append("node-").append(node.port()).append(' ').append(address(node)).append("@0 ")
+                        .append(node == RespStandIn.this ? "myself,master" : "master")
+                        .append(" - 0 0 ").append(i + 1).append(" connected ")
+                        .append(firstSlot).append('-').append(lastSlot).append('\n');
+            }
+            return nodes.toString();
+        }
+
+        private boolean spansSlots(List<String> keys) {
+            return keys.stream().map(ClusterSlotHashUtil::calculateSlot).distinct().count() > 1;
+        }
+
+        private String value(String key) {
+            String value = values.get(key);
+            return value == null ? "_\r\n" : bulk(value);
+        }
+
+        private List<String> readCommand(InputStream in) throws IOException {
+            String header = readLine(in);
+            if (header == null) {
+                return null;
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<String> command = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(readLine(in).substring(1));
+                command.add(new String(in.readNBytes(length), StandardCharsets.UTF_8));
+                in.readNBytes(2);
+            }
+            return command;
+        }
+
+        private String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int c = in.read(); c != '\r'; c = in.read()) {
+                if (c == -1) {
+                    return null;
+                }
+                line.append((char) c);
+            }
+            in.read();
+            return line.toString();
+        }
+    }
+}
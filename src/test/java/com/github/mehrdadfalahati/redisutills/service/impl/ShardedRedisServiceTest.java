@@ -0,0 +1,160 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.invalidation.RedisInvalidationPublisher;
+import com.github.mehrdadfalahati.redisutills.serializer.CodecRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.JsonRedisValueCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.serializer.TypedRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedRedisServiceTest {
+
+    private static final TypeReference<String> STRING = new TypeReference<>() {
+    };
+    private static final int RING_KEYS = 50_000;
+
+    private final TypedRedisSerializer serializer = new CodecRedisSerializer(new JsonRedisValueCodec(new ObjectMapper()), List.of());
+
+    private final List<RespStandIn> standIns = new ArrayList<>();
+    private final List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+    private ShardedRedisService<String, String> shardedRedisService;
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void setUp() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            RespStandIn standIn = new RespStandIn();
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                    new RedisStandaloneConfiguration(InetAddress.getLoopbackAddress().getHostAddress(), standIn.port()));
+            connectionFactory.afterPropertiesSet();
+            standIns.add(standIn);
+            connectionFactories.add(connectionFactory);
+        }
+
+        RedisTemplate<String, String> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactories.get(0));
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(serializer);
+        redisTemplate.afterPropertiesSet();
+
+        RedisUtilsProperties properties = new RedisUtilsProperties();
+        shardedRedisService = ShardedRedisService.create(connectionFactories, redisTemplate, new RedisValueReader(serializer),
+                new RedisInvalidationPublisher((RedisTemplate) redisTemplate, properties),
+                new SingleFlightLoader((RedisTemplate) redisTemplate, properties), properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (LettuceConnectionFactory connectionFactory : connectionFactories) {
+            connectionFactory.destroy();
+        }
+        for (RespStandIn standIn : standIns) {
+            standIn.close();
+        }
+    }
+
+    @Test
+    void whenSettingKeys_expectedEachStoredOnExactlyOneShard() {
+        shardedRedisService.setAll(values("sharded-key:", 90));
+
+        long stored = standIns.stream().mapToLong(standIn -> standIn.keys().size()).sum();
+        assertEquals(90, stored);
+        standIns.forEach(standIn -> assertFalse(standIn.keys().isEmpty()));
+        assertEquals("value 7", shardedRedisService.get("sharded-key:7", STRING));
+    }
+
+    @Test
+    void whenBulkReadingAcrossShards_expectedInputOrder() {
+        shardedRedisService.setAll(values("sharded-read:", 60));
+        List<String> keys = new ArrayList<>(IntStream.range(0, 60).mapToObj(i -> "sharded-read:" + i).toList());
+        keys.add("sharded-read:missing");
+        Collections.shuffle(keys, new Random(11));
+
+        Map<String, String> loaded = shardedRedisService.getAll(keys, STRING);
+
+        assertEquals(keys.stream().filter(key -> !key.endsWith("missing")).toList(), List.copyOf(loaded.keySet()));
+        loaded.forEach((key, value) -> assertEquals("value " + key.substring("sharded-read:".length()), value));
+        standIns.forEach(standIn -> assertEquals(1, standIn.calls("MGET")));
+    }
+
+    @Test
+    void whenCheckingAndDeletingAcrossShards_expectedResultsOfAllShards() {
+        shardedRedisService.setAll(values("sharded-delete:", 30));
+        List<String> keys = List.of("sharded-delete:0", "sharded-delete:missing", "sharded-delete:1", "sharded-delete:2");
+
+        assertEquals(BitSet.valueOf(new long[]{0b1101}), shardedRedisService.hasKeys(keys));
+        assertEquals(3, shardedRedisService.countExisting(keys));
+        assertEquals(3, shardedRedisService.deleteAll(keys));
+        assertFalse(shardedRedisService.hasKey("sharded-delete:0"));
+        assertEquals(27, standIns.stream().mapToLong(standIn -> standIn.keys().size()).sum());
+    }
+
+    @Test
+    void whenNodeAdded_expectedOnlyItsShareOfKeysMoved() {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        IntStream.range(0, 4).forEach(i -> nodes.put("redis-" + i + ":6379", "redis-" + i));
+        ConsistentHashRing<String> before = new ConsistentHashRing<>(nodes, 160);
+        nodes.put("redis-4:6379", "redis-4");
+        ConsistentHashRing<String> after = new ConsistentHashRing<>(nodes, 160);
+
+        int moved = 0;
+        for (int i = 0; i < RING_KEYS; i++) {
+            byte[] key = ("product:" + i).getBytes(StandardCharsets.UTF_8);
+            String owner = after.nodeFor(key);
+            if (!owner.equals(before.nodeFor(key))) {
+                assertEquals("redis-4", owner);
+                moved++;
+            }
+        }
+
+        // a fifth node should take over about a fifth of the keys
+        assertTrue(moved > RING_KEYS * 0.15 && moved < RING_KEYS * 0.25, moved + " of " + RING_KEYS + " keys moved");
+    }
+
+    @Test
+    void whenRoutingManyKeys_expectedEvenSpreadOverNodes() {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        IntStream.range(0, 5).forEach(i -> nodes.put("redis-" + i + ":6379", "redis-" + i));
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(nodes, 160);
+
+        Map<String, Long> keysPerNode = IntStream.range(0, RING_KEYS)
+                .mapToObj(i -> ring.nodeFor(("product:" + i).getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.groupingBy(node -> node, HashMap::new, Collectors.counting()));
+
+        long expected = RING_KEYS / nodes.size();
+        keysPerNode.forEach((node, count) ->
+                assertTrue(Math.abs(count - expected) < expected * 0.3, node + " owns " + count + " keys"));
+    }
+
+    private static Map<RedisDto<String>, String> values(String prefix, int count) {
+        Map<RedisDto<String>, String> values = new LinkedHashMap<>();
+        IntStream.range(0, count).forEach(i -> values.put(new RedisDto<>(prefix + i, 5, TimeUnit.SECONDS), "value " + i));
+        return values;
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.github.mehrdadfalahati.redisutills.config.RedisUtilsProperties;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SingleFlightLoaderTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisService<String, Product> redisService = mock(RedisService.class);
+
+    @SuppressWarnings("unchecked")
+    private final SingleFlightLoader singleFlightLoader =
+            new SingleFlightLoader(mock(RedisTemplate.class), new RedisUtilsProperties());
+
+    private final AtomicReference<Product> stored = new AtomicReference<>();
+
+    private final RedisDto<String> redisDto = new RedisDto<>("product", 5, TimeUnit.SECONDS);
+
+    private final Product milk = Product.builder()
+            .name("Milk")
+            .price(10.2)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        when(redisService.get(eq("product"), any())).thenAnswer(invocation -> stored.get());
+        doAnswer(invocation -> {
+            stored.set(invocation.getArgument(1));
+            return null;
+        }).when(redisService).set(any(), any());
+    }
+
+    @Test
+    void whenValueIsCached_expectedLoaderNotCalled() {
+        stored.set(milk);
+
+        Product product = singleFlightLoader.getOrLoad(redisService, redisDto, Product.getTypeReference(), () -> {
+            throw new AssertionError("loader must not run");
+        });
+
+        assertSame(milk, product);
+    }
+
+    @Test
+    void whenManyThreadsMissAtOnce_expectedSingleLoaderCall() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<CompletableFuture<Product>> results = IntStream.range(0, 32)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        await(start);
+                        return singleFlightLoader.getOrLoad(redisService, redisDto, Product.getTypeReference(), () -> {
+                            loads.incrementAndGet();
+                            sleep();
+                            return milk;
+                        });
+                    }, executor))
+                    .toList();
+            start.countDown();
+
+            assertTrue(results.stream().allMatch(result -> result.join() == milk));
+            assertEquals(1, loads.get());
+            verify(redisService, times(1)).set(redisDto, milk);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenLoaderFails_expectedWaitingCallersSeeFailureAndNextCallRetries() {
+        assertThrows(IllegalStateException.class, () -> singleFlightLoader.getOrLoad(redisService, redisDto,
+                Product.getTypeReference(), () -> {
+                    throw new IllegalStateException("backend down");
+                }));
+
+        assertSame(milk, singleFlightLoader.getOrLoad(redisService, redisDto, Product.getTypeReference(), () -> milk));
+    }
+
+    @Test
+    void whenValueStoredBeforeWinningFlight_expectedLoaderNotCalled() {
+        // the first read misses, then a flight finishing meanwhile stores the value
+        when(redisService.get(eq("product"), any())).thenReturn(null, milk);
+
+        Product product = singleFlightLoader.getOrLoad(redisService, redisDto, Product.getTypeReference(), () -> {
+            throw new AssertionError("loader must not run");
+        });
+
+        assertSame(milk, product);
+        verify(redisService, never()).set(any(), any());
+    }
+
+    @Test
+    void whenLeaseReleased_expectedScriptSentByDigest() throws Exception {
+        RedisUtilsProperties properties = new RedisUtilsProperties();
+        properties.getLoad().setLease(Duration.ofSeconds(5));
+        try (RespStandIn standIn = new RespStandIn()) {
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                    new RedisStandaloneConfiguration(InetAddress.getLoopbackAddress().getHostAddress(), standIn.port()));
+            connectionFactory.afterPropertiesSet();
+            try {
+                RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<>();
+                redisTemplate.setConnectionFactory(connectionFactory);
+                redisTemplate.setKeySerializer(new StringRedisSerializer());
+                redisTemplate.afterPropertiesSet();
+
+                assertSame(milk, new SingleFlightLoader(redisTemplate, properties)
+                        .getOrLoad(redisService, redisDto, Product.getTypeReference(), () -> milk));
+
+                List<String> release = standIn.commands("EVALSHA").get(0);
+                assertEquals(List.of("1", "product:lease"), release.subList(1, 3));
+                assertEquals(0, standIn.calls("EVAL"));
+            } finally {
+                connectionFactory.destroy();
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.github.mehrdadfalahati.redisutills.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.mehrdadfalahati.redisutills.serializer.CodecRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.JsonRedisValueCodec;
+import com.github.mehrdadfalahati.redisutills.serializer.RedisValueReader;
+import com.github.mehrdadfalahati.redisutills.serializer.key.KeyStrategyRedisSerializer;
+import com.github.mehrdadfalahati.redisutills.serializer.key.NamespacedKeyStrategy;
+import com.github.mehrdadfalahati.redisutills.service.RedisDto;
+import com.github.mehrdadfalahati.redisutills.service.RedisService;
+import com.github.mehrdadfalahati.redisutills.service.dto.Product;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TrackingRedisServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final RedisValueReader redisValueReader = new RedisValueReader(
+            new CodecRedisSerializer(new JsonRedisValueCodec(objectMapper), List.of()));
+
+    @SuppressWarnings("unchecked")
+    private final RedisService<String, Product> delegate = mock(RedisService.class);
+
+    private final Product milk = Product.builder()
+            .name("Milk")
+            .price(10.2)
+            .build();
+
+    private final Product meat = Product.builder()
+            .name("Meat")
+            .price(100.5)
+            .build();
+
+    private RespStandIn standIn;
+    private RedisClient redisClient;
+    private TrackingRedisService<String, Product> trackingRedisService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        standIn = new RespStandIn();
+        standIn.put("product", objectMapper.writeValueAsString(milk));
+        redisClient = RedisClient.create();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        trackingRedisService.close();
+        redisClient.shutdown();
+        standIn.close();
+    }
+
+    @Test
+    void whenGettingProductTwice_expectedSingleServerRead() {
+        trackingRedisService = defaultMode();
+
+        trackingRedisService.get("product", Product.getTypeReference());
+        Product product = trackingRedisService.get("product", Product.getTypeReference());
+
+        assertEquals(milk, product);
+        assertEquals(1, standIn.calls("GET"));
+    }
+
+    @Test
+    void whenServerPushesInvalidation_expectedProductReadAgain() throws Exception {
+        trackingRedisService = defaultMode();
+        trackingRedisService.get("product", Product.getTypeReference());
+
+        standIn.put("product", objectMapper.writeValueAsString(meat));
+        standIn.invalidate("product");
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertEquals(meat, trackingRedisService.get("product", Product.getTypeReference())));
+        assertEquals(2, standIn.calls("GET"));
+    }
+
+    @Test
+    void whenServerFlushes_expectedAllProductsReadAgain() throws Exception {
+        trackingRedisService = defaultMode();
+        trackingRedisService.getAll(List.of("product"), Product.getTypeReference());
+
+        standIn.put("product", objectMapper.writeValueAsString(meat));
+        standIn.invalidateAll();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertEquals(Map.of("product", meat),
+                trackingRedisService.getAll(List.of("product", "missing"), Product.getTypeReference())));
+    }
+
+    @Test
+    void whenSettingProduct_expectedLocalCopyDropped() {
+        trackingRedisService = defaultMode();
+        trackingRedisService.get("product", Product.getTypeReference());
+
+        trackingRedisService.set(new RedisDto<>("product", 5, TimeUnit.SECONDS), meat);
+        trackingRedisService.get("product", Product.getTypeReference());
+
+        assertEquals(2, standIn.calls("GET"));
+    }
+
+    @Test
+    void whenUsingBroadcastMode_expectedPrefixesEncodedLikeKeys() throws Exception {
+        standIn.put("catalog:v2:product", objectMapper.writeValueAsString(milk));
+        trackingRedisService = TrackingRedisService.broadcastMode(delegate, redisClient, redisUri(),
+                new KeyStrategyRedisSerializer(new NamespacedKeyStrategy("catalog:", 2, 0)), redisValueReader, 100,
+                "prod");
+
+        List<String> trackingCommand = standIn.trackingCommands().get(0);
+        assertEquals(List.of("CLIENT", "TRACKING", "ON"), trackingCommand.subList(0, 3));
+        assertTrue(trackingCommand.contains("BCAST"));
+        assertEquals("catalog:v2:prod", trackingCommand.get(trackingCommand.indexOf("PREFIX") + 1));
+        trackingRedisService.get("product", Product.getTypeReference());
+        trackingRedisService.get("product", Product.getTypeReference());
+        assertEquals(1, standIn.calls("GET"));
+    }
+
+    @Test
+    void whenReadingKeyOutsideBroadcastPrefixes_expectedReadThroughEveryTime() throws Exception {
+        standIn.put("order", objectMapper.writeValueAsString(meat));
+        trackingRedisService = TrackingRedisService.broadcastMode(delegate, redisClient, redisUri(),
+                new StringRedisSerializer(), redisValueReader, 100, "product");
+
+        trackingRedisService.get("order", Product.getTypeReference());
+        Product product = trackingRedisService.get("order", Product.getTypeReference());
+
+        assertEquals(meat, product);
+        assertEquals(2, standIn.calls("GET"));
+    }
+
+    @Test
+    void whenReadingProductAsOtherType_expectedServerRead() {
+        trackingRedisService = defaultMode();
+        trackingRedisService.get("product", Product.getTypeReference());
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        TrackingRedisService<String, Map<String, Object>> untyped = (TrackingRedisService) trackingRedisService;
+        Map<String, Object> product = untyped.get("product", new TypeReference<Map<String, Object>>() {
+        });
+
+        assertEquals("Milk", product.get("name"));
+        assertEquals(2, standIn.calls("GET"));
+    }
+
+    @Test
+    void whenConnectionDrops_expectedTrackingSwitchedOnAgainBeforeNextRead() throws Exception {
+        trackingRedisService = defaultMode();
+        trackingRedisService.get("product", Product.getTypeReference());
+
+        standIn.disconnectAll();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertEquals(milk, trackingRedisService.get("product", Product.getTypeReference()));
+            assertEquals(2, standIn.calls("GET"));
+        });
+        assertEquals(2, standIn.trackingCommands().size());
+    }
+
+    @Test
+    void whenCreatingTrackingService_expectedGivenClientLeftUntouched() {
+        ClientOptions options = redisClient.getOptions();
+
+        trackingRedisService = defaultMode();
+
+        assertSame(options, redisClient.getOptions());
+        assertNull(redisClient.getOptions().getConfiguredProtocolVersion());
+        assertEquals(milk, trackingRedisService.get("product", Product.getTypeReference()));
+    }
+
+    private TrackingRedisService<String, Product> defaultMode() {
+        return TrackingRedisService.defaultMode(delegate, redisClient, redisUri(), new StringRedisSerializer(),
+                redisValueReader, 100);
+    }
+
+    private RedisURI redisUri() {
+        return RedisURI.create("localhost", standIn.port());
+    }
+}